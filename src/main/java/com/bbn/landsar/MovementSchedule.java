@@ -49,6 +49,17 @@ public interface MovementSchedule {
       */
     long timeSpentMoving(long startTime, long endTime);
 
+    /**
+     * Batch form of {@link #timeSpentMoving(long, long)} for a regular time grid:
+     * out[k] is the time spent moving from startTime + k * timeDelta to startTime + (k + 1) * timeDelta
+     */
+    default void timeSpentMoving(long startTime, long timeDelta, long[] out) {
+        for (int k = 0; k < out.length; k++) {
+            long stepStart = startTime + k * timeDelta;
+            out[k] = timeSpentMoving(stepStart, stepStart + timeDelta);
+        }
+    }
+
     List<long[]> determineMovingIntervals(long minTime, long maxTime);
 
     /**
@@ -20,6 +20,7 @@ https://github.com/atapas/add-copyright.git
 package com.bbn.landsar;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.TimeZone;
 
@@ -27,6 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.bbn.landsar.utils.DateTimeUtilities;
+import com.bbn.landsar.utils.UtcOffsetTable;
 
 /**
  * Note that this version of a schedule assumes that every 24 hour period is identical
@@ -50,6 +52,10 @@ public class MovementSchedule24HourPeriod implements MovementSchedule {
 	private long timeMovingPerDay;
 
 	private TimeZone timeZone;
+
+	// derived from movingIntervals and timeZone on first use, see getMovingTimeTable() and getUtcOffsets()
+	private transient volatile MovingTimeTable movingTimeTable;
+	private transient volatile UtcOffsetTable utcOffsets;
 	
     public enum MovementStatus {Resting, Moving};
 	
@@ -128,7 +134,34 @@ public class MovementSchedule24HourPeriod implements MovementSchedule {
 		if (startTime >  endTime) {
 			throw new IllegalArgumentException("End time before start time");
 		}
-		
+		return timeSpentMoving(getMovingTimeTable(), startTime, endTime, getUtcOffsets().getOffset(startTime));
+	}
+
+	/**
+	 * Batch form of {@link #timeSpentMoving(long, long)}, looking up the tables once and the UTC offset only when it changes
+	 */
+	@Override
+	public void timeSpentMoving(long startTime, long timeDelta, long[] out) {
+		if (timeDelta < 0) {
+			throw new IllegalArgumentException("End time before start time");
+		}
+		MovingTimeTable table = getMovingTimeTable();
+		UtcOffsetTable offsets = getUtcOffsets();
+		long offsetStart = Long.MAX_VALUE;
+		long offsetEnd = Long.MIN_VALUE;
+		int offset = 0;
+		for (int k = 0; k < out.length; k++) {
+			long stepStart = startTime + k * timeDelta;
+			if (stepStart < offsetStart || stepStart >= offsetEnd) {
+				offset = offsets.getOffset(stepStart);
+				offsetStart = stepStart;
+				offsetEnd = offsets.nextTransition(stepStart);
+			}
+			out[k] = timeSpentMoving(table, stepStart, stepStart + timeDelta, offset);
+		}
+	}
+
+	private long timeSpentMoving(MovingTimeTable table, long startTime, long endTime, int utcOffset) {
 		// Determine the number of complete days in the interval
 		long numWholeDays = (endTime - startTime) / millisecInDay;
 		long  timeMoving = timeMovingPerDay * numWholeDays;
@@ -139,17 +172,106 @@ public class MovementSchedule24HourPeriod implements MovementSchedule {
 		
 		// absolute value of timezone Offset is between 0 and 24 hours, startTime is between 0 and 24 hours
 		// hence t0 is obtained by "modding" a positive number and is between 0 and 24 hours
-		long t0 = (millisecInDay + startTime + this.getTimeZone().getOffset(startTime)) %  millisecInDay;
+		long t0 = (millisecInDay + startTime + utcOffset) %  millisecInDay;
 		
 		// t1 must be between 0 and 48 hours
 		long t1 = t0 + remainingTime;
-		TimeInterval interval = new TimeInterval(t0, t1);
 		
 		// The "moving" intervals cover the time from 0 to 48 hours by construction
-		for (TimeInterval t : movingIntervals) {
-			timeMoving += t.calcIntersectionDuration(interval);
+		return timeMoving + table.movingTimeBefore(t1) - table.movingTimeBefore(t0);
+	}
+
+	private MovingTimeTable getMovingTimeTable() {
+		MovingTimeTable table = movingTimeTable;
+		if (table == null) {
+			synchronized (this) {
+				table = movingTimeTable;
+				if (table == null) {
+					table = new MovingTimeTable(movingIntervals);
+					movingTimeTable = table;
+				}
+			}
+		}
+		return table;
+	}
+
+	private UtcOffsetTable getUtcOffsets() {
+		UtcOffsetTable offsets = utcOffsets;
+		if (offsets == null) {
+			synchronized (this) {
+				offsets = utcOffsets;
+				if (offsets == null) {
+					offsets = new UtcOffsetTable(getTimeZone());
+					utcOffsets = offsets;
+				}
+			}
+		}
+		return offsets;
+	}
+
+	/**
+	 * Cumulative moving time over the 48 hours covered by the moving intervals, tabulated at minute resolution, so that
+	 * the moving time in any interval is the difference of two lookups. Within a minute the cumulative time is linear
+	 * unless a moving interval starts or ends inside it; those minutes (none, for schedules that change on whole minutes)
+	 * are evaluated exactly from the intervals.
+	 */
+	private static class MovingTimeTable {
+		private static final long RESOLUTION = DateTimeUtilities.millisecInMin;
+		private static final int NUM_STEPS = (int) (2 * millisecInDay / RESOLUTION);
+
+		private final long[] intervalStarts;
+		private final long[] intervalEnds;
+		// cumulative[m] is the moving time in [0, m * RESOLUTION)
+		private final long[] cumulative = new long[NUM_STEPS + 1];
+		// set for minutes that an interval starts or ends inside of
+		private final BitSet nonLinear = new BitSet(NUM_STEPS);
+
+		MovingTimeTable(List<TimeInterval> movingIntervals) {
+			int numIntervals = movingIntervals == null ? 0 : movingIntervals.size();
+			intervalStarts = new long[numIntervals];
+			intervalEnds = new long[numIntervals];
+			for (int i = 0; i < numIntervals; i++) {
+				intervalStarts[i] = movingIntervals.get(i).t0;
+				intervalEnds[i] = movingIntervals.get(i).t1;
+			}
+			for (int m = 0; m <= NUM_STEPS; m++) {
+				cumulative[m] = exactMovingTimeBefore(m * RESOLUTION);
+			}
+			for (int i = 0; i < numIntervals; i++) {
+				markIfInside(intervalStarts[i]);
+				markIfInside(intervalEnds[i]);
+			}
+		}
+
+		private void markIfInside(long time) {
+			if (time > 0 && time < NUM_STEPS * RESOLUTION && time % RESOLUTION != 0) {
+				nonLinear.set((int) (time / RESOLUTION));
+			}
+		}
+
+		/**
+		 * @return moving time in [0, time)
+		 */
+		long movingTimeBefore(long time) {
+			if (time < 0 || time >= NUM_STEPS * RESOLUTION) {
+				return exactMovingTimeBefore(time);
+			}
+			int m = (int) (time / RESOLUTION);
+			if (nonLinear.get(m)) {
+				return exactMovingTimeBefore(time);
+			}
+			// the number of intervals covering the whole minute, times the time into it
+			long coverage = (cumulative[m + 1] - cumulative[m]) / RESOLUTION;
+			return cumulative[m] + coverage * (time - m * RESOLUTION);
+		}
+
+		private long exactMovingTimeBefore(long time) {
+			long movingTime = 0;
+			for (int i = 0; i < intervalStarts.length; i++) {
+				movingTime += Math.max(0, Math.min(time, intervalEnds[i]) - intervalStarts[i]);
+			}
+			return movingTime;
 		}
-		return timeMoving;
 	}
 
 	@Override
@@ -157,7 +279,7 @@ public class MovementSchedule24HourPeriod implements MovementSchedule {
 		
 		List<long[]> intervals = new ArrayList<long[]>();
 		
-		long t0 = (millisecInDay + minTime + this.getTimeZone().getOffset(minTime)) %  millisecInDay;
+		long t0 = (millisecInDay + minTime + getUtcOffsets().getOffset(minTime)) %  millisecInDay;
 		long t1 = t0 + (maxTime - minTime);
 		long offset = minTime - t0;
 		for (TimeInterval moveInteval : movingIntervals) {
@@ -202,6 +324,7 @@ public class MovementSchedule24HourPeriod implements MovementSchedule {
      */
     public void setTimeZone(TimeZone timeZone) {
     	this.timeZone = timeZone;
+    	this.utcOffsets = null;
     }
 
 	public List<TimeInterval> getMovingIntervals() {
@@ -210,6 +333,7 @@ public class MovementSchedule24HourPeriod implements MovementSchedule {
 
 	public void setMovingIntervals(List<TimeInterval> movingIntervals) {
 		this.movingIntervals = movingIntervals;
+		this.movingTimeTable = null;
 	}
 
 
@@ -24,6 +24,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,7 +37,9 @@ import com.bbn.landsar.utils.DateTimeUtilities;
 /**
  * static class to manage movement schedules
  * 
- * Schedules are managed by their names
+ * Schedules are managed by their names. The registry is a concurrent map, so lookups (e.g. from
+ * {@link MovementScheduleDeserializer}) never wait on a lock, and the standard schedules for a
+ * time zone are created at most once, atomically.
  * @author crock
  *
  */
@@ -52,7 +57,11 @@ public class ScheduleManager {
 	 */
 	public static final String DEFAULT_SCHEDULE_NAME = nameConvention(StandardSchedule.Continuous, TimeZone.getDefault());
 	
-	private static final List<MovementSchedule> availableSchedules = new ArrayList<>();
+	private static final ConcurrentMap<String, MovementSchedule> availableSchedules = new ConcurrentHashMap<>();
+	// names in the order the schedules were added
+	private static final List<String> scheduleNames = new CopyOnWriteArrayList<>();
+	// time zone ID to the time zone that the standard schedules were created for
+	private static final ConcurrentMap<String, TimeZone> standardScheduleTimeZones = new ConcurrentHashMap<>();
 	
 	
 	public static List<String> PREFERRED_US_TIMEZONES = Collections.unmodifiableList(Arrays.asList(new String[] {
@@ -62,7 +71,14 @@ public class ScheduleManager {
 
 	
 	static {
-		instantiateStandardMovementSchedules(TimeZone.getDefault());
+		instantiateStandardMovementSchedulesOnce(TimeZone.getDefault());
+	}
+
+	private static void instantiateStandardMovementSchedulesOnce(TimeZone timeZone) {
+		standardScheduleTimeZones.computeIfAbsent(timeZone.getID(), id -> {
+			instantiateStandardMovementSchedules(timeZone);
+			return timeZone;
+		});
 	}
 	
 	private static void instantiateStandardMovementSchedules(TimeZone timeZone) {
@@ -98,12 +114,10 @@ public class ScheduleManager {
 		if (movementSchedule.getName() == null) {
 			throw new IllegalArgumentException("Movement Schedule name must not be null");
 		}		
-		synchronized (ScheduleManager.class) {
-			if (getScheduleNames().contains(movementSchedule.getName())){
-				LOGGER.error("Already have a movement schedule with name {}", movementSchedule.getName());
-			}else {
-				availableSchedules.add(movementSchedule);
-			}
+		if (availableSchedules.putIfAbsent(movementSchedule.getName(), movementSchedule) != null) {
+			LOGGER.error("Already have a movement schedule with name {}", movementSchedule.getName());
+		} else {
+			scheduleNames.add(movementSchedule.getName());
 		}
 	}
 	
@@ -115,53 +129,40 @@ public class ScheduleManager {
 	 */
 	protected static MovementSchedule getOrRecreateScheduleForName(String scheduleName) {
 		
-		synchronized (ScheduleManager.class) {
-			MovementSchedule schedule = getScheduleForName(scheduleName);
+		MovementSchedule schedule = getScheduleForName(scheduleName);
 		
-			if (schedule != null){
-				return schedule;
+		if (schedule != null){
+			return schedule;
+		} else {
+			LOGGER.info("Recreating Movement Schedule for name '{}'", scheduleName);
+			int splitIndex = scheduleName.indexOf(NAME_SEPERATOR_CHAR);
+			String name;
+			TimeZone timeZone;
+			if (splitIndex == -1) {
+				name = scheduleName;
+				timeZone = TimeZone.getDefault();
 			} else {
-				LOGGER.info("Recreating Movement Schedule for name '{}'", scheduleName);
-				int splitIndex = scheduleName.indexOf(NAME_SEPERATOR_CHAR);
-				String name;
-				TimeZone timeZone;
-				if (splitIndex == -1) {
-					name = scheduleName;
-					timeZone = TimeZone.getDefault();
-				} else {
-					name = scheduleName.substring(0, splitIndex);
-					timeZone  = TimeZone.getTimeZone(scheduleName.substring(splitIndex + 1, scheduleName.length()));
-				}
-				
-				StandardSchedule standardSchedule;
-				try {
-					standardSchedule = StandardSchedule.valueOf(name);
-				} catch (IllegalArgumentException e) {
-					LOGGER.warn("Using default 'Continuous' movement schedule for unrecognized ScheduleType '{}'", name);
-					standardSchedule = StandardSchedule.Continuous;
-				}
-				return getOrCreateScheduleForTimeZone(standardSchedule, timeZone);
+				name = scheduleName.substring(0, splitIndex);
+				timeZone  = TimeZone.getTimeZone(scheduleName.substring(splitIndex + 1, scheduleName.length()));
 			}
+			
+			StandardSchedule standardSchedule;
+			try {
+				standardSchedule = StandardSchedule.valueOf(name);
+			} catch (IllegalArgumentException e) {
+				LOGGER.warn("Using default 'Continuous' movement schedule for unrecognized ScheduleType '{}'", name);
+				standardSchedule = StandardSchedule.Continuous;
+			}
+			return getOrCreateScheduleForTimeZone(standardSchedule, timeZone);
 		}
 	}
 	
 	public static MovementSchedule getScheduleForName(String scheduleName) {
-		for (MovementSchedule schedule : availableSchedules) {
-			if (schedule.getName().equals(scheduleName)) {
-				return schedule;
-			}
-		}
-		
-		return null;
+		return availableSchedules.get(scheduleName);
 	}
 	
 	public static List<String> getScheduleNames() {
-		
-		List<String> scheduleNames = new ArrayList<String>();
-		for (MovementSchedule schedule : availableSchedules) {
-			scheduleNames.add(schedule.getName());
-		}
-		return scheduleNames;
+		return new ArrayList<String>(scheduleNames);
 	}
 	
 	/**
@@ -174,24 +175,18 @@ public class ScheduleManager {
 			
 		String nameConvention = nameConvention(scheduleType, timeZone);
 		
-		for (MovementSchedule schedule : availableSchedules) {
-			if (schedule.getName().equals(nameConvention)) {
-				if (schedule.getTimeZone().hasSameRules(timeZone)) {
-					return schedule;
-				}
-			}
+		MovementSchedule schedule = availableSchedules.get(nameConvention);
+		if (schedule != null && schedule.getTimeZone().hasSameRules(timeZone)) {
+			return schedule;
 		}
-		// if we haven't found it, try making schedules for this time zone
-		instantiateStandardMovementSchedules(timeZone);
+		// if we haven't found it, make the schedules for this time zone (unless another thread already has)
+		instantiateStandardMovementSchedulesOnce(timeZone);
 		// and then try again: 
-		for (MovementSchedule schedule : availableSchedules) {
-			if (schedule.getName().equals(nameConvention)) {
-				if (schedule.getTimeZone().hasSameRules(timeZone)) {
-					return schedule;
-				}
-			}
+		schedule = availableSchedules.get(nameConvention);
+		if (schedule != null && schedule.getTimeZone().hasSameRules(timeZone)) {
+			return schedule;
 		}
-		LOGGER.debug("No movement schedule for name='{}', timezone='{}'. Have schedules: {}", nameConvention, timeZone, availableSchedules);
+		LOGGER.debug("No movement schedule for name='{}', timezone='{}'. Have schedules: {}", nameConvention, timeZone, scheduleNames);
 		return null;
 	}
 	
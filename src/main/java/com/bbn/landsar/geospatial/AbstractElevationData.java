@@ -25,10 +25,12 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Serializable;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.metsci.glimpse.util.geo.LatLonGeo;
 
 public abstract class AbstractElevationData implements Serializable {
@@ -50,6 +52,9 @@ public abstract class AbstractElevationData implements Serializable {
 	
 	protected double unknownValue = Double.NEGATIVE_INFINITY;
 
+	// derived from elevationData on first use, see getSlopeAspectData()
+	private transient volatile SlopeAspectData slopeAspectData;
+
 //	public double[][] getElevationData() {
 	public float[][] getElevationData() {
 		return elevationData;
@@ -93,6 +98,63 @@ public abstract class AbstractElevationData implements Serializable {
 
 	public abstract double getElevationMetersForLatLon(double latDeg, double lonDeg);
 	
+	/**
+	 * Slope and aspect rasters are computed once, the first time they are requested, and cached for the lifetime of this object.
+	 * Subclasses that modify elevationData after construction must call {@link #clearSlopeAspectData()}.
+	 * @return slope/aspect grid with the same extent and subdivision as this elevation data
+	 */
+	@JsonIgnore
+	public SlopeAspectData getSlopeAspectData() {
+		SlopeAspectData result = slopeAspectData;
+		if (result == null) {
+			synchronized (this) {
+				result = slopeAspectData;
+				if (result == null) {
+					long start = System.currentTimeMillis();
+					result = new SlopeAspectData(this);
+					slopeAspectData = result;
+					LOGGER.debug("Computed {}x{} slope/aspect grid in {} ms", numLat, numLon, System.currentTimeMillis() - start);
+				}
+			}
+		}
+		return result;
+	}
+
+	protected void clearSlopeAspectData() {
+		slopeAspectData = null;
+	}
+
+	/**
+	 * @return terrain slope in degrees, bilinearly interpolated, or NaN if the elevation is unknown
+	 */
+	public double getSlopeDeg(double latDeg, double lonDeg) {
+		return getSlopeAspectData().getSlopeDeg(latDeg, lonDeg);
+	}
+
+	public double getSlopeDeg(LatLonGeo pos) {
+		return getSlopeDeg(pos.getLatDeg(), pos.getLonDeg());
+	}
+
+	/**
+	 * @return direction the terrain faces in degrees clockwise from north, or NaN for flat or unknown terrain
+	 */
+	public double getAspectDeg(double latDeg, double lonDeg) {
+		return getSlopeAspectData().getAspectDeg(latDeg, lonDeg);
+	}
+
+	/**
+	 * Slope at each point of a path, e.g. {@link com.bbn.landsar.motionmodel.path.AbstractPathProfile#getIntermediatePoints()}
+	 */
+	public double[] getSlopeProfile(List<LatLonGeo> points) {
+		SlopeAspectData slopes = getSlopeAspectData();
+		double[] profile = new double[points.size()];
+		for (int i = 0; i < profile.length; i++) {
+			LatLonGeo pt = points.get(i);
+			profile[i] = slopes.getSlopeDeg(pt.getLatDeg(), pt.getLonDeg());
+		}
+		return profile;
+	}
+
 	public abstract void writeFiles(File outputDir);
 	
 	public void writeLatLonFile(File outputDir) {
@@ -25,7 +25,9 @@ import java.util.Collection;
 
 
 import com.bbn.roger.plugin.StartablePlugin;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.metsci.glimpse.util.geo.LatLonGeo;
+import com.metsci.glimpse.util.vector.Vector2d;
 
 public abstract class AbstractRoadsAndTrails implements Serializable, DataDownloader, StartablePlugin  {
 	
@@ -56,9 +58,14 @@ public abstract class AbstractRoadsAndTrails implements Serializable, DataDownlo
 	protected int numLat;
 	protected int numLon;
 	
+	// road/trail code per cell; stays int[][] because it holds codes, not just presence. BitGrid is only the
+	// working mask for spreading and the distance field, so the stored grid takes as much memory as before
 	protected int[][] roadsAndTrails;
 	
 	protected RoadsAndTrailsMetaData metaData;
+	
+	// derived from roadsAndTrails on first use, see getRoadDistanceField()
+	private transient volatile RoadDistanceField roadDistanceField;
 
 	public double getMinLat() {
 		return minLat;
@@ -94,28 +101,70 @@ public abstract class AbstractRoadsAndTrails implements Serializable, DataDownlo
 
 	public abstract int getRoadsAndTrailsForLatLon(double latDeg, double lonDeg);
 	
+	/**
+	 * @return meters from the given point to the nearest road or trail cell (0 on a road),
+	 * or positive infinity if the area has no roads or trails
+	 */
+	public double getDistanceToRoadMeters(double latDeg, double lonDeg) {
+		return getRoadDistanceField().getDistanceMeters(latDeg, lonDeg);
+	}
+	
+	/**
+	 * @return unit vector (x east, y north) towards the nearest road or trail, or the zero vector if on one
+	 */
+	public Vector2d getGradientTowardRoad(double latDeg, double lonDeg) {
+		return getRoadDistanceField().getGradientTowardRoad(latDeg, lonDeg);
+	}
+	
+	/**
+	 * The distance field is computed once, on first use, and dropped when the roads are spread.
+	 * Subclasses that otherwise modify roadsAndTrails after it is built must call {@link #clearRoadDistanceField()}.
+	 */
+	@JsonIgnore
+	public RoadDistanceField getRoadDistanceField() {
+		RoadDistanceField result = roadDistanceField;
+		if (result == null) {
+			synchronized (this) {
+				result = roadDistanceField;
+				if (result == null) {
+					result = new RoadDistanceField(getRoadsAndTrailsMask(), minLat, maxLat, minLon, maxLon, true);
+					roadDistanceField = result;
+				}
+			}
+		}
+		return result;
+	}
+	
+	protected void clearRoadDistanceField() {
+		roadDistanceField = null;
+	}
+	
 	public abstract Collection<File> writeFiles(File outputDir);
 	
+	/**
+	 * Marks every cell within factor cells (in both directions) of a road or trail as ROAD_OR_TRAIL.
+	 * Cells that already have a road or trail code keep it.
+	 */
 	public void spreadRoadsAndTrails(int factor) {
+		BitGrid spread = getRoadsAndTrailsMask();
+		spread.dilate(factor);
+		clearRoadDistanceField();
 		for (int i = 0; i < roadsAndTrails.length; i++ ) {
-			int iMinus = Math.max(0,  i - factor);
-			int iPlus = Math.min(i + factor, roadsAndTrails.length - 1);
 			for (int j = 0; j < roadsAndTrails[i].length; j++) {
-				if (roadsAndTrails[i][j] > 0) {
-					int jMinus = Math.max(0, j -factor);
-					int jPlus = 
-							Math.min(j + factor, 
-									roadsAndTrails[i].length - 1);
-					for (int i0 = iMinus; i0 <= iPlus; i0++) {
-						for (int j0 = jMinus; j0 <= jPlus; j0++) {
-							roadsAndTrails[i0][j0] = RoadsAndTrailsMetaData.ROAD_OR_TRAIL;
-						}
-					}
+				if (roadsAndTrails[i][j] <= 0 && spread.get(i, j)) {
+					roadsAndTrails[i][j] = RoadsAndTrailsMetaData.ROAD_OR_TRAIL;
 				}
 			}
 		}
 	}
 	
+	/**
+	 * @return a new bit mask, indexed like roadsAndTrails (row 0 at minLat, column 0 at minLon), with a bit set for every cell that has a road or trail code
+	 */
+	public BitGrid getRoadsAndTrailsMask() {
+		return BitGrid.fromPositive(roadsAndTrails);
+	}
+	
 	protected int subscriptFor(double value, double min, double max, int num) {
 		double size = (max - min) / num;
         return (int)((value - min) / size);
@@ -0,0 +1,289 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.geospatial;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache for structures derived from AreaData (SOA rasters, water masks, cost fields, ...), shared by all the
+ * motion model plugins on a server so that each is built once per {@link AreaData#getId()}.
+ * <br>
+ * Values are looked up by the AreaData id and a typed {@link Key}. {@link #computeIfAbsent} builds a missing value
+ * once: concurrent callers for the same id and key wait for that build, while builds for other ids or keys go ahead.
+ * A build that throws caches nothing. Each key estimates the memory used by its values, and when the total goes over
+ * the cache's budget the least recently used values are evicted.
+ *
+ * @see com.bbn.landsar.motionmodel.MotionModelManager#getAreaDataDerivedCache()
+ */
+public class AreaDataDerivedCache {
+	private static final Logger LOGGER = LoggerFactory.getLogger(AreaDataDerivedCache.class);
+
+	private static final long DEFAULT_MAX_BYTES = Math.min(512L << 20, Runtime.getRuntime().maxMemory() / 8);
+
+	private static final AreaDataDerivedCache SHARED_INSTANCE = new AreaDataDerivedCache(DEFAULT_MAX_BYTES);
+
+	/**
+	 * Identifies one kind of derived value, and optionally the parameters it was derived with (e.g. a goal point).
+	 * Keys are equal when their names, value types and qualifiers are equal.
+	 * @param <T> type of the cached value
+	 */
+	public static final class Key<T> {
+		private final String name;
+		private final Class<T> type;
+		private final ToLongFunction<? super T> sizeInBytes;
+		private final List<Object> qualifiers;
+
+		private Key(String name, Class<T> type, ToLongFunction<? super T> sizeInBytes, List<Object> qualifiers) {
+			this.name = Objects.requireNonNull(name, "name");
+			this.type = Objects.requireNonNull(type, "type");
+			this.sizeInBytes = Objects.requireNonNull(sizeInBytes, "sizeInBytes");
+			this.qualifiers = qualifiers;
+		}
+
+		/**
+		 * @param sizeInBytes - estimates the memory used by a value, for the cache's memory budget
+		 */
+		public static <T> Key<T> of(String name, Class<T> type, ToLongFunction<? super T> sizeInBytes) {
+			return new Key<>(name, type, sizeInBytes, Collections.emptyList());
+		}
+
+		/**
+		 * @return a key for the same kind of value derived with the given parameters, which should have value equality
+		 */
+		public Key<T> qualifiedBy(Object... parameters) {
+			return new Key<>(name, type, sizeInBytes, Collections.unmodifiableList(Arrays.asList(parameters.clone())));
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Class<T> getType() {
+			return type;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key<?> other = (Key<?>) obj;
+			return name.equals(other.name) && type.equals(other.type) && qualifiers.equals(other.qualifiers);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(name, type, qualifiers);
+		}
+
+		@Override
+		public String toString() {
+			return qualifiers.isEmpty() ? name : name + qualifiers;
+		}
+	}
+
+	private static final class EntryKey {
+		final UUID areaDataId;
+		final Key<?> key;
+
+		EntryKey(UUID areaDataId, Key<?> key) {
+			this.areaDataId = areaDataId;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof EntryKey)) {
+				return false;
+			}
+			EntryKey other = (EntryKey) obj;
+			return areaDataId.equals(other.areaDataId) && key.equals(other.key);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * areaDataId.hashCode() + key.hashCode();
+		}
+	}
+
+	private static final class Entry {
+		// value and sizeInBytes are written once, under the entry's lock
+		private volatile Object value;
+		private long sizeInBytes;
+		private volatile long lastAccess;
+	}
+
+	private final long maxBytes;
+	private final ConcurrentMap<EntryKey, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicLong usedBytes = new AtomicLong();
+	private final AtomicLong accessCounter = new AtomicLong();
+
+	/**
+	 * @param maxBytes - memory budget; least recently used values are evicted when their estimated total is over it
+	 */
+	public AreaDataDerivedCache(long maxBytes) {
+		if (maxBytes < 0) {
+			throw new IllegalArgumentException("maxBytes must not be negative: " + maxBytes);
+		}
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * @return the cache shared by everything in this JVM
+	 */
+	public static AreaDataDerivedCache getSharedInstance() {
+		return SHARED_INSTANCE;
+	}
+
+	/**
+	 * @return the cached value for this area data and key, building it with builder if there is none
+	 */
+	public <T> T computeIfAbsent(AreaData areaData, Key<T> key, Function<? super AreaData, ? extends T> builder) {
+		EntryKey entryKey = new EntryKey(areaData.getId(), key);
+		while (true) {
+			Entry entry = entries.computeIfAbsent(entryKey, k -> new Entry());
+			entry.lastAccess = accessCounter.incrementAndGet();
+			Object value = entry.value;
+			if (value != null) {
+				return key.type.cast(value);
+			}
+			synchronized (entry) {
+				value = entry.value;
+				if (value == null) {
+					if (entries.get(entryKey) != entry) {
+						// the build we waited for failed, or the entry was removed; start over with a new entry
+						continue;
+					}
+					try {
+						long start = System.currentTimeMillis();
+						value = Objects.requireNonNull(builder.apply(areaData), "builder returned null");
+						entry.sizeInBytes = Math.max(0, key.sizeInBytes.applyAsLong(key.type.cast(value)));
+						entry.value = value;
+						// removal takes the entry's lock, so the entry is still in the map here
+						usedBytes.addAndGet(entry.sizeInBytes);
+						LOGGER.debug("Built {} for area {} in {} ms, ~{} bytes", key, areaData.getId(), System.currentTimeMillis() - start, entry.sizeInBytes);
+					} catch (RuntimeException | Error e) {
+						entries.remove(entryKey, entry);
+						throw e;
+					}
+				} else {
+					return key.type.cast(value);
+				}
+			}
+			evictOverBudget();
+			return key.type.cast(value);
+		}
+	}
+
+	/**
+	 * @return the cached value, or null if there is none (or it is still being built)
+	 */
+	public <T> T getIfPresent(AreaData areaData, Key<T> key) {
+		Entry entry = entries.get(new EntryKey(areaData.getId(), key));
+		if (entry == null || entry.value == null) {
+			return null;
+		}
+		entry.lastAccess = accessCounter.incrementAndGet();
+		return key.type.cast(entry.value);
+	}
+
+	/**
+	 * Removes everything derived from the area data with this id
+	 */
+	public void invalidate(UUID areaDataId) {
+		for (Map.Entry<EntryKey, Entry> mapEntry : entries.entrySet()) {
+			if (mapEntry.getKey().areaDataId.equals(areaDataId)) {
+				remove(mapEntry.getKey(), mapEntry.getValue());
+			}
+		}
+	}
+
+	public void clear() {
+		for (Map.Entry<EntryKey, Entry> mapEntry : entries.entrySet()) {
+			remove(mapEntry.getKey(), mapEntry.getValue());
+		}
+	}
+
+	/**
+	 * @return number of cached values, including any being built
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return estimated memory used by the cached values
+	 */
+	public long getUsedBytes() {
+		return usedBytes.get();
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	private void remove(EntryKey entryKey, Entry entry) {
+		synchronized (entry) {
+			// values that failed to build were never accounted for
+			if (entries.remove(entryKey, entry) && entry.value != null) {
+				usedBytes.addAndGet(-entry.sizeInBytes);
+			}
+		}
+	}
+
+	/**
+	 * Evicts the least recently used built values until the total fits the budget.
+	 * A scan per eviction is fine for the tens of rasters this holds.
+	 */
+	private synchronized void evictOverBudget() {
+		while (usedBytes.get() > maxBytes) {
+			EntryKey oldestKey = null;
+			Entry oldest = null;
+			for (Map.Entry<EntryKey, Entry> mapEntry : entries.entrySet()) {
+				Entry candidate = mapEntry.getValue();
+				if (candidate.value != null && (oldest == null || candidate.lastAccess < oldest.lastAccess)) {
+					oldestKey = mapEntry.getKey();
+					oldest = candidate;
+				}
+			}
+			if (oldest == null) {
+				return;
+			}
+			LOGGER.debug("Evicting {} for area {} (~{} bytes)", oldestKey.key, oldestKey.areaDataId, oldest.sizeInBytes);
+			remove(oldestKey, oldest);
+		}
+	}
+}
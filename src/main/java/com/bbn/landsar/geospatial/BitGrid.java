@@ -0,0 +1,229 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.geospatial;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Binary raster packed 64 cells to a long. Each row starts on a word boundary, so that operations
+ * along columns (and whole-row shifts) work on 64 cells at a time.
+ * <br>
+ * Rows and columns carry no geographic meaning here; callers index the grid the same way as the
+ * int[][] or float[][] array it mirrors.
+ */
+public class BitGrid implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final int numRows;
+	private final int numCols;
+	private final int wordsPerRow;
+	private final long[] words;
+	// valid bits of the last word in each row
+	private final long lastWordMask;
+
+	public BitGrid(int numRows, int numCols) {
+		if (numRows < 0 || numCols < 0) {
+			throw new IllegalArgumentException("Grid dimensions must be non-negative: " + numRows + "x" + numCols);
+		}
+		this.numRows = numRows;
+		this.numCols = numCols;
+		this.wordsPerRow = (numCols + 63) >>> 6;
+		this.words = new long[numRows * wordsPerRow];
+		int tail = numCols & 63;
+		this.lastWordMask = tail == 0 ? -1L : (1L << tail) - 1;
+	}
+
+	public BitGrid(BitGrid other) {
+		this.numRows = other.numRows;
+		this.numCols = other.numCols;
+		this.wordsPerRow = other.wordsPerRow;
+		this.words = other.words.clone();
+		this.lastWordMask = other.lastWordMask;
+	}
+
+	/**
+	 * @return grid with a bit set for every cell of values that is greater than zero
+	 */
+	public static BitGrid fromPositive(int[][] values) {
+		int numCols = values.length == 0 ? 0 : values[0].length;
+		BitGrid grid = new BitGrid(values.length, numCols);
+		for (int i = 0; i < values.length; i++) {
+			int base = i * grid.wordsPerRow;
+			for (int j = 0; j < values[i].length; j++) {
+				if (values[i][j] > 0) {
+					grid.words[base + (j >>> 6)] |= 1L << j;
+				}
+			}
+		}
+		return grid;
+	}
+
+	public int getNumRows() {
+		return numRows;
+	}
+
+	public int getNumCols() {
+		return numCols;
+	}
+
+	public boolean get(int row, int col) {
+		return (words[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+	}
+
+	public void set(int row, int col) {
+		words[row * wordsPerRow + (col >>> 6)] |= 1L << col;
+	}
+
+	public void clear(int row, int col) {
+		words[row * wordsPerRow + (col >>> 6)] &= ~(1L << col);
+	}
+
+	public void set(int row, int col, boolean value) {
+		if (value) {
+			set(row, col);
+		} else {
+			clear(row, col);
+		}
+	}
+
+	public void clear() {
+		Arrays.fill(words, 0L);
+	}
+
+	/**
+	 * @return number of set cells
+	 */
+	public int cardinality() {
+		int count = 0;
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * this = this | other
+	 */
+	public void or(BitGrid other) {
+		checkSameShape(other);
+		for (int k = 0; k < words.length; k++) {
+			words[k] |= other.words[k];
+		}
+	}
+
+	/**
+	 * this = this & ~other
+	 */
+	public void andNot(BitGrid other) {
+		checkSameShape(other);
+		for (int k = 0; k < words.length; k++) {
+			words[k] &= ~other.words[k];
+		}
+	}
+
+	private void checkSameShape(BitGrid other) {
+		if (other.numRows != numRows || other.numCols != numCols) {
+			throw new IllegalArgumentException("Grid shapes differ: " + numRows + "x" + numCols + " vs " + other.numRows + "x" + other.numCols);
+		}
+	}
+
+	/**
+	 * Sets every cell within radius cells (Chebyshev distance, i.e. a square of side 2*radius+1) of a set cell.
+	 * <br>
+	 * The square is separable, so rows and columns are dilated independently. Each pass grows the covered
+	 * interval [-c, c] to [-c-s, c+s] with one shifted OR in each direction. Keeping s <= c+1 leaves no gaps
+	 * where the interval was clipped at the grid edge, so a radius r costs about log2(r) word-parallel
+	 * passes over the grid rather than r*r writes per set cell.
+	 */
+	public void dilate(int radius) {
+		if (radius <= 0 || words.length == 0) {
+			return;
+		}
+		long[] scratch = new long[words.length];
+		dilateRows(Math.min(radius, numCols), scratch);
+		dilateColumns(Math.min(radius, numRows), scratch);
+	}
+
+	private void dilateRows(int radius, long[] scratch) {
+		int covered = 0;
+		while (covered < radius) {
+			int shift = Math.min(covered + 1, radius - covered);
+			System.arraycopy(words, 0, scratch, 0, words.length);
+			for (int i = 0; i < numRows; i++) {
+				int base = i * wordsPerRow;
+				orShiftedRow(scratch, base, shift);
+				orShiftedRow(scratch, base, -shift);
+			}
+			covered += shift;
+		}
+	}
+
+	/**
+	 * words[row] |= source[row] shifted towards higher columns (shift > 0) or lower columns (shift < 0)
+	 */
+	private void orShiftedRow(long[] source, int base, int shift) {
+		int wordShift = Math.abs(shift) >>> 6;
+		int bitShift = Math.abs(shift) & 63;
+		if (shift > 0) {
+			for (int k = wordsPerRow - 1; k >= wordShift; k--) {
+				long value = source[base + k - wordShift] << bitShift;
+				if (bitShift != 0 && k - wordShift - 1 >= 0) {
+					value |= source[base + k - wordShift - 1] >>> (64 - bitShift);
+				}
+				words[base + k] |= value;
+			}
+			words[base + wordsPerRow - 1] &= lastWordMask;
+		} else {
+			for (int k = 0; k + wordShift < wordsPerRow; k++) {
+				long value = source[base + k + wordShift] >>> bitShift;
+				if (bitShift != 0 && k + wordShift + 1 < wordsPerRow) {
+					value |= source[base + k + wordShift + 1] << (64 - bitShift);
+				}
+				words[base + k] |= value;
+			}
+		}
+	}
+
+	private void dilateColumns(int radius, long[] scratch) {
+		int covered = 0;
+		while (covered < radius) {
+			int shift = Math.min(covered + 1, radius - covered);
+			System.arraycopy(words, 0, scratch, 0, words.length);
+			for (int i = 0; i < numRows; i++) {
+				int base = i * wordsPerRow;
+				if (i - shift >= 0) {
+					int other = (i - shift) * wordsPerRow;
+					for (int k = 0; k < wordsPerRow; k++) {
+						words[base + k] |= scratch[other + k];
+					}
+				}
+				if (i + shift < numRows) {
+					int other = (i + shift) * wordsPerRow;
+					for (int k = 0; k < wordsPerRow; k++) {
+						words[base + k] |= scratch[other + k];
+					}
+				}
+			}
+			covered += shift;
+		}
+	}
+}
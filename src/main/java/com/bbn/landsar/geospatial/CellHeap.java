@@ -0,0 +1,99 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.geospatial;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of (priority, cell index) pairs in primitive arrays, for the shortest path searches over grids.
+ * Priorities of queued cells are not updated; a cell is pushed again with its lower priority and the caller skips
+ * stale pops, which is simpler and in practice faster than a decrease-key heap.
+ */
+class CellHeap {
+	private double[] priorities;
+	private int[] cells;
+	private int size;
+
+	CellHeap(int initialCapacity) {
+		int capacity = Math.max(16, initialCapacity);
+		this.priorities = new double[capacity];
+		this.cells = new int[capacity];
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	void push(double priority, int cell) {
+		if (size == priorities.length) {
+			priorities = Arrays.copyOf(priorities, size + (size >> 1));
+			cells = Arrays.copyOf(cells, priorities.length);
+		}
+		int i = size++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (priorities[parent] <= priority) {
+				break;
+			}
+			priorities[i] = priorities[parent];
+			cells[i] = cells[parent];
+			i = parent;
+		}
+		priorities[i] = priority;
+		cells[i] = cell;
+	}
+
+	/**
+	 * @return the lowest priority; only valid when not empty
+	 */
+	double peekPriority() {
+		return priorities[0];
+	}
+
+	/**
+	 * Removes the entry with the lowest priority
+	 * @return its cell
+	 */
+	int pop() {
+		int top = cells[0];
+		size--;
+		if (size > 0) {
+			double priority = priorities[size];
+			int cell = cells[size];
+			int i = 0;
+			int half = size >>> 1;
+			while (i < half) {
+				int child = 2 * i + 1;
+				if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+					child++;
+				}
+				if (priority <= priorities[child]) {
+					break;
+				}
+				priorities[i] = priorities[child];
+				cells[i] = cells[child];
+				i = child;
+			}
+			priorities[i] = priority;
+			cells[i] = cell;
+		}
+		return top;
+	}
+}
@@ -25,6 +25,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.PrintWriter;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -45,10 +46,18 @@ public class ExclusionZone implements Serializable, GeographicDrawable {
     @JsonIgnore
     private transient TangentPlane tangentPlane;
     private Vector2d c;
-    private Double westLon = null;
-    private Double eastLon = null;
-    private Double northLat = null;
-    private Double southLat = null;
+
+    // screening data for isInside, rebuilt whenever the center or radius changes
+    @JsonIgnore
+    private transient volatile InsideTest insideTest;
+
+    /*
+     * Relative error allowed for the local flat-earth distance before isInside falls back to the
+     * geodesic distance. The meters-per-degree scales are calibrated against getDistanceTo, so what
+     * remains is the curvature of the parallels, which grows with tan(latitude) and the zone size.
+     */
+    private static final double PLANAR_BASE_MARGIN = 0.002;
+    private static final double MEAN_EARTH_RADIUS_METERS = 6371000.0;
 
     public ExclusionZone() {
         //JSON Constructor
@@ -58,11 +67,6 @@ public class ExclusionZone implements Serializable, GeographicDrawable {
         this.setCenter(center);
         this.setRadius(radius);
         this.known = known;
-
-        this.eastLon = tangentPlane.unproject(c.getX() + radius, c.getY()).getLonDeg();
-        this.westLon = tangentPlane.unproject(c.getX() - radius, c.getY()).getLonDeg();
-        this.northLat = tangentPlane.unproject(c.getX(), c.getY() + radius).getLatDeg();
-        this.southLat = tangentPlane.unproject(c.getX(), c.getY() - radius).getLatDeg();
     }
 
     public boolean isKnown() {
@@ -132,23 +136,83 @@ public class ExclusionZone implements Serializable, GeographicDrawable {
 
 
 
+    /**
+     * Bounds screening, then a squared distance in a local equirectangular frame. Only points whose
+     * planar distance is within the error margin of the radius get the full geodesic distance test.
+     */
     public boolean isInside(LatLonGeo pt) {
+        InsideTest test = insideTest;
+        if (test == null) {
+            test = prepareInsideTest();
+        }
+        return test.isInside(this, pt);
+    }
 
-        if (eastLon == null || westLon == null || northLat == null || southLat == null) {
-            eastLon = tangentPlane.unproject(c.getX() + radius, c.getY()).getLonDeg();
-            westLon = tangentPlane.unproject(c.getX() - radius, c.getY()).getLonDeg();
-            northLat = tangentPlane.unproject(c.getX(), c.getY() + radius).getLatDeg();
-            southLat = tangentPlane.unproject(c.getX(), c.getY() - radius).getLatDeg();
+    private InsideTest prepareInsideTest() {
+        if (center == null) {
+            throw new IllegalStateException("Exclusion zone has no center");
         }
+        InsideTest test = new InsideTest(center, radius, tangentPlane, c);
+        insideTest = test;
+        return test;
+    }
 
+    /**
+     * Immutable, so that it can be published to other threads through the volatile field
+     */
+    private static final class InsideTest {
+        private final double westLon;
+        private final double eastLon;
+        private final double northLat;
+        private final double southLat;
+
+        private final double centerLat;
+        private final double centerLon;
+        private final double metersPerDegLat;
+        private final double metersPerDegLon;
+        // squared distances below innerSq are certainly inside, above outerSq certainly outside
+        private final double innerSq;
+        private final double outerSq;
+
+        InsideTest(LatLonGeo center, double radius, TangentPlane tangentPlane, Vector2d c) {
+            this.eastLon = tangentPlane.unproject(c.getX() + radius, c.getY()).getLonDeg();
+            this.westLon = tangentPlane.unproject(c.getX() - radius, c.getY()).getLonDeg();
+            this.northLat = tangentPlane.unproject(c.getX(), c.getY() + radius).getLatDeg();
+            this.southLat = tangentPlane.unproject(c.getX(), c.getY() - radius).getLatDeg();
+
+            this.centerLat = center.getLatDeg();
+            this.centerLon = center.getLonDeg();
+            double dLat = Math.max(northLat - centerLat, 1.0e-9);
+            double dLon = Math.max(eastLon - centerLon, 1.0e-9);
+            this.metersPerDegLat = center.getDistanceTo(LatLonGeo.fromDeg(centerLat + dLat, centerLon)) / dLat;
+            this.metersPerDegLon = center.getDistanceTo(LatLonGeo.fromDeg(centerLat, centerLon + dLon)) / dLon;
+
+            double tanLat = Math.abs(Math.tan(Math.toRadians(Math.min(Math.abs(centerLat), 89.0))));
+            double margin = PLANAR_BASE_MARGIN + 2 * (1 + tanLat) * radius / MEAN_EARTH_RADIUS_METERS;
+            double inner = Math.max(0, radius * (1 - margin) - 1.0);
+            double outer = radius * (1 + margin) + 1.0;
+            this.innerSq = inner * inner;
+            this.outerSq = outer * outer;
+        }
+
+        boolean isInside(ExclusionZone zone, LatLonGeo pt) {
+            double lat = pt.getLatDeg();
+            double lon = pt.getLonDeg();
 
-        // Quick screening is much faster
-        if (pt.getLatDeg() > northLat) return false;
-        if (pt.getLatDeg() < southLat) return false;
-        if (pt.getLonDeg() > eastLon) return false;
-        if (pt.getLonDeg() < westLon) return false;
+            // Quick screening is much faster
+            if (lat > northLat) return false;
+            if (lat < southLat) return false;
+            if (lon > eastLon) return false;
+            if (lon < westLon) return false;
 
-        return this.getCenter().getDistanceTo(pt) < getRadius();
+            double dy = (lat - centerLat) * metersPerDegLat;
+            double dx = (lon - centerLon) * metersPerDegLon;
+            double distanceSq = dx * dx + dy * dy;
+            if (distanceSq < innerSq) return true;
+            if (distanceSq > outerSq) return false;
+
+            return zone.getCenter().getDistanceTo(pt) < zone.getRadius();
+        }
     }
 
     public LatLonGeo closestBoundaryPoint(LatLonGeo latLon) {
@@ -206,6 +270,8 @@ public class ExclusionZone implements Serializable, GeographicDrawable {
         this.center = center;
         this.tangentPlane = new TangentPlane(center);
         this.c = tangentPlane.project(center);
+        this.insideTest = null;
+        prepareInsideTest();
     }
 
     public double getRadius() {
@@ -214,6 +280,18 @@ public class ExclusionZone implements Serializable, GeographicDrawable {
 
     public void setRadius(double radius) {
         this.radius = radius;
+        this.insideTest = null;
+        if (center != null) {
+            prepareInsideTest();
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (center != null) {
+            this.tangentPlane = new TangentPlane(center);
+            prepareInsideTest();
+        }
     }
 
 //	public String getKML() {
@@ -0,0 +1,384 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.geospatial;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.bbn.landsar.utils.GeometryUtils;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Uniform lat/lon grid over the bounding boxes of a set of circular and polygonal exclusion zones.
+ * <br>
+ * Each grid cell is classified once, when the index is built: cells that no zone touches are OUTSIDE,
+ * cells that lie entirely within some zone are INSIDE, and only the remaining boundary cells keep a short
+ * list of candidate zones to test exactly. Most points are therefore answered with one array lookup.
+ * <br>
+ * The index is immutable and safe to share between threads. It does not track later changes to the zones.
+ *
+ * @see com.bbn.landsar.motionmodel.UserEnteredGeospatialData#getExclusionZoneIndex()
+ */
+public class ExclusionZoneIndex {
+
+	private static final byte OUTSIDE = 0;
+	private static final byte INSIDE = 1;
+	private static final byte BOUNDARY = 2;
+
+	private static final int MIN_CELLS_PER_SIDE = 16;
+	private static final int MAX_CELLS_PER_SIDE = 256;
+
+	// relative tolerance when deciding that a cell is entirely inside or outside of a circle
+	private static final double CIRCLE_MARGIN = 1.0e-3;
+
+	private final List<ExclusionZone> circles;
+	private final List<PolygonalExclusionZone> polygons;
+
+	// polygon vertices as primitives, indexed like polygons
+	private final double[][] polyLat;
+	private final double[][] polyLon;
+	// {south, north, west, east} of every zone, circles first
+	private final double[][] zoneBounds;
+
+	private final double minLat;
+	private final double maxLat;
+	private final double minLon;
+	private final double maxLon;
+	private final int numLat;
+	private final int numLon;
+	private final double latCellDeg;
+	private final double lonCellDeg;
+
+	private final byte[] cellState;
+	// candidate zones for BOUNDARY cells: values < circles.size() are circles, the rest are polygons offset by circles.size()
+	private final int[][] candidates;
+
+	public ExclusionZoneIndex(List<ExclusionZone> circles, List<PolygonalExclusionZone> polygons) {
+		this(circles, polygons, defaultCellsPerSide(circles, polygons));
+	}
+
+	public ExclusionZoneIndex(List<ExclusionZone> circles, List<PolygonalExclusionZone> polygons, int cellsPerSide) {
+		this.circles = circles == null ? Collections.<ExclusionZone>emptyList() : new ArrayList<>(circles);
+		List<PolygonalExclusionZone> validPolygons = new ArrayList<>();
+		if (polygons != null) {
+			for (PolygonalExclusionZone polygon : polygons) {
+				// GeometryUtils treats anything with fewer than 3 vertices as empty
+				if (polygon.getVertices() != null && polygon.getVertices().size() >= 3) {
+					validPolygons.add(polygon);
+				}
+			}
+		}
+		this.polygons = validPolygons;
+
+		int numCircles = this.circles.size();
+		int numZones = numCircles + this.polygons.size();
+		this.zoneBounds = new double[numZones][];
+		this.polyLat = new double[this.polygons.size()][];
+		this.polyLon = new double[this.polygons.size()][];
+		for (int z = 0; z < numCircles; z++) {
+			zoneBounds[z] = circleBounds(this.circles.get(z));
+		}
+		for (int p = 0; p < this.polygons.size(); p++) {
+			List<LatLonGeo> vertices = this.polygons.get(p).getVertices();
+			polyLat[p] = new double[vertices.size()];
+			polyLon[p] = new double[vertices.size()];
+			for (int v = 0; v < vertices.size(); v++) {
+				polyLat[p][v] = vertices.get(v).getLatDeg();
+				polyLon[p][v] = vertices.get(v).getLonDeg();
+			}
+			zoneBounds[numCircles + p] = new double[] {min(polyLat[p]), max(polyLat[p]), min(polyLon[p]), max(polyLon[p])};
+		}
+
+		double south = Double.POSITIVE_INFINITY;
+		double north = Double.NEGATIVE_INFINITY;
+		double west = Double.POSITIVE_INFINITY;
+		double east = Double.NEGATIVE_INFINITY;
+		for (double[] b : zoneBounds) {
+			south = Math.min(south, b[0]);
+			north = Math.max(north, b[1]);
+			west = Math.min(west, b[2]);
+			east = Math.max(east, b[3]);
+		}
+		if (numZones == 0) {
+			south = north = west = east = 0;
+		}
+		this.minLat = south;
+		this.maxLat = north;
+		this.minLon = west;
+		this.maxLon = east;
+
+		int side = numZones == 0 ? 1 : Math.max(1, cellsPerSide);
+		this.numLat = side;
+		this.numLon = side;
+		// guard against degenerate (zero-size) extents
+		this.latCellDeg = Math.max(maxLat - minLat, 1.0e-12) / numLat;
+		this.lonCellDeg = Math.max(maxLon - minLon, 1.0e-12) / numLon;
+
+		this.cellState = new byte[numLat * numLon];
+		this.candidates = new int[numLat * numLon][];
+		if (numZones > 0) {
+			classifyCells();
+		}
+	}
+
+	private static int defaultCellsPerSide(List<ExclusionZone> circles, List<PolygonalExclusionZone> polygons) {
+		int numZones = (circles == null ? 0 : circles.size()) + (polygons == null ? 0 : polygons.size());
+		int side = (int) Math.ceil(8 * Math.sqrt(numZones));
+		return Math.max(MIN_CELLS_PER_SIDE, Math.min(MAX_CELLS_PER_SIDE, side));
+	}
+
+	private void classifyCells() {
+		int numCircles = circles.size();
+		List<List<Integer>> cellCandidates = new ArrayList<>(numLat * numLon);
+		for (int k = 0; k < numLat * numLon; k++) {
+			cellCandidates.add(null);
+		}
+
+		for (int z = 0; z < zoneBounds.length; z++) {
+			double[] b = zoneBounds[z];
+			int i0 = row(b[0]);
+			int i1 = row(b[1]);
+			int j0 = col(b[2]);
+			int j1 = col(b[3]);
+			for (int i = i0; i <= i1; i++) {
+				for (int j = j0; j <= j1; j++) {
+					int cell = i * numLon + j;
+					if (cellState[cell] == INSIDE) {
+						continue;
+					}
+					double south = minLat + i * latCellDeg;
+					double west = minLon + j * lonCellDeg;
+					double north = south + latCellDeg;
+					double east = west + lonCellDeg;
+					byte relation = z < numCircles
+							? circleRelation(circles.get(z), south, north, west, east)
+							: polygonRelation(z - numCircles, south, north, west, east);
+					if (relation == INSIDE) {
+						cellState[cell] = INSIDE;
+						cellCandidates.set(cell, null);
+					} else if (relation == BOUNDARY) {
+						cellState[cell] = BOUNDARY;
+						if (cellCandidates.get(cell) == null) {
+							cellCandidates.set(cell, new ArrayList<Integer>(2));
+						}
+						cellCandidates.get(cell).add(z);
+					}
+				}
+			}
+		}
+
+		for (int cell = 0; cell < cellState.length; cell++) {
+			List<Integer> list = cellCandidates.get(cell);
+			if (cellState[cell] == BOUNDARY && list != null) {
+				int[] ids = new int[list.size()];
+				for (int k = 0; k < ids.length; k++) {
+					ids[k] = list.get(k);
+				}
+				candidates[cell] = ids;
+			}
+		}
+	}
+
+	/**
+	 * Classifies the cells of another lat/lon grid (row 0 at minLat, column 0 at minLon) against all zones.
+	 * Cells entirely within some zone are set in inside; cells that some zone only partly covers are set in boundary.
+	 * Points in boundary cells need an exact test with {@link #contains(LatLonGeo)}.
+	 */
+	public void rasterize(double gridMinLat, double gridMaxLat, double gridMinLon, double gridMaxLon, BitGrid inside, BitGrid boundary) {
+		int rows = inside.getNumRows();
+		int cols = inside.getNumCols();
+		double cellLat = (gridMaxLat - gridMinLat) / rows;
+		double cellLon = (gridMaxLon - gridMinLon) / cols;
+		int numCircles = circles.size();
+		for (int z = 0; z < zoneBounds.length; z++) {
+			double[] b = zoneBounds[z];
+			int i0 = Math.max(0, (int) Math.floor((b[0] - gridMinLat) / cellLat));
+			int i1 = Math.min(rows - 1, (int) Math.floor((b[1] - gridMinLat) / cellLat));
+			int j0 = Math.max(0, (int) Math.floor((b[2] - gridMinLon) / cellLon));
+			int j1 = Math.min(cols - 1, (int) Math.floor((b[3] - gridMinLon) / cellLon));
+			for (int i = i0; i <= i1; i++) {
+				for (int j = j0; j <= j1; j++) {
+					if (inside.get(i, j)) {
+						continue;
+					}
+					double south = gridMinLat + i * cellLat;
+					double west = gridMinLon + j * cellLon;
+					byte relation = z < numCircles
+							? circleRelation(circles.get(z), south, south + cellLat, west, west + cellLon)
+							: polygonRelation(z - numCircles, south, south + cellLat, west, west + cellLon);
+					if (relation == INSIDE) {
+						inside.set(i, j);
+					} else if (relation == BOUNDARY) {
+						boundary.set(i, j);
+					}
+				}
+			}
+		}
+		boundary.andNot(inside);
+	}
+
+	/**
+	 * Cell corners are compared against the radius with a small tolerance, since the lat/lon cell edges are
+	 * not geodesics; anything in doubt is left as BOUNDARY and tested exactly.
+	 */
+	private static byte circleRelation(ExclusionZone zone, double south, double north, double west, double east) {
+		LatLonGeo center = zone.getCenter();
+		double radius = zone.getRadius();
+		double nearestLat = Math.max(south, Math.min(north, center.getLatDeg()));
+		double nearestLon = Math.max(west, Math.min(east, center.getLonDeg()));
+		if (center.getDistanceTo(LatLonGeo.fromDeg(nearestLat, nearestLon)) > radius * (1 + CIRCLE_MARGIN)) {
+			return OUTSIDE;
+		}
+		double farthestLat = center.getLatDeg() - south > north - center.getLatDeg() ? south : north;
+		double farthestLon = center.getLonDeg() - west > east - center.getLonDeg() ? west : east;
+		if (center.getDistanceTo(LatLonGeo.fromDeg(farthestLat, farthestLon)) < radius * (1 - CIRCLE_MARGIN)) {
+			return INSIDE;
+		}
+		return BOUNDARY;
+	}
+
+	/**
+	 * Exact in lon/lat coordinates, which is how {@link GeometryUtils#polygonContainsPoint(LatLonGeo, List)} treats polygons
+	 */
+	private byte polygonRelation(int p, double south, double north, double west, double east) {
+		double[] lat = polyLat[p];
+		double[] lon = polyLon[p];
+		for (int v = 0, u = lat.length - 1; v < lat.length; u = v++) {
+			if (segmentTouchesRect(lon[u], lat[u], lon[v], lat[v], west, south, east, north)) {
+				return BOUNDARY;
+			}
+		}
+		// no edge touches the cell, so the cell is entirely on one side; any corner tells which
+		return polygons.get(p).getPreparedPolygon().contains(south, west) ? INSIDE : OUTSIDE;
+	}
+
+	/**
+	 * Liang-Barsky clipping of the segment (x0, y0) - (x1, y1) against the closed rectangle
+	 */
+	private static boolean segmentTouchesRect(double x0, double y0, double x1, double y1,
+			double xMin, double yMin, double xMax, double yMax) {
+		double dx = x1 - x0;
+		double dy = y1 - y0;
+		double[] p = {-dx, dx, -dy, dy};
+		double[] q = {x0 - xMin, xMax - x0, y0 - yMin, yMax - y0};
+		double t0 = 0;
+		double t1 = 1;
+		for (int k = 0; k < 4; k++) {
+			if (p[k] == 0) {
+				if (q[k] < 0) {
+					return false;
+				}
+			} else {
+				double t = q[k] / p[k];
+				if (p[k] < 0) {
+					t0 = Math.max(t0, t);
+				} else {
+					t1 = Math.min(t1, t);
+				}
+				if (t0 > t1) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if the point is inside any circular or polygonal exclusion zone
+	 */
+	public boolean contains(LatLonGeo pt) {
+		double lat = pt.getLatDeg();
+		double lon = pt.getLonDeg();
+		if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon || cellState.length == 0) {
+			return false;
+		}
+		int cell = row(lat) * numLon + col(lon);
+		byte state = cellState[cell];
+		if (state != BOUNDARY) {
+			return state == INSIDE;
+		}
+		int numCircles = circles.size();
+		for (int z : candidates[cell]) {
+			if (z < numCircles) {
+				if (circles.get(z).isInside(pt)) {
+					return true;
+				}
+			} else if (polygonContains(z, pt)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean polygonContains(int z, LatLonGeo pt) {
+		return polygons.get(z - circles.size()).pointInside(pt);
+	}
+
+	/**
+	 * @return fraction of index cells that need an exact geometry test
+	 */
+	public double getBoundaryCellFraction() {
+		int count = 0;
+		for (byte state : cellState) {
+			if (state == BOUNDARY) {
+				count++;
+			}
+		}
+		return cellState.length == 0 ? 0 : ((double) count) / cellState.length;
+	}
+
+	public boolean isEmpty() {
+		return circles.isEmpty() && polygons.isEmpty();
+	}
+
+	private int row(double lat) {
+		return Math.max(0, Math.min(numLat - 1, (int) ((lat - minLat) / latCellDeg)));
+	}
+
+	private int col(double lon) {
+		return Math.max(0, Math.min(numLon - 1, (int) ((lon - minLon) / lonCellDeg)));
+	}
+
+	private static double[] circleBounds(ExclusionZone zone) {
+		LatLonGeo center = zone.getCenter();
+		double radius = zone.getRadius() * (1 + CIRCLE_MARGIN);
+		double dLat = radius / AreaData.metersPerLatDeg;
+		double cosLat = Math.max(Math.cos(Math.toRadians(center.getLatDeg())), 1.0e-6);
+		double dLon = dLat / cosLat;
+		return new double[] {center.getLatDeg() - dLat, center.getLatDeg() + dLat, center.getLonDeg() - dLon, center.getLonDeg() + dLon};
+	}
+
+	private static double min(double[] values) {
+		double result = Double.POSITIVE_INFINITY;
+		for (double v : values) {
+			result = Math.min(result, v);
+		}
+		return result;
+	}
+
+	private static double max(double[] values) {
+		double result = Double.NEGATIVE_INFINITY;
+		for (double v : values) {
+			result = Math.max(result, v);
+		}
+		return result;
+	}
+}
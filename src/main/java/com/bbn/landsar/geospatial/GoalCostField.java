@@ -0,0 +1,210 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.geospatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Least cost to reach a goal point from every cell of the land cover grid, from one reverse Dijkstra search out of the
+ * goal, so that any number of paths to the same goal each get their route by walking down the field.
+ * <br>
+ * Routes step between the 8 neighbors of each cell, paying each cell's {@link CostModel} cost per meter. Cells that are
+ * not valid for the lost person (see {@link PointValidityMask}) or have no finite, non-negative cost cannot be entered.
+ * For every cell the field keeps the neighbor its least cost route continues to, so a descent never stalls on flat
+ * ground and always arrives.
+ * <br>
+ * Build fields with {@link #forGoal}, which caches them per area data, goal, cost model and validity mask.
+ */
+public class GoalCostField {
+	private static final Logger LOGGER = LoggerFactory.getLogger(GoalCostField.class);
+
+	/**
+	 * Cost per meter of moving through a point. Cost models are compared by identity when caching fields, so use shared instances.
+	 */
+	public interface CostModel {
+		/**
+		 * @return cost per meter; infinite, negative or NaN if the point cannot be entered
+		 */
+		double costPerMeter(AbstractLandCoverData landcover, double latDeg, double lonDeg);
+
+		/**
+		 * The land cover cost of each cell, see {@link AbstractLandCoverData#getCost(double, double)}
+		 */
+		CostModel LAND_COVER_COST = (landcover, latDeg, lonDeg) -> landcover.getCost(latDeg, lonDeg);
+
+		/**
+		 * Time at a speed of 1 meter per unit of time, i.e. one over the land cover speed of advance factor: the fastest route
+		 */
+		CostModel TRAVEL_TIME = (landcover, latDeg, lonDeg) -> 1 / landcover.getSoaFactor(latDeg, lonDeg);
+	}
+
+	public static final AreaDataDerivedCache.Key<GoalCostField> CACHE_KEY =
+			AreaDataDerivedCache.Key.of("goalCostField", GoalCostField.class, field -> 8L * field.cost.length);
+
+	private final LandCoverGrid grid;
+	private final LatLonGeo goal;
+	private final int goalCell;
+	private final float[] cost;
+	// cell the least cost route continues to, -1 at the goal and where the goal cannot be reached
+	private final int[] next;
+
+	private GoalCostField(LandCoverGrid grid, LatLonGeo goal, int goalCell, float[] cost, int[] next) {
+		this.grid = grid;
+		this.goal = goal;
+		this.goalCell = goalCell;
+		this.cost = cost;
+		this.next = next;
+	}
+
+	/**
+	 * @return the field for this goal, computed once and then shared through the cache
+	 * @param mask - which cells may be entered, see {@link com.bbn.landsar.motionmodel.UserEnteredGeospatialData#getPointValidityMask}
+	 */
+	public static GoalCostField forGoal(AreaData areaData, LatLonGeo goal, CostModel costModel, PointValidityMask mask, AreaDataDerivedCache cache) {
+		return cache.computeIfAbsent(areaData, CACHE_KEY.qualifiedBy(goal, costModel, mask), a -> compute(a, goal, costModel, mask));
+	}
+
+	/**
+	 * Computes the field without caching it
+	 * @throws IllegalArgumentException if the goal is outside the land cover grid
+	 */
+	public static GoalCostField compute(AreaData areaData, LatLonGeo goal, CostModel costModel, PointValidityMask mask) {
+		long start = System.currentTimeMillis();
+		AbstractLandCoverData landcover = areaData.getLandcoverData();
+		LandCoverGrid grid = new LandCoverGrid(landcover);
+		int numCells = grid.numCells();
+
+		int goalCell = grid.cellOf(goal.getLatDeg(), goal.getLonDeg());
+		if (goalCell < 0) {
+			throw new IllegalArgumentException("Goal " + goal + " is outside the land cover grid " + landcover.getBoundsAsString());
+		}
+
+		double[] costPerMeter = grid.ratePerMeter(mask, (lat, lon) -> costModel.costPerMeter(landcover, lat, lon));
+		if (Double.isInfinite(costPerMeter[goalCell])) {
+			LOGGER.warn("Goal {} is in a cell that cannot be entered; routes end next to it", goal);
+		}
+
+		double[] best = new double[numCells];
+		Arrays.fill(best, Double.POSITIVE_INFINITY);
+		int[] next = new int[numCells];
+		Arrays.fill(next, -1);
+		boolean[] done = new boolean[numCells];
+		CellHeap heap = new CellHeap(grid.numRows + grid.numCols);
+		best[goalCell] = 0;
+		heap.push(0, goalCell);
+		while (!heap.isEmpty()) {
+			int cell = heap.pop();
+			if (done[cell]) {
+				continue;
+			}
+			done[cell] = true;
+			// the goal cell itself may be entered even if its cost is infinite; halve that leg at its neighbor's cost
+			double cellCost = cell == goalCell && Double.isInfinite(costPerMeter[cell]) ? -1 : costPerMeter[cell];
+			for (int n = 0; n < LandCoverGrid.NUM_NEIGHBORS; n++) {
+				int neighbor = grid.neighbor(cell, n);
+				if (neighbor < 0 || done[neighbor] || Double.isInfinite(costPerMeter[neighbor])) {
+					continue;
+				}
+				double meters = grid.stepMeters(cell, n);
+				double legCost = cellCost < 0 ? meters * costPerMeter[neighbor] : meters * (cellCost + costPerMeter[neighbor]) / 2;
+				double total = best[cell] + legCost;
+				if (total < best[neighbor]) {
+					best[neighbor] = total;
+					next[neighbor] = cell;
+					heap.push(total, neighbor);
+				}
+			}
+		}
+		float[] cost = new float[best.length];
+		for (int k = 0; k < cost.length; k++) {
+			cost[k] = (float) best[k];
+		}
+		LOGGER.debug("Computed {}x{} goal cost field for {} in {} ms", grid.numRows, grid.numCols, goal, System.currentTimeMillis() - start);
+		return new GoalCostField(grid, goal, goalCell, cost, next);
+	}
+
+	/**
+	 * @return least cost from the cell containing the point to the goal, positive infinity if the goal cannot be reached
+	 */
+	public double getCostToGoal(double latDeg, double lonDeg) {
+		int cell = grid.cellOf(latDeg, lonDeg);
+		return cell < 0 ? Double.POSITIVE_INFINITY : cost[cell];
+	}
+
+	public boolean canReachGoal(double latDeg, double lonDeg) {
+		return getCostToGoal(latDeg, lonDeg) != Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * @return azimuth in radians from the point to the center of the next cell of its least cost route (or to the goal,
+	 * from the goal's cell), or NaN if the goal cannot be reached
+	 */
+	public double getAzimuthToGoal(double latDeg, double lonDeg) {
+		int cell = grid.cellOf(latDeg, lonDeg);
+		if (cell < 0 || cost[cell] == Float.POSITIVE_INFINITY) {
+			return Double.NaN;
+		}
+		LatLonGeo point = LatLonGeo.fromDeg(latDeg, lonDeg);
+		return point.getAzimuthTo(next[cell] < 0 ? goal : grid.cellCenter(next[cell]));
+	}
+
+	/**
+	 * Walks down the field from start to the goal.
+	 * @return the start point, the centers of the cells where the route turns, and the goal; empty if the goal cannot be reached
+	 */
+	public List<LatLonGeo> routeFrom(LatLonGeo start) {
+		int cell = grid.cellOf(start.getLatDeg(), start.getLonDeg());
+		if (cell < 0 || cost[cell] == Float.POSITIVE_INFINITY) {
+			return Collections.emptyList();
+		}
+		List<LatLonGeo> route = new ArrayList<>();
+		route.add(start);
+		int startCell = cell;
+		int previousStep = 0;
+		while (next[cell] >= 0) {
+			int following = next[cell];
+			int step = following - cell;
+			if (step != previousStep && cell != startCell) {
+				// the route turns at this cell
+				route.add(grid.cellCenter(cell));
+			}
+			previousStep = step;
+			cell = following;
+		}
+		if (cell != goalCell) {
+			// cannot happen: every reachable cell's route leads to the goal
+			throw new IllegalStateException("Route from " + start + " did not reach the goal");
+		}
+		route.add(goal);
+		return route;
+	}
+
+	public LatLonGeo getGoal() {
+		return goal;
+	}
+}
@@ -0,0 +1,153 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+
+package com.bbn.landsar.geospatial;
+
+import java.util.stream.IntStream;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Cell geometry of a land cover grid, shared by the fields that run shortest path searches over it
+ * ({@link TravelTimeField}, {@link GoalCostField}).
+ * <br>
+ * Cells are numbered row * numCols + col, where row 0 is the minLat row and column 0 is the minLon column.
+ * A route moves from a cell to one of its 8 neighbors (including diagonally); a step is as long as the distance between
+ * the two cell centers and is charged half at each cell's rate per meter.
+ */
+class LandCoverGrid {
+
+	/**
+	 * Number of neighbors of a cell, see {@link #neighbor(int, int)}
+	 */
+	static final int NUM_NEIGHBORS = 8;
+	// row and column offsets of the neighbors
+	private static final int[] ROW_STEPS = {-1, -1, -1, 0, 0, 1, 1, 1};
+	private static final int[] COL_STEPS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+	/**
+	 * Rate per meter of moving through a point, for {@link LandCoverGrid#ratePerMeter}
+	 */
+	@FunctionalInterface
+	interface PointRate {
+		double ratePerMeter(double latDeg, double lonDeg);
+	}
+
+	final double minLat;
+	final double minLon;
+	final double latCellDeg;
+	final double lonCellDeg;
+	final int numRows;
+	final int numCols;
+	private final double rowMeters;
+	// width of a cell of each row, which shrinks away from the equator
+	private final double[] colMeters;
+
+	LandCoverGrid(AbstractLandCoverData landcover) {
+		this.minLat = landcover.minLat;
+		this.minLon = landcover.minLon;
+		this.numRows = landcover.numLat;
+		this.numCols = landcover.numLon;
+		this.latCellDeg = (landcover.maxLat - landcover.minLat) / numRows;
+		this.lonCellDeg = (landcover.maxLon - landcover.minLon) / numCols;
+		this.rowMeters = latCellDeg * AreaData.metersPerLatDeg;
+		this.colMeters = new double[numRows];
+		for (int i = 0; i < numRows; i++) {
+			colMeters[i] = lonCellDeg * AreaData.metersPerLatDeg * Math.cos(Math.toRadians(centerLat(i)));
+		}
+	}
+
+	int numCells() {
+		return numRows * numCols;
+	}
+
+	double centerLat(int row) {
+		return minLat + (row + 0.5) * latCellDeg;
+	}
+
+	double centerLon(int col) {
+		return minLon + (col + 0.5) * lonCellDeg;
+	}
+
+	LatLonGeo cellCenter(int cell) {
+		int i = cell / numCols;
+		return LatLonGeo.fromDeg(centerLat(i), centerLon(cell - i * numCols));
+	}
+
+	/**
+	 * @return the cell containing the point, or -1 if it is outside the grid
+	 */
+	int cellOf(double latDeg, double lonDeg) {
+		int i = (int) Math.floor((latDeg - minLat) / latCellDeg);
+		int j = (int) Math.floor((lonDeg - minLon) / lonCellDeg);
+		// points on the max edges belong to the last row/column
+		if (i == numRows && latDeg <= minLat + numRows * latCellDeg) {
+			i--;
+		}
+		if (j == numCols && lonDeg <= minLon + numCols * lonCellDeg) {
+			j--;
+		}
+		if (i < 0 || i >= numRows || j < 0 || j >= numCols) {
+			return -1;
+		}
+		return i * numCols + j;
+	}
+
+	/**
+	 * @param n - which neighbor, from 0 to {@link #NUM_NEIGHBORS} - 1
+	 * @return the n-th neighbor of the cell, or -1 if it is outside the grid
+	 */
+	int neighbor(int cell, int n) {
+		int i = cell / numCols + ROW_STEPS[n];
+		int j = cell % numCols + COL_STEPS[n];
+		if (i < 0 || i >= numRows || j < 0 || j >= numCols) {
+			return -1;
+		}
+		return i * numCols + j;
+	}
+
+	/**
+	 * @return meters between the centers of the cell and its n-th neighbor
+	 */
+	double stepMeters(int cell, int n) {
+		int i = cell / numCols;
+		double dx = COL_STEPS[n] * (colMeters[i] + colMeters[i + ROW_STEPS[n]]) / 2;
+		double dy = ROW_STEPS[n] * rowMeters;
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	/**
+	 * Evaluates the rate at every cell center, rows in parallel.
+	 * @return rate per meter of each cell; positive infinity where the mask says the cell cannot be entered or the rate
+	 * is infinite, negative or NaN
+	 */
+	double[] ratePerMeter(PointValidityMask mask, PointRate rate) {
+		double[] rates = new double[numCells()];
+		IntStream.range(0, numRows).parallel().forEach(i -> {
+			double lat = centerLat(i);
+			for (int j = 0; j < numCols; j++) {
+				double lon = centerLon(j);
+				double r = mask.isValid(lat, lon) ? rate.ratePerMeter(lat, lon) : Double.POSITIVE_INFINITY;
+				rates[i * numCols + j] = r >= 0 ? r : Double.POSITIVE_INFINITY;
+			}
+		});
+		return rates;
+	}
+}
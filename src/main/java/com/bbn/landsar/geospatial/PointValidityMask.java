@@ -0,0 +1,164 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.geospatial;
+
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Answers "may a lost person be at this point" - outside all exclusion zones, inside the bounding box,
+ * and (optionally) not in water - from bits rasterized once onto the land cover grid.
+ * <br>
+ * Cells are marked invalid when they lie entirely inside an exclusion zone, entirely outside the bounding box,
+ * or (when staying out of water) have a water land cover code at their center. Cells that an exclusion zone or
+ * the bounding box only partly covers are marked as boundary cells, and only points in those cells fall back to
+ * the exact geometry tests. Everywhere else a check is a single bit lookup.
+ *
+ * @see com.bbn.landsar.motionmodel.UserEnteredGeospatialData#getPointValidityMask(AreaData, boolean)
+ */
+public class PointValidityMask {
+	private static final Logger LOGGER = LoggerFactory.getLogger(PointValidityMask.class);
+
+	private final AreaData areaData;
+	private final AbstractLandCoverData landcover;
+	private final BoundingBox boundingBox;
+	private final ExclusionZoneIndex exclusionZoneIndex;
+	private final boolean stayOutOfWater;
+
+	private final double minLat;
+	private final double maxLat;
+	private final double minLon;
+	private final double maxLon;
+	private final int numLat;
+	private final int numLon;
+	private final double latCellDeg;
+	private final double lonCellDeg;
+
+	private final BitGrid invalid;
+	private final BitGrid boundary;
+
+	public PointValidityMask(AreaData areaData, ExclusionZoneIndex exclusionZoneIndex, boolean stayOutOfWater) {
+		long start = System.currentTimeMillis();
+		this.areaData = areaData;
+		this.landcover = areaData.getLandcoverData();
+		this.boundingBox = areaData.getBoundingBox();
+		this.exclusionZoneIndex = exclusionZoneIndex;
+		this.stayOutOfWater = stayOutOfWater;
+
+		this.minLat = landcover.minLat;
+		this.maxLat = landcover.maxLat;
+		this.minLon = landcover.minLon;
+		this.maxLon = landcover.maxLon;
+		this.numLat = landcover.numLat;
+		this.numLon = landcover.numLon;
+		this.latCellDeg = (maxLat - minLat) / numLat;
+		this.lonCellDeg = (maxLon - minLon) / numLon;
+
+		this.invalid = new BitGrid(numLat, numLon);
+		this.boundary = new BitGrid(numLat, numLon);
+
+		exclusionZoneIndex.rasterize(minLat, maxLat, minLon, maxLon, invalid, boundary);
+
+		// each row starts on its own word, so rows can be written in parallel
+		IntStream.range(0, numLat).parallel().forEach(this::markRow);
+
+		boundary.andNot(invalid);
+		LOGGER.debug("Built {}x{} point validity mask in {} ms: {} invalid and {} boundary cells",
+				numLat, numLon, System.currentTimeMillis() - start, invalid.cardinality(), boundary.cardinality());
+	}
+
+	private void markRow(int i) {
+		double south = minLat + i * latCellDeg;
+		double north = south + latCellDeg;
+		double centerLat = south + latCellDeg / 2;
+		for (int j = 0; j < numLon; j++) {
+			if (invalid.get(i, j)) {
+				continue;
+			}
+			double west = minLon + j * lonCellDeg;
+			double east = west + lonCellDeg;
+			int corners = 0;
+			corners += boundingBox.contains(LatLonGeo.fromDeg(south, west)) ? 1 : 0;
+			corners += boundingBox.contains(LatLonGeo.fromDeg(south, east)) ? 1 : 0;
+			corners += boundingBox.contains(LatLonGeo.fromDeg(north, west)) ? 1 : 0;
+			corners += boundingBox.contains(LatLonGeo.fromDeg(north, east)) ? 1 : 0;
+			if (corners == 0 && !overlapsBoundingBox(south, north, west, east)) {
+				invalid.set(i, j);
+				continue;
+			}
+			if (corners < 4) {
+				boundary.set(i, j);
+			}
+			if (stayOutOfWater && landcover.isWater(centerLat, west + lonCellDeg / 2)) {
+				invalid.set(i, j);
+			}
+		}
+	}
+
+	private boolean overlapsBoundingBox(double south, double north, double west, double east) {
+		return south <= boundingBox.getNorthLatDeg() && north >= boundingBox.getSouthLatDeg()
+				&& west <= boundingBox.getEastLonDeg() && east >= boundingBox.getWestLonDeg();
+	}
+
+	public boolean isValid(LatLonGeo pt) {
+		return isValid(pt.getLatDeg(), pt.getLonDeg());
+	}
+
+	/**
+	 * @return false if the point is in an exclusion zone, outside the bounding box, or in water when staying out of water
+	 */
+	public boolean isValid(double latDeg, double lonDeg) {
+		if (latDeg < minLat || latDeg > maxLat || lonDeg < minLon || lonDeg > maxLon) {
+			return isValidExact(latDeg, lonDeg);
+		}
+		int i = Math.min(numLat - 1, (int) ((latDeg - minLat) / latCellDeg));
+		int j = Math.min(numLon - 1, (int) ((lonDeg - minLon) / lonCellDeg));
+		if (invalid.get(i, j)) {
+			return false;
+		}
+		if (!boundary.get(i, j)) {
+			return true;
+		}
+		return isValidExact(latDeg, lonDeg);
+	}
+
+	private boolean isValidExact(double latDeg, double lonDeg) {
+		LatLonGeo pt = LatLonGeo.fromDeg(latDeg, lonDeg);
+		if (exclusionZoneIndex.contains(pt) || !boundingBox.contains(pt)) {
+			return false;
+		}
+		return !(stayOutOfWater && landcover.isWater(latDeg, lonDeg));
+	}
+
+	/**
+	 * @return true if this mask was built from exactly these inputs
+	 */
+	public boolean isFor(AreaData areaData, ExclusionZoneIndex exclusionZoneIndex, boolean stayOutOfWater) {
+		return this.areaData == areaData && this.exclusionZoneIndex == exclusionZoneIndex && this.stayOutOfWater == stayOutOfWater;
+	}
+
+	public boolean isStayOutOfWater() {
+		return stayOutOfWater;
+	}
+}
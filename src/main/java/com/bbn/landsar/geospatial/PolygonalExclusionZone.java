@@ -19,13 +19,14 @@ https://github.com/atapas/add-copyright.git
 
 package com.bbn.landsar.geospatial;
 
-import com.bbn.landsar.utils.GeometryUtils;
+import com.bbn.landsar.utils.PreparedPolygon;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.metsci.glimpse.util.geo.LatLonGeo;
 import com.metsci.glimpse.util.geo.projection.TangentPlane;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -46,14 +47,9 @@ public class PolygonalExclusionZone implements GeographicDrawable, Serializable
     @JsonIgnore
     private TangentPlane tangentPlane;
 
+    // built from vertices on first use, so that it is also available after JSON deserialization
     @JsonIgnore
-    private double westLonDeg;
-    @JsonIgnore
-    private double eastLonDeg;
-    @JsonIgnore
-    private double northLatDeg;
-    @JsonIgnore
-    private double southLatDeg;
+    private transient volatile PreparedPolygon preparedPolygon;
 
     public PolygonalExclusionZone() {}
 
@@ -62,19 +58,6 @@ public class PolygonalExclusionZone implements GeographicDrawable, Serializable
 
         // Set the tangent plane using the first point
         tangentPlane = new TangentPlane(vertices.get(0));
-
-        westLonDeg = vertices.get(0).getLonDeg();
-        eastLonDeg = westLonDeg;
-        northLatDeg = vertices.get(0).getLatDeg();
-        southLatDeg = northLatDeg;
-
-        for (LatLonGeo pt : vertices) {
-            westLonDeg = Math.min(westLonDeg, pt.getLonDeg());
-            eastLonDeg = Math.max(eastLonDeg, pt.getLonDeg());
-            northLatDeg = Math.max(northLatDeg, pt.getLatDeg());
-            southLatDeg = Math.min(southLatDeg, pt.getLatDeg());
-        }
-
     }
 
     /**
@@ -86,13 +69,24 @@ public class PolygonalExclusionZone implements GeographicDrawable, Serializable
      * @return - true if the point is inside the polygon
      */
     public boolean pointInside(LatLonGeo pt) {
+        return getPreparedPolygon().contains(pt.getLatDeg(), pt.getLonDeg());
+    }
 
-        if (pt.getLatDeg() > northLatDeg) return false;
-        if (pt.getLatDeg() < southLatDeg) return false;
-        if (pt.getLonDeg() > eastLonDeg) return false;
-        if (pt.getLonDeg() < westLonDeg) return false;
+    /**
+     * Batch form of {@link #pointInside(LatLonGeo)} for particle sets: bit i of out is set to whether point i is inside.
+     */
+    public void containsAll(double[] latDeg, double[] lonDeg, BitSet out) {
+        getPreparedPolygon().containsAll(latDeg, lonDeg, out);
+    }
 
-        return GeometryUtils.polygonContainsPoint(pt, vertices);
+    @JsonIgnore
+    public PreparedPolygon getPreparedPolygon() {
+        PreparedPolygon prepared = preparedPolygon;
+        if (prepared == null) {
+            prepared = new PreparedPolygon(vertices);
+            preparedPolygon = prepared;
+        }
+        return prepared;
     }
 
     public List<LatLonGeo> getVertices() {
@@ -101,6 +95,7 @@ public class PolygonalExclusionZone implements GeographicDrawable, Serializable
 
     public void setVertices(List<LatLonGeo> vertices) {
         this.vertices = vertices;
+        this.preparedPolygon = null;
     }
 
     public static boolean pointInsideSet(List<PolygonalExclusionZone> zones,
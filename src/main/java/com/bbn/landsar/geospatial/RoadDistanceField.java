@@ -0,0 +1,236 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.geospatial;
+
+import java.io.Serializable;
+import java.util.stream.IntStream;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+import com.metsci.glimpse.util.vector.Vector2d;
+
+/**
+ * Distance in meters from every cell of a roads and trails grid to the nearest road or trail cell,
+ * computed with the exact Euclidean distance transform of Felzenszwalb and Huttenlocher
+ * (two passes of a 1-D lower envelope of parabolas, linear in the number of cells).
+ * <br>
+ * Row 0 is the minLat row and column 0 is the minLon column, matching
+ * {@link AbstractRoadsAndTrails#getRoadsAndTrailsMask()}. Longitude spacing is converted to meters at the
+ * center latitude of the grid, which is accurate for the area sizes LandSAR works with.
+ */
+public class RoadDistanceField implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	// stands in for infinity inside the transform, so that differences of "infinite" values stay finite
+	private static final double FAR = 1.0e30;
+
+	private final double minLat;
+	private final double minLon;
+	private final double latCellDeg;
+	private final double lonCellDeg;
+	private final int numRows;
+	private final int numCols;
+	private final double rowMeters;
+	private final double colMeters;
+
+	private final float[] distanceMeters;
+	// row * numCols + col of the nearest road cell, -1 if there is none; null unless requested
+	private final int[] nearestIndex;
+
+	/**
+	 * @param roads - road/trail mask, row 0 at minLat
+	 * @param computeNearestIndex - whether to also keep which road cell is nearest, see {@link #getNearestRoad(double, double)}
+	 */
+	public RoadDistanceField(BitGrid roads, double minLat, double maxLat, double minLon, double maxLon, boolean computeNearestIndex) {
+		this.minLat = minLat;
+		this.minLon = minLon;
+		this.numRows = roads.getNumRows();
+		this.numCols = roads.getNumCols();
+		this.latCellDeg = (maxLat - minLat) / numRows;
+		this.lonCellDeg = (maxLon - minLon) / numCols;
+		this.rowMeters = latCellDeg * AreaData.metersPerLatDeg;
+		this.colMeters = lonCellDeg * AreaData.metersPerLatDeg * Math.cos(Math.toRadians((minLat + maxLat) / 2));
+
+		int numCells = numRows * numCols;
+		double[] squared = new double[numCells];
+		int[] nearest = new int[numCells];
+		transform(roads, squared, nearest);
+
+		this.distanceMeters = new float[numCells];
+		for (int k = 0; k < numCells; k++) {
+			distanceMeters[k] = squared[k] >= FAR ? Float.POSITIVE_INFINITY : (float) Math.sqrt(squared[k]);
+		}
+		this.nearestIndex = computeNearestIndex ? nearest : null;
+	}
+
+	/**
+	 * Column pass then row pass; each 1-D pass is independent per line, so lines are processed in parallel.
+	 */
+	private void transform(BitGrid roads, double[] squared, int[] nearest) {
+		// first pass: distance along each column, in meters squared; nearest holds the source row
+		IntStream.range(0, numCols).parallel().forEach(j -> {
+			double[] f = new double[numRows];
+			for (int i = 0; i < numRows; i++) {
+				f[i] = roads.get(i, j) ? 0 : FAR;
+			}
+			double[] d = new double[numRows];
+			int[] arg = new int[numRows];
+			lowerEnvelope(f, rowMeters, d, arg, new int[numRows], new double[numRows + 1]);
+			for (int i = 0; i < numRows; i++) {
+				squared[i * numCols + j] = d[i];
+				nearest[i * numCols + j] = d[i] >= FAR ? -1 : arg[i];
+			}
+		});
+
+		// second pass: along each row, combining the column distances
+		IntStream.range(0, numRows).parallel().forEach(i -> {
+			int base = i * numCols;
+			double[] f = new double[numCols];
+			int[] sourceRow = new int[numCols];
+			System.arraycopy(squared, base, f, 0, numCols);
+			System.arraycopy(nearest, base, sourceRow, 0, numCols);
+			double[] d = new double[numCols];
+			int[] arg = new int[numCols];
+			lowerEnvelope(f, colMeters, d, arg, new int[numCols], new double[numCols + 1]);
+			for (int j = 0; j < numCols; j++) {
+				squared[base + j] = d[j];
+				nearest[base + j] = d[j] >= FAR ? -1 : sourceRow[arg[j]] * numCols + arg[j];
+			}
+		});
+	}
+
+	/**
+	 * d[p] = min over q of (spacing * (p - q))^2 + f[q], and arg[p] the minimizing q
+	 */
+	private static void lowerEnvelope(double[] f, double spacing, double[] d, int[] arg, int[] v, double[] z) {
+		int n = f.length;
+		if (n == 0) {
+			return;
+		}
+		double s2 = spacing * spacing;
+		int k = 0;
+		v[0] = 0;
+		z[0] = Double.NEGATIVE_INFINITY;
+		z[1] = Double.POSITIVE_INFINITY;
+		for (int q = 1; q < n; q++) {
+			double s = intersection(f, s2, v[k], q);
+			// z[0] is -infinity, so this stops at k == 0
+			while (s <= z[k]) {
+				k--;
+				s = intersection(f, s2, v[k], q);
+			}
+			k++;
+			v[k] = q;
+			z[k] = s;
+			z[k + 1] = Double.POSITIVE_INFINITY;
+		}
+		k = 0;
+		for (int p = 0; p < n; p++) {
+			while (z[k + 1] < p) {
+				k++;
+			}
+			int q = v[k];
+			d[p] = Math.min(FAR, s2 * (p - q) * (p - q) + f[q]);
+			arg[p] = q;
+		}
+	}
+
+	/**
+	 * @return where the parabolas rooted at r and q intersect, in cells
+	 */
+	private static double intersection(double[] f, double s2, int r, int q) {
+		return ((f[q] / s2 + (double) q * q) - (f[r] / s2 + (double) r * r)) / (2.0 * (q - r));
+	}
+
+	/**
+	 * @return bilinearly interpolated distance to the nearest road or trail, or positive infinity if there are none
+	 */
+	public double getDistanceMeters(double latDeg, double lonDeg) {
+		double fi = clamp((latDeg - minLat) / latCellDeg - 0.5, numRows - 1);
+		double fj = clamp((lonDeg - minLon) / lonCellDeg - 0.5, numCols - 1);
+		int i0 = (int) fi;
+		int j0 = (int) fj;
+		int i1 = Math.min(i0 + 1, numRows - 1);
+		int j1 = Math.min(j0 + 1, numCols - 1);
+		double a = fi - i0;
+		double b = fj - j0;
+		double d00 = distanceMeters[i0 * numCols + j0];
+		if (Double.isInfinite(d00)) {
+			return d00;
+		}
+		return (1 - a) * ((1 - b) * d00 + b * distanceMeters[i0 * numCols + j1])
+				+ a * ((1 - b) * distanceMeters[i1 * numCols + j0] + b * distanceMeters[i1 * numCols + j1]);
+	}
+
+	/**
+	 * @return unit vector (x east, y north) pointing down the distance field, i.e. towards the nearest road or trail;
+	 * the zero vector on a road or where there are no roads
+	 */
+	public Vector2d getGradientTowardRoad(double latDeg, double lonDeg) {
+		int i = cellRow(latDeg);
+		int j = cellCol(lonDeg);
+		if (distanceMeters[i * numCols + j] == 0 || Float.isInfinite(distanceMeters[i * numCols + j])) {
+			return new Vector2d(0, 0);
+		}
+		int iS = Math.max(i - 1, 0);
+		int iN = Math.min(i + 1, numRows - 1);
+		int jW = Math.max(j - 1, 0);
+		int jE = Math.min(j + 1, numCols - 1);
+		double east = jE == jW ? 0 : -(distanceMeters[i * numCols + jE] - distanceMeters[i * numCols + jW]) / ((jE - jW) * colMeters);
+		double north = iN == iS ? 0 : -(distanceMeters[iN * numCols + j] - distanceMeters[iS * numCols + j]) / ((iN - iS) * rowMeters);
+		double norm = Math.hypot(east, north);
+		if (norm == 0) {
+			return new Vector2d(0, 0);
+		}
+		return new Vector2d(east / norm, north / norm);
+	}
+
+	/**
+	 * @return center of the nearest road or trail cell, or null if there are none or the index was not computed
+	 */
+	public LatLonGeo getNearestRoad(double latDeg, double lonDeg) {
+		if (nearestIndex == null) {
+			return null;
+		}
+		int index = nearestIndex[cellRow(latDeg) * numCols + cellCol(lonDeg)];
+		if (index < 0) {
+			return null;
+		}
+		int i = index / numCols;
+		int j = index % numCols;
+		return LatLonGeo.fromDeg(minLat + (i + 0.5) * latCellDeg, minLon + (j + 0.5) * lonCellDeg);
+	}
+
+	public boolean hasNearestIndex() {
+		return nearestIndex != null;
+	}
+
+	private int cellRow(double latDeg) {
+		return (int) clamp((latDeg - minLat) / latCellDeg, numRows - 1);
+	}
+
+	private int cellCol(double lonDeg) {
+		return (int) clamp((lonDeg - minLon) / lonCellDeg, numCols - 1);
+	}
+
+	private static double clamp(double value, int max) {
+		return Math.max(0, Math.min(max, value));
+	}
+}
@@ -0,0 +1,193 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.geospatial;
+
+import java.io.Serializable;
+import java.util.stream.IntStream;
+
+/**
+ * Slope and aspect derived once from an elevation grid, so that path profiles and traversal
+ * plugins do not have to difference neighboring elevations for every path.
+ * <br>
+ * The grid has the same lat/lon rectangle and subdivision as the elevation data it was built from.
+ * Row 0 is the southern-most row and column 0 is the western-most column; values are stored row-major.
+ * Slope is computed with the Horn 3x3 kernel on elevations sampled at cell centers.
+ *
+ * @see AbstractElevationData#getSlopeAspectData()
+ */
+public class SlopeAspectData implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final double minLat;
+	private final double maxLat;
+	private final double minLon;
+	private final double maxLon;
+
+	private final int numLat;
+	private final int numLon;
+
+	private final double latCellDeg;
+	private final double lonCellDeg;
+
+	// slope in degrees [0, 90), NaN where the elevation is unknown
+	private final float[] slopeDeg;
+
+	// direction the slope faces (steepest descent), degrees clockwise from north [0, 360), NaN where flat or unknown
+	private final float[] aspectDeg;
+
+	SlopeAspectData(AbstractElevationData elevationData) {
+		this.minLat = elevationData.getMinLat();
+		this.maxLat = elevationData.getMaxLat();
+		this.minLon = elevationData.getMinLon();
+		this.maxLon = elevationData.getMaxLon();
+		this.numLat = elevationData.getNumLat();
+		this.numLon = elevationData.getNumLon();
+		this.latCellDeg = (maxLat - minLat) / numLat;
+		this.lonCellDeg = (maxLon - minLon) / numLon;
+
+		this.slopeDeg = new float[numLat * numLon];
+		this.aspectDeg = new float[numLat * numLon];
+
+		// Sample through the abstract accessor so that we don't depend on how a subclass orders elevationData
+		final double unknownValue = elevationData.getUnknownValue();
+		final float[] elevation = new float[numLat * numLon];
+		IntStream.range(0, numLat).parallel().forEach(i -> {
+			double lat = cellCenterLat(i);
+			for (int j = 0; j < numLon; j++) {
+				double e = elevationData.getElevationMetersForLatLon(lat, cellCenterLon(j));
+				elevation[i * numLon + j] = (e == unknownValue) ? Float.NaN : (float) e;
+			}
+		});
+
+		IntStream.range(0, numLat).parallel().forEach(i -> computeRow(i, elevation));
+	}
+
+	private void computeRow(int i, float[] elevation) {
+		double lat = cellCenterLat(i);
+		double dyMeters = latCellDeg * AreaData.metersPerLatDeg;
+		double dxMeters = lonCellDeg * AreaData.metersPerLatDeg * Math.cos(Math.toRadians(lat));
+
+		int iS = Math.max(i - 1, 0);
+		int iN = Math.min(i + 1, numLat - 1);
+		for (int j = 0; j < numLon; j++) {
+			int index = i * numLon + j;
+			float center = elevation[index];
+			if (Float.isNaN(center)) {
+				slopeDeg[index] = Float.NaN;
+				aspectDeg[index] = Float.NaN;
+				continue;
+			}
+			int jW = Math.max(j - 1, 0);
+			int jE = Math.min(j + 1, numLon - 1);
+
+			// unknown neighbors are treated as level with the center cell
+			double nw = value(elevation, iN, jW, center);
+			double n = value(elevation, iN, j, center);
+			double ne = value(elevation, iN, jE, center);
+			double w = value(elevation, i, jW, center);
+			double e = value(elevation, i, jE, center);
+			double sw = value(elevation, iS, jW, center);
+			double s = value(elevation, iS, j, center);
+			double se = value(elevation, iS, jE, center);
+
+			// Horn's method; edges are handled by clamping, so divide by the actual span
+			double dzdx = ((ne + 2 * e + se) - (nw + 2 * w + sw)) / (4 * dxMeters * (jE - jW));
+			double dzdy = ((nw + 2 * n + ne) - (sw + 2 * s + se)) / (4 * dyMeters * (iN - iS));
+			if (jE == jW) dzdx = 0;
+			if (iN == iS) dzdy = 0;
+
+			double gradient = Math.sqrt(dzdx * dzdx + dzdy * dzdy);
+			slopeDeg[index] = (float) Math.toDegrees(Math.atan(gradient));
+			if (gradient == 0) {
+				aspectDeg[index] = Float.NaN;
+			} else {
+				double aspect = Math.toDegrees(Math.atan2(-dzdx, -dzdy));
+				aspectDeg[index] = (float) (aspect < 0 ? aspect + 360 : aspect);
+			}
+		}
+	}
+
+	private double value(float[] elevation, int i, int j, float center) {
+		float v = elevation[i * numLon + j];
+		return Float.isNaN(v) ? center : v;
+	}
+
+	private double cellCenterLat(int i) {
+		return minLat + (i + 0.5) * latCellDeg;
+	}
+
+	private double cellCenterLon(int j) {
+		return minLon + (j + 0.5) * lonCellDeg;
+	}
+
+	/**
+	 * Bilinear interpolation between cell centers. Points outside the grid are clamped to the edge.
+	 * @return slope in degrees, or NaN if any contributing cell has unknown elevation
+	 */
+	public double getSlopeDeg(double latDeg, double lonDeg) {
+		double fi = clamp((latDeg - minLat) / latCellDeg - 0.5, numLat - 1);
+		double fj = clamp((lonDeg - minLon) / lonCellDeg - 0.5, numLon - 1);
+		int i0 = (int) fi;
+		int j0 = (int) fj;
+		int i1 = Math.min(i0 + 1, numLat - 1);
+		int j1 = Math.min(j0 + 1, numLon - 1);
+		double a = fi - i0;
+		double b = fj - j0;
+
+		return (1 - a) * ((1 - b) * slopeDeg[i0 * numLon + j0] + b * slopeDeg[i0 * numLon + j1])
+				+ a * ((1 - b) * slopeDeg[i1 * numLon + j0] + b * slopeDeg[i1 * numLon + j1]);
+	}
+
+	/**
+	 * Aspect is an angle, so it is not interpolated; the value of the containing cell is returned.
+	 * @return degrees clockwise from north that the slope faces, or NaN for flat or unknown cells
+	 */
+	public double getAspectDeg(double latDeg, double lonDeg) {
+		int i = (int) clamp((latDeg - minLat) / latCellDeg, numLat - 1);
+		int j = (int) clamp((lonDeg - minLon) / lonCellDeg, numLon - 1);
+		return aspectDeg[i * numLon + j];
+	}
+
+	/**
+	 * Batch form of {@link #getSlopeDeg(double, double)}
+	 * @param out - must be at least as long as latDeg
+	 */
+	public void getSlopeDeg(double[] latDeg, double[] lonDeg, double[] out) {
+		if (latDeg.length != lonDeg.length || out.length < latDeg.length) {
+			throw new IllegalArgumentException("latDeg, lonDeg and out must have matching lengths");
+		}
+		for (int k = 0; k < latDeg.length; k++) {
+			out[k] = getSlopeDeg(latDeg[k], lonDeg[k]);
+		}
+	}
+
+	private static double clamp(double value, int max) {
+		return Math.max(0, Math.min(max, value));
+	}
+
+	public int getNumLat() {
+		return numLat;
+	}
+
+	public int getNumLon() {
+		return numLon;
+	}
+}
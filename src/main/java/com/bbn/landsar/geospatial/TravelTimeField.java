@@ -0,0 +1,260 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.geospatial;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bbn.landsar.MovementSchedule;
+import com.bbn.landsar.motionmodel.MotionModelInput;
+import com.bbn.landsar.utils.DateTimeUtilities;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Earliest (moving) time at which a lost person could reach each cell of the land cover grid, from any of a set of
+ * start points, computed in one pass with Dijkstra's algorithm instead of by simulating particles.
+ * <br>
+ * Each cell is crossed at the base speed times its land cover speed of advance (SOA) factor. Cells that are not valid for
+ * the lost person (see {@link PointValidityMask}: exclusion zones, outside the bounding box, and optionally water) or have
+ * an SOA factor of 0 cannot be entered. Because routes step between the 8 neighbors of each cell, times can be up to about 8%
+ * longer than a straight line would take; they never underestimate the grid model.
+ * <br>
+ * Times are in hours of moving; {@link #getEarliestArrivalTime} converts them to wall clock times with a movement schedule.
+ * Plugins can use the field to prune unreachable space and to bound their simulation horizons.
+ */
+public class TravelTimeField {
+	private static final Logger LOGGER = LoggerFactory.getLogger(TravelTimeField.class);
+
+	/**
+	 * Key for caching fields in an {@link AreaDataDerivedCache}, see {@link #forStartTimeDistribution}
+	 */
+	public static final AreaDataDerivedCache.Key<TravelTimeField> CACHE_KEY =
+			AreaDataDerivedCache.Key.of("travelTimeField", TravelTimeField.class, field -> 4L * field.hours.length);
+
+	private final LandCoverGrid grid;
+	private final float[] hours;
+	private final double maxHours;
+
+	private TravelTimeField(LandCoverGrid grid, float[] hours, double maxHours) {
+		this.grid = grid;
+		this.hours = hours;
+		this.maxHours = maxHours;
+	}
+
+	/**
+	 * Travel times from the start time distribution of a motion model input, built once per area, start points, speed
+	 * and exclusion zones and kept in the given cache
+	 */
+	public static TravelTimeField forStartTimeDistribution(MotionModelInput input, double speedKph, boolean stayOutOfWater, AreaDataDerivedCache cache) {
+		AreaData areaData = input.getAreaData();
+		PointValidityMask mask = input.getGeospatialInputs().getPointValidityMask(areaData, stayOutOfWater);
+		List<LatLonGeo> startPoints = input.getStartTimeDistribution();
+		// the mask is rebuilt when the exclusion zones change, so it identifies them
+		return cache.computeIfAbsent(areaData, CACHE_KEY.qualifiedBy(startPoints, speedKph, mask),
+				a -> compute(a, mask, startPoints, speedKph, Double.POSITIVE_INFINITY));
+	}
+
+	/**
+	 * @param mask - which cells may be entered, see {@link com.bbn.landsar.motionmodel.UserEnteredGeospatialData#getPointValidityMask}
+	 * @param startPoints - where the lost person may be at time 0; points in cells that cannot be entered are ignored
+	 * @param speedKph - speed on land cover with an SOA factor of 1
+	 * @param maxHours - stop once every cell reachable within this time is known; further cells are left unreachable
+	 */
+	public static TravelTimeField compute(AreaData areaData, PointValidityMask mask, List<LatLonGeo> startPoints, double speedKph, double maxHours) {
+		if (!(speedKph > 0)) {
+			throw new IllegalArgumentException("speedKph must be positive: " + speedKph);
+		}
+		long start = System.currentTimeMillis();
+		AbstractLandCoverData landcover = areaData.getLandcoverData();
+		LandCoverGrid grid = new LandCoverGrid(landcover);
+		int numCells = grid.numCells();
+
+		// hours to cross each cell per meter, infinite where the cell cannot be entered
+		double[] hoursPerMeter = grid.ratePerMeter(mask, (lat, lon) -> 1 / (1000 * speedKph * landcover.getSoaFactor(lat, lon)));
+
+		float[] hours = new float[numCells];
+		double[] best = new double[numCells];
+		Arrays.fill(best, Double.POSITIVE_INFINITY);
+		CellHeap heap = new CellHeap(grid.numRows + grid.numCols);
+		int ignored = 0;
+		for (LatLonGeo point : startPoints) {
+			int cell = grid.cellOf(point.getLatDeg(), point.getLonDeg());
+			if (cell < 0 || Double.isInfinite(hoursPerMeter[cell])) {
+				ignored++;
+			} else if (best[cell] > 0) {
+				best[cell] = 0;
+				heap.push(0, cell);
+			}
+		}
+		if (ignored > 0) {
+			LOGGER.warn("Ignored {} of {} start points that are outside the land cover grid or in cells that cannot be entered", ignored, startPoints.size());
+		}
+
+		boolean[] done = new boolean[numCells];
+		while (!heap.isEmpty() && heap.peekPriority() <= maxHours) {
+			int cell = heap.pop();
+			if (done[cell]) {
+				continue;
+			}
+			done[cell] = true;
+			double cellTime = best[cell];
+			double cellRate = hoursPerMeter[cell];
+			for (int n = 0; n < LandCoverGrid.NUM_NEIGHBORS; n++) {
+				int neighbor = grid.neighbor(cell, n);
+				if (neighbor < 0 || done[neighbor] || Double.isInfinite(hoursPerMeter[neighbor])) {
+					continue;
+				}
+				double time = cellTime + grid.stepMeters(cell, n) * (cellRate + hoursPerMeter[neighbor]) / 2;
+				if (time < best[neighbor]) {
+					best[neighbor] = time;
+					heap.push(time, neighbor);
+				}
+			}
+		}
+		for (int k = 0; k < hours.length; k++) {
+			hours[k] = done[k] ? (float) best[k] : Float.POSITIVE_INFINITY;
+		}
+		LOGGER.debug("Computed {}x{} travel time field from {} start points in {} ms", grid.numRows, grid.numCols, startPoints.size(), System.currentTimeMillis() - start);
+		return new TravelTimeField(grid, hours, maxHours);
+	}
+
+	/**
+	 * @return hours of moving to reach the cell containing the point, positive infinity if it cannot be reached (or not
+	 * within the maximum time the field was computed for) or is outside the grid
+	 */
+	public double getTravelTimeHours(double latDeg, double lonDeg) {
+		int cell = grid.cellOf(latDeg, lonDeg);
+		return cell < 0 ? Double.POSITIVE_INFINITY : hours[cell];
+	}
+
+	public double getTravelTimeHours(LatLonGeo point) {
+		return getTravelTimeHours(point.getLatDeg(), point.getLonDeg());
+	}
+
+	/**
+	 * @param row - row of the land cover grid, 0 at minLat
+	 * @param col - column of the land cover grid, 0 at minLon
+	 */
+	public double getCellTravelTimeHours(int row, int col) {
+		return hours[row * grid.numCols + col];
+	}
+
+	public boolean isReachableWithin(double latDeg, double lonDeg, double maxHours) {
+		return getTravelTimeHours(latDeg, lonDeg) <= maxHours;
+	}
+
+	/**
+	 * @return the wall clock time at which the lost person could first be at the point, having started at startTime and
+	 * moving only when the schedule says so; Long.MAX_VALUE if never
+	 */
+	public long getEarliestArrivalTime(double latDeg, double lonDeg, long startTime, MovementSchedule schedule) {
+		double travelHours = getTravelTimeHours(latDeg, lonDeg);
+		if (Double.isInfinite(travelHours)) {
+			return Long.MAX_VALUE;
+		}
+		return timeAfterMoving(startTime, Math.round(travelHours * DateTimeUtilities.millisecInHour), schedule);
+	}
+
+	/**
+	 * @return the earliest time by which the schedule has had movingMillis of moving since startTime, Long.MAX_VALUE if
+	 * that takes more than a year
+	 */
+	public static long timeAfterMoving(long startTime, long movingMillis, MovementSchedule schedule) {
+		if (movingMillis <= 0) {
+			return startTime;
+		}
+		long span = movingMillis;
+		while (schedule.timeSpentMoving(startTime, startTime + span) < movingMillis) {
+			if (span > 366 * DateTimeUtilities.millisecsInDay) {
+				return Long.MAX_VALUE;
+			}
+			span *= 2;
+		}
+		// the smallest span with enough moving time is in (low, span]
+		long low = span / 2;
+		while (span - low > 1) {
+			long mid = low + (span - low) / 2;
+			if (schedule.timeSpentMoving(startTime, startTime + mid) >= movingMillis) {
+				span = mid;
+			} else {
+				low = mid;
+			}
+		}
+		return startTime + span;
+	}
+
+	/**
+	 * @return the largest finite travel time of any cell
+	 */
+	public double getMaxReachableHours() {
+		double max = 0;
+		for (float h : hours) {
+			if (h != Float.POSITIVE_INFINITY && h > max) {
+				max = h;
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * @return bounding box of the cells reachable within maxHours, or null if there are none
+	 */
+	public BoundingBox getReachableBoundingBox(double maxHours) {
+		int numRows = grid.numRows;
+		int numCols = grid.numCols;
+		int minRow = numRows;
+		int maxRow = -1;
+		int minCol = numCols;
+		int maxCol = -1;
+		for (int i = 0; i < numRows; i++) {
+			for (int j = 0; j < numCols; j++) {
+				if (hours[i * numCols + j] <= maxHours) {
+					minRow = Math.min(minRow, i);
+					maxRow = Math.max(maxRow, i);
+					minCol = Math.min(minCol, j);
+					maxCol = Math.max(maxCol, j);
+				}
+			}
+		}
+		if (maxRow < 0) {
+			return null;
+		}
+		return new BoundingBox(grid.minLat + (maxRow + 1) * grid.latCellDeg, grid.minLat + minRow * grid.latCellDeg,
+				grid.minLon + (maxCol + 1) * grid.lonCellDeg, grid.minLon + minCol * grid.lonCellDeg);
+	}
+
+	/**
+	 * @return the maximum time this field was computed for; cells beyond it are unreachable
+	 */
+	public double getMaxHours() {
+		return maxHours;
+	}
+
+	public int getNumRows() {
+		return grid.numRows;
+	}
+
+	public int getNumCols() {
+		return grid.numCols;
+	}
+}
@@ -0,0 +1,183 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.geospatial;
+
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import com.bbn.landsar.motionmodel.Unit;
+
+/**
+ * Point interpolation of {@link AbstractTimeBasedVectorData} for particle loops, which look up many points at the same few times.
+ * <br>
+ * {@link AbstractTimeBasedVectorData#getData(LatLonGeo, long)} interpolates the whole grid in time and allocates a Velocity2d per node
+ * on every call. Here the time slices are converted once to primitive arrays in meters per second, a {@link Bracket} holds the two slices
+ * around a time with the weight between them, and {@link Bracket#interpolate(double, double, double[])} blends the bilinear values
+ * of the two slices without allocating. The grid indices are found by binary search, so non-uniform grids work too.
+ * The values are getData's converted from the data's unit ({@link GeospatialMetadata#getDataUnit()}) to meters per second,
+ * which getData does not do, so they equal getData's only for data already in meters per second, up to round off.
+ * <br>
+ * Only the slices of the latest bracket are kept, so stepping forward through time converts each slice once.
+ * {@link #bracket(long)} is not thread-safe, but Brackets are immutable and may be shared by any number of threads.
+ */
+public class VectorDataSlices {
+
+	private final NavigableMap<Long, Velocity2d[][]> timeBasedData;
+	private final double[] latitudeValues;
+	private final double[] longitudeValues;
+	private final double toMetersPerSecond;
+
+	// converted slices (east, north interleaved, row major), keyed by time
+	private final NavigableMap<Long, double[]> converted = new TreeMap<>();
+
+	public VectorDataSlices(AbstractTimeBasedVectorData data) {
+		if (data.timeBasedData == null || data.timeBasedData.isEmpty()) {
+			throw new IllegalArgumentException("No time-based data");
+		}
+		this.timeBasedData = data.timeBasedData;
+		this.latitudeValues = data.latitudeValues.clone();
+		this.longitudeValues = data.longitudeValues.clone();
+		this.toMetersPerSecond = toMetersPerSecond(data.geospatialMetadata == null ? null : data.geospatialMetadata.getDataUnit());
+	}
+
+	private static double toMetersPerSecond(Unit unit) {
+		if (unit == null) {
+			// currents and winds are in meters per second unless the data fetcher says otherwise
+			return 1;
+		}
+		switch (unit) {
+		case METERS_PER_SECOND:
+			return 1;
+		case KNOTS:
+			return 1852.0 / 3600;
+		case KILOMETERS_PER_HOUR:
+			return 1000.0 / 3600;
+		default:
+			throw new IllegalArgumentException("Not a speed: " + unit);
+		}
+	}
+
+	/**
+	 * @return the slices around time, clamped to the first and last slice as in {@link AbstractTimeBasedVectorData#interpolateTime(long)}
+	 */
+	public Bracket bracket(long time) {
+		Entry<Long, Velocity2d[][]> lower = timeBasedData.floorEntry(time);
+		Entry<Long, Velocity2d[][]> higher = timeBasedData.ceilingEntry(time);
+		if (lower == null) {
+			lower = higher;
+		} else if (higher == null) {
+			higher = lower;
+		}
+		// slices before this bracket are no longer needed when stepping forward
+		converted.headMap(lower.getKey(), false).clear();
+		double[] earlier = convert(lower);
+		if (lower.getKey().equals(higher.getKey())) {
+			return new Bracket(earlier, earlier, 0);
+		}
+		double weightLater = ((double) time - lower.getKey()) / ((double) higher.getKey() - lower.getKey());
+		return new Bracket(earlier, convert(higher), weightLater);
+	}
+
+	private double[] convert(Entry<Long, Velocity2d[][]> entry) {
+		double[] slice = converted.get(entry.getKey());
+		if (slice == null) {
+			Velocity2d[][] values = entry.getValue();
+			int numLon = longitudeValues.length;
+			slice = new double[2 * latitudeValues.length * numLon];
+			for (int i = 0; i < latitudeValues.length; i++) {
+				for (int j = 0; j < numLon; j++) {
+					slice[2 * (i * numLon + j)] = values[i][j].getEast() * toMetersPerSecond;
+					slice[2 * (i * numLon + j) + 1] = values[i][j].getNorth() * toMetersPerSecond;
+				}
+			}
+			converted.put(entry.getKey(), slice);
+		}
+		return slice;
+	}
+
+	/**
+	 * Same index as {@link AbstractTimeBasedVectorData#getLowerIndex(double, double[], double, double)}, by binary search
+	 */
+	static int lowerIndex(double v, double[] a) {
+		if (v <= a[0]) {
+			return 0;
+		}
+		if (v >= a[a.length - 1]) {
+			return a.length - 1;
+		}
+		int k = Arrays.binarySearch(a, v);
+		return k >= 0 ? k - 1 : -k - 2;
+	}
+
+	/**
+	 * The two slices around a time
+	 */
+	public class Bracket {
+		private final double[] earlier;
+		private final double[] later;
+		private final double weightLater;
+
+		Bracket(double[] earlier, double[] later, double weightLater) {
+			this.earlier = earlier;
+			this.later = later;
+			this.weightLater = weightLater;
+		}
+
+		/**
+		 * Writes the east component (meters per second) into out[0] and the north component into out[1]
+		 * @throws IllegalArgumentException if latDeg or lonDeg is NaN
+		 */
+		public void interpolate(double latDeg, double lonDeg, double[] out) {
+			if (Double.isNaN(latDeg) || Double.isNaN(lonDeg)) {
+				throw new IllegalArgumentException("provided latitude, " + latDeg + ", or longitude, " + lonDeg
+						+ ", is not a number!");
+			}
+			int numLon = longitudeValues.length;
+			int i0 = lowerIndex(latDeg, latitudeValues);
+			int j0 = lowerIndex(lonDeg, longitudeValues);
+			int i1 = Math.min(i0 + 1, latitudeValues.length - 1);
+			int j1 = Math.min(j0 + 1, numLon - 1);
+			double latAlpha = i0 == i1 ? 0 : (latDeg - latitudeValues[i0]) / (latitudeValues[i1] - latitudeValues[i0]);
+			double lonAlpha = j0 == j1 ? 0 : (lonDeg - longitudeValues[j0]) / (longitudeValues[j1] - longitudeValues[j0]);
+
+			int c00 = 2 * (i0 * numLon + j0);
+			int c01 = 2 * (i0 * numLon + j1);
+			int c10 = 2 * (i1 * numLon + j0);
+			int c11 = 2 * (i1 * numLon + j1);
+			double w00 = (1 - latAlpha) * (1 - lonAlpha);
+			double w01 = (1 - latAlpha) * lonAlpha;
+			double w10 = latAlpha * (1 - lonAlpha);
+			double w11 = latAlpha * lonAlpha;
+
+			double east = w00 * earlier[c00] + w01 * earlier[c01] + w10 * earlier[c10] + w11 * earlier[c11];
+			double north = w00 * earlier[c00 + 1] + w01 * earlier[c01 + 1] + w10 * earlier[c10 + 1] + w11 * earlier[c11 + 1];
+			if (later != earlier) {
+				double laterEast = w00 * later[c00] + w01 * later[c01] + w10 * later[c10] + w11 * later[c11];
+				double laterNorth = w00 * later[c00 + 1] + w01 * later[c01 + 1] + w10 * later[c10 + 1] + w11 * later[c11 + 1];
+				east = (1 - weightLater) * east + weightLater * laterEast;
+				north = (1 - weightLater) * north + weightLater * laterNorth;
+			}
+			out[0] = east;
+			out[1] = north;
+		}
+	}
+}
@@ -193,12 +193,19 @@ public class WindData implements Serializable{
 	 * Simple linear interpolation assuming a uniform grid
 	 */
 	public Velocity2d getWind(LatLonGeo location, long time) {
+		double[] eastNorth = new double[2];
+		getWind(location.getLatDeg(), location.getLonDeg(), eastNorth);
+		return new Velocity2d(eastNorth[0], eastNorth[1]);
+	}
+	
+	/**
+	 * Same as {@link #getWind(LatLonGeo, long)}, but writes the east component (meters / sec) into out[0] and the north
+	 * component into out[1] instead of allocating, for particle loops that look up the wind at every step
+	 */
+	public void getWind(double latIn, double lonIn, double[] out) {
 		
-		double aboveSeaLevelMeters = 0;
-		
-		double latIn = location.getLatDeg();
-		double lonIn = location.getLonDeg();
-		double altIn = aboveSeaLevelMeters;
+		// at sea level
+		double altIn = 0;
 		
 		int latIndx0 = getLowerIndex(latIn, latitude, minLat, maxLat);
 		int lonIndx0 = getLowerIndex(lonIn, longitude, minLon, maxLon);
@@ -208,12 +215,10 @@ public class WindData implements Serializable{
 		int lonIndx1 = Math.min(lonIndx0 + 1, longitude.length - 1);
 		int altIndx1 = Math.min(altIndx0 + 1, altitude.length - 1);
 		
-		double e = getInterpolatedValue(latIn, lonIn, altIn, eastWind, 
+		out[0] = getInterpolatedValue(latIn, lonIn, altIn, eastWind, 
 				latIndx0, latIndx1, lonIndx0, lonIndx1, altIndx0, altIndx1);
-		double n = getInterpolatedValue(latIn, lonIn, altIn, northWind, 
+		out[1] = getInterpolatedValue(latIn, lonIn, altIn, northWind, 
 				latIndx0, latIndx1, lonIndx0, lonIndx1, altIndx0, altIndx1);
-		
-		return new Velocity2d(e,n);
 	}
 	
 	
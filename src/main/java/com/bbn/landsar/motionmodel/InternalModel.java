@@ -125,6 +125,23 @@ public abstract class InternalModel {
 
     }
 
+    /**
+     * Merge another batch of sample paths into this model, e.g. while a distribution is being refined progressively.
+     * Searches hold a probability of detection per sample path, so samples can only be added before any search is.
+     *
+     * @param moreSamplePaths samples to append
+     */
+    public void addSamples(List<Sample> moreSamplePaths) {
+        if (this.probabilityOfDetectionValues != null && this.probabilityOfDetectionValues.getPdValues() != null
+                && !this.probabilityOfDetectionValues.getPdValues().isEmpty()) {
+            throw new IllegalStateException("Cannot add samples to a model that already has searches");
+        }
+        List<Sample> merged = new ArrayList<>(this.samplePaths.size() + moreSamplePaths.size());
+        merged.addAll(this.samplePaths);
+        merged.addAll(moreSamplePaths);
+        setSamples(merged);
+    }
+
     /**
      * Remove search
      *
@@ -34,6 +34,7 @@ public class MotionModelConstants {
 	public static final String ISOLATED_PERSON_PARAMETERS = "isolated person parameters";
 	public static final String GOAL_ORIENTED_PARAMETERS = "goal oriented parameters";
 	public static final String RANDOM_SEED_PARAMETER = "random seed";
+	public static final String PROGRESSIVE_RESULTS_PARAMETER = "progressive results";
 	
 	
 	private static final Set<MotionModelAttributeDescription> DEFAULT_MOTION_MODEL_PARAMS = new HashSet<>();
@@ -46,7 +47,10 @@ public class MotionModelConstants {
 		DEFAULT_MOTION_MODEL_PARAMS.add(new MotionModelAttributeDescription(GOAL_ORIENTED_PARAMETERS, 
 				"This was an input used for goal or destination focused path based motion models", false, Object.class, Unit.NONE));
 		DEFAULT_MOTION_MODEL_PARAMS.add(new MotionModelAttributeDescription(RANDOM_SEED_PARAMETER, 
-				"TODO refactor randomseeder over to SDK and document usage", false, long.class, Unit.NONE)); //TODO
+				"Seed for the random choices of a motion model. Use RandomSeeder to get an independent, reproducible random stream per sample.", false, long.class, Unit.NONE));
+		DEFAULT_MOTION_MODEL_PARAMS.add(new MotionModelAttributeDescription(PROGRESSIVE_RESULTS_PARAMETER, 
+				"Send a coarse result from a first small batch of samples, then refine it as more samples finish. "
+				+ "See MotionModelManager.sendIntermediateResult", false, Boolean.class, Unit.NONE));
 	}
 	
 	public Set<MotionModelAttributeDescription> getDefaultMotionModelParameters() {
@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import com.bbn.landsar.geospatial.AreaDataDerivedCache;
 import com.bbn.landsar.geospatial.BoundingBox;
 import com.bbn.landsar.utils.StatusUpdateMessage;
 import com.metsci.glimpse.util.geo.LatLonGeo;
@@ -51,6 +52,21 @@ public interface MotionModelManager {
 	 */
 	StatusUpdateMessage sendInProgressUpdate(String update, StatusUpdateMessage status);
 	
+	/**
+	 * Sends a coarse result to the user while {@link MotionModelPlugin#generateInitialDistribution} is still refining it, 
+	 * so that the user has a usable distribution before the full result is returned. 
+	 * The result should be marked {@link MotionModelResult#setIntermediate(boolean) intermediate}; it is replaced by the next intermediate result and 
+	 * finally by the result returned from generateInitialDistribution. 
+	 * This default implementation only sends the update, for servers that cannot display intermediate results. 
+	 * @param result coarse, but complete and valid, result
+	 * @param update for the user
+	 * @param status current status update message
+	 * @return an updated StatusUpdateMessage to use for the next update
+	 */
+	default StatusUpdateMessage sendIntermediateResult(MotionModelResult result, String update, StatusUpdateMessage status) {
+		return sendInProgressUpdate(update, status);
+	}
+	
 	/**
 	 * Creates a probability array (as used by Probability Distribution) from a List of points.
 	 * Points outside the bounding box are ignored. 
@@ -158,4 +174,14 @@ public interface MotionModelManager {
 	void writeFileToRelativePath(String motionModelPluginName, byte[] contents, String relativePath) throws FileNotFoundException, IOException;
 
 	void appendToFile(String motionModelPluginName, String contents, String relativePath) throws FileNotFoundException, IOException;
+
+	/**
+	 * Cache for structures derived from AreaData, shared by all motion model plugins, so that competing models
+	 * for the same incident build each expensive raster once.
+	 * Implementations may override this to size the cache for their deployment.
+	 * @return the shared cache
+	 */
+	default AreaDataDerivedCache getAreaDataDerivedCache() {
+		return AreaDataDerivedCache.getSharedInstance();
+	}
 }
@@ -103,6 +103,8 @@ public interface MotionModelPlugin extends StartablePlugin {
 	 * The geographic distributions should be constrained to the provided Bounding Box. 
 	 * The times included in any distribution should be hourly, starting at the startTime, and ending when the model anticipates no further movement within the bounding box. 
 	 * <br>The Distribution With Searches must also be set, and it is expected to be equivalent to the Initial Distribution when there are no searches.
+	 * <br>When the {@link MotionModelConstants#PROGRESSIVE_RESULTS_PARAMETER} parameter is true, a plugin may send coarse results from a first part of its 
+	 * computation with {@link MotionModelManager#sendIntermediateResult} before returning. The returned result is always the final one.
 	 */
 	public MotionModelResult generateInitialDistribution(MotionModelInput input);
 
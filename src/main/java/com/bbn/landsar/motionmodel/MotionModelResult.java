@@ -40,6 +40,7 @@ import com.bbn.landsar.motionmodel.path.Path;
  * <li>generatedTimeStamp - when the result was generated</li>
  * <li>lpiId - UUID for the lost person instance</li>
  * <li>generatingModelName</li> the name of the plugin that created this result (so it can be queried for updated distributions when we add searches)
+ * <li>intermediate - true for a coarse result sent while the model is still being refined, see {@link MotionModelManager#sendIntermediateResult}</li>
  * </ul>
  *  
  * 
@@ -86,6 +87,11 @@ public class MotionModelResult {
 	 */
 	protected UUID lpiId;
 
+	/**
+	 * Whether this is a coarse result that a more accurate one will replace
+	 */
+	protected boolean intermediate;
+
 	public List<Path> getPaths() {
 		return paths;
 	}
@@ -118,6 +124,14 @@ public class MotionModelResult {
 		this.lpiId = lpiId;
 	}
 
+	public boolean isIntermediate() {
+		return intermediate;
+	}
+
+	public void setIntermediate(boolean intermediate) {
+		this.intermediate = intermediate;
+	}
+
 	public Map<Long, ProbabilityDistribution> getInitialDistribution() {
 		return initialDistribution;
 	}
@@ -157,6 +171,7 @@ public class MotionModelResult {
 			newResult.setPaths(this.getPaths());
 		}
 		newResult.setGeneratingModelName(this.getGeneratingModelName());
+		newResult.setIntermediate(this.intermediate);
 		
 		return newResult;
 	}
@@ -225,6 +240,8 @@ public class MotionModelResult {
 		builder.append(generatingModelName);
 		builder.append(", lpiId=");
 		builder.append(lpiId);
+		builder.append(", intermediate=");
+		builder.append(intermediate);
 		builder.append("]");
 		return builder.toString();
 	}
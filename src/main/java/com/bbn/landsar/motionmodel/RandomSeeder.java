@@ -0,0 +1,115 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+package com.bbn.landsar.motionmodel;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Derives an independent random number stream for each sample of a Lost Person Instance from one seed.
+ * <br>
+ * The stream for sample i depends only on (seed, i), not on which thread generates the sample or in what order,
+ * so parallel and sequential runs produce identical samples, and a run can be repeated exactly for after-action review.
+ * Nothing is shared between streams, so there is no contention on a common Random.
+ * <br>
+ * Usage: create one RandomSeeder per LPI (see {@link #fromParameters(Map, UUID)}), then call
+ * {@link #forSample(int)} (or {@link #randomForSample(int)} for APIs that take a java.util.Random) once per sample,
+ * from whichever thread generates that sample.
+ *
+ * @see MotionModelConstants#RANDOM_SEED_PARAMETER
+ */
+public final class RandomSeeder {
+	private static final Logger LOGGER = LoggerFactory.getLogger(RandomSeeder.class);
+
+	// odd constant from SplittableRandom / SplitMix64, spreads consecutive indices far apart before mixing
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private final long seed;
+
+	public RandomSeeder(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Uses {@link MotionModelConstants#RANDOM_SEED_PARAMETER} if the user set it, otherwise a seed derived from the LPI id,
+	 * so that re-running the same LPI is still reproducible.
+	 */
+	public static RandomSeeder fromParameters(Map<String, Object> motionModelParameters, UUID lpiId) {
+		Object value = motionModelParameters == null ? null : motionModelParameters.get(MotionModelConstants.RANDOM_SEED_PARAMETER);
+		if (value instanceof Number) {
+			return new RandomSeeder(((Number) value).longValue());
+		}
+		if (value instanceof String && !((String) value).trim().isEmpty()) {
+			try {
+				return new RandomSeeder(Long.parseLong(((String) value).trim()));
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Ignoring non-numeric {}: '{}'", MotionModelConstants.RANDOM_SEED_PARAMETER, value);
+			}
+		}
+		if (lpiId == null) {
+			throw new IllegalArgumentException("Need either a " + MotionModelConstants.RANDOM_SEED_PARAMETER + " parameter or an LPI id");
+		}
+		return new RandomSeeder(lpiId.getMostSignificantBits() ^ mix64(lpiId.getLeastSignificantBits()));
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return the seed of the stream for the given sample
+	 */
+	public long seedForSample(int sampleIndex) {
+		return mix64(seed + GOLDEN_GAMMA * (sampleIndex + 1L));
+	}
+
+	/**
+	 * @return a new generator for the given sample; the same (seed, sampleIndex) always gives the same sequence
+	 */
+	public SplittableRandom forSample(int sampleIndex) {
+		return new SplittableRandom(seedForSample(sampleIndex));
+	}
+
+	/**
+	 * Same stream choice as {@link #forSample(int)}, as a java.util.Random for APIs such as
+	 * {@link com.bbn.landsar.motionmodel.path.PathGeneratorPlugin#generatePath}. Not to be shared between samples.
+	 */
+	public Random randomForSample(int sampleIndex) {
+		return new Random(seedForSample(sampleIndex));
+	}
+
+	/**
+	 * Stafford variant 13 of the MurmurHash3 finalizer, as used by SplittableRandom
+	 */
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	@Override
+	public String toString() {
+		return "RandomSeeder [seed=" + seed + "]";
+	}
+}
@@ -19,8 +19,12 @@ https://github.com/atapas/add-copyright.git
 
 package com.bbn.landsar.motionmodel;
 
+import com.bbn.landsar.geospatial.AreaData;
 import com.bbn.landsar.geospatial.ExclusionZone;
+import com.bbn.landsar.geospatial.ExclusionZoneIndex;
+import com.bbn.landsar.geospatial.PointValidityMask;
 import com.bbn.landsar.geospatial.PolygonalExclusionZone;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.metsci.glimpse.util.geo.LatLonGeo;
 
 import java.util.List;
@@ -47,6 +51,10 @@ public class UserEnteredGeospatialData {
 	private List<LatLonGeo> goalPoints;
 	private List<LatLonGeo> waypoints;
 
+	// built from exclusionZones and polyExclusions on first use
+	private volatile ExclusionZoneIndex exclusionZoneIndex;
+	// most recently requested mask, rebuilt when the area, the zones or the water setting change
+	private volatile PointValidityMask pointValidityMask;
 
 	public UserEnteredGeospatialData(List<ExclusionZone> exclusionZones,
 									 List<PolygonalExclusionZone> polyExclusions,
@@ -64,6 +72,7 @@ public class UserEnteredGeospatialData {
 
 	public void setExclusionZones(List<ExclusionZone> exclusionZones) {
 		this.exclusionZones = exclusionZones;
+		this.exclusionZoneIndex = null;
 	}
 
 	public List<PolygonalExclusionZone> getPolyExclusions() {
@@ -72,6 +81,54 @@ public class UserEnteredGeospatialData {
 
 	public void setPolyExclusions(List<PolygonalExclusionZone> polyExclusions) {
 		this.polyExclusions = polyExclusions;
+		this.exclusionZoneIndex = null;
+	}
+
+	/**
+	 * The index is built once and shared by all samples; it is rebuilt if the zone lists are replaced,
+	 * but not if the lists or zones are modified in place.
+	 * @return spatial index over both the circular and the polygonal exclusion zones
+	 */
+	@JsonIgnore
+	public ExclusionZoneIndex getExclusionZoneIndex() {
+		ExclusionZoneIndex index = exclusionZoneIndex;
+		if (index == null) {
+			synchronized (this) {
+				index = exclusionZoneIndex;
+				if (index == null) {
+					index = new ExclusionZoneIndex(exclusionZones, polyExclusions);
+					exclusionZoneIndex = index;
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * @return true if the point is inside any circular or polygonal exclusion zone
+	 */
+	public boolean isInsideExclusionZone(LatLonGeo pt) {
+		return getExclusionZoneIndex().contains(pt);
+	}
+
+	/**
+	 * Rasterizes the exclusion zones, the bounding box and (optionally) water onto the land cover grid of areaData.
+	 * The mask is built on first request and reused until one of its inputs changes.
+	 */
+	@JsonIgnore
+	public PointValidityMask getPointValidityMask(AreaData areaData, boolean stayOutOfWater) {
+		ExclusionZoneIndex index = getExclusionZoneIndex();
+		PointValidityMask mask = pointValidityMask;
+		if (mask == null || !mask.isFor(areaData, index, stayOutOfWater)) {
+			synchronized (this) {
+				mask = pointValidityMask;
+				if (mask == null || !mask.isFor(areaData, index, stayOutOfWater)) {
+					mask = new PointValidityMask(areaData, index, stayOutOfWater);
+					pointValidityMask = mask;
+				}
+			}
+		}
+		return mask;
 	}
 
 	public List<LatLonGeo> getGoalPoints() {
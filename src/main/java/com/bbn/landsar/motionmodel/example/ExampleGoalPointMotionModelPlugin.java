@@ -40,8 +40,8 @@ import com.bbn.landsar.MovementSchedule;
 import com.bbn.landsar.geospatial.AreaData;
 import com.bbn.landsar.search.LandsarSearch;
 import com.bbn.landsar.utils.DateTimeUtilities;
-import com.bbn.landsar.utils.GroundUtilities;
 import com.bbn.landsar.utils.StatusUpdateMessage;
+import com.bbn.landsar.utils.json.LandsarJsonModule;
 import com.bbn.roger.annotation.Plugin;
 import com.bbn.roger.config.AttributeDescription;
 import com.bbn.roger.plugin.PluginContext;
@@ -242,7 +242,7 @@ public class ExampleGoalPointMotionModelPlugin implements LandMotionModelPlugin
 					} else {
 						LatLonGeo newPoint = oldPoint.displacedBy(speedForThisPoint, oldPoint.getAzimuthTo(goalPoint));
 						// for the new points, don't add any that are in the exclusion zones (this model doesn't worry about the weights associated with that point if we remove it since weights are relative)
-						if (GroundUtilities.exclusionZonesContainsPoint(geospatialInputs.getExclusionZones(), newPoint)){
+						if (geospatialInputs.isInsideExclusionZone(newPoint)){
 							continue;
 						}
 						// same for stay out of water
@@ -358,7 +358,7 @@ public class ExampleGoalPointMotionModelPlugin implements LandMotionModelPlugin
 	@Override
 	public void stop() {
 		// LandSAR system will shutdown - save Internal Model currently in memory to disk
-		ObjectMapper mapper = new ObjectMapper();
+		ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
 		for (Entry<UUID, InternalModel> entry : lpiData.entrySet()) {
 			try {
 				File dataFile = motionModelManager.getOrCreateFileForModelData(entry.getKey(), this.getName(), INTERNAL_MODEL);
@@ -376,7 +376,7 @@ public class ExampleGoalPointMotionModelPlugin implements LandMotionModelPlugin
 		// LandSAR system restarted with saved LPIs - restore state my plugin expects to be in memory 
 
 		if (tagToDataFile.containsKey(INTERNAL_MODEL)) {
-			ObjectMapper mapper = new ObjectMapper();
+			ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
 			try {
 				lpiData.put(lostPersonId, mapper.readValue(tagToDataFile.get(INTERNAL_MODEL), InternalModel.class));
 			} catch (IOException e) {
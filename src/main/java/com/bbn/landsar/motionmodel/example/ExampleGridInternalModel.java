@@ -0,0 +1,211 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.motionmodel.example;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.bbn.landsar.geospatial.BoundingBox;
+import com.bbn.landsar.motionmodel.grid.GridPropagationEngine;
+import com.bbn.landsar.motionmodel.grid.GridPropagationEngine.Propagation;
+import com.bbn.landsar.motionmodel.grid.GridPropagationEngine.SearchMask;
+import com.bbn.landsar.search.LandsarSearch;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Maintain Internal-to-the-Motion-Model State for each Lost Person Instance of {@link ExampleGridMotionModelPlugin}.
+ * <br>
+ * Everything needed to re-run the propagation is kept, including the sampled land cover and schedule,
+ * so that searches can still be added and cancelled after a restart without the AreaData.
+ */
+public class ExampleGridInternalModel {
+	private BoundingBox boundingBox;
+	private double[] cellSoa;
+	private boolean[] absorbing;
+	private double driftEastMps;
+	private double driftNorthMps;
+	private double diffusivity;
+
+	private long startTime;
+	private double[] initialState;
+	private double[] movingFractions;
+	private List<LandsarSearch> searches = new ArrayList<>();
+
+	@JsonIgnore
+	private transient volatile GridPropagationEngine engine;
+	// masks only depend on the search and the grid, so they are kept across re-runs
+	@JsonIgnore
+	private final transient Map<UUID, SearchMask> searchMasks = new ConcurrentHashMap<>();
+
+	public ExampleGridInternalModel() {
+		// Json constructor
+	}
+
+	ExampleGridInternalModel(GridPropagationEngine engine, long startTime, double[] initialState, double[] movingFractions) {
+		this.engine = engine;
+		this.boundingBox = engine.getBoundingBox();
+		this.cellSoa = engine.getCellSoa();
+		this.absorbing = engine.getAbsorbing();
+		this.driftEastMps = engine.getDriftEastMps();
+		this.driftNorthMps = engine.getDriftNorthMps();
+		this.diffusivity = engine.getDiffusivity();
+		this.startTime = startTime;
+		this.initialState = initialState;
+		this.movingFractions = movingFractions;
+	}
+
+	/**
+	 * @return the engine, rebuilt from the stored grid after a restore
+	 */
+	@JsonIgnore
+	public GridPropagationEngine getEngine() {
+		GridPropagationEngine result = engine;
+		if (result == null) {
+			synchronized (this) {
+				result = engine;
+				if (result == null) {
+					result = new GridPropagationEngine(boundingBox, cellSoa, absorbing, driftEastMps, driftNorthMps, diffusivity);
+					engine = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Runs the propagation from the start time with the given searches, which need not be the ones added to this model
+	 */
+	public Propagation propagate(UUID lpiId, Collection<? extends LandsarSearch> searchesToInclude) {
+		GridPropagationEngine gridEngine = getEngine();
+		List<SearchMask> masks = searchesToInclude.stream()
+				.map(search -> searchMasks.computeIfAbsent(search.getSearchId(), id -> gridEngine.searchMask(search)))
+				.collect(Collectors.toList());
+		return gridEngine.propagate(lpiId, initialState, startTime, movingFractions, masks);
+	}
+
+	public void addSearch(LandsarSearch search) {
+		searches.add(search);
+	}
+
+	public void removeSearch(LandsarSearch search) {
+		searches.removeIf(existing -> existing.getSearchId().equals(search.getSearchId()));
+		searchMasks.remove(search.getSearchId());
+	}
+
+	@JsonIgnore
+	public double getInitialProbability() {
+		double total = 0;
+		for (double mass : initialState) {
+			total += mass;
+		}
+		return total;
+	}
+
+	public BoundingBox getBoundingBox() {
+		return boundingBox;
+	}
+
+	public void setBoundingBox(BoundingBox boundingBox) {
+		this.boundingBox = boundingBox;
+		this.engine = null;
+	}
+
+	public double[] getCellSoa() {
+		return cellSoa;
+	}
+
+	public void setCellSoa(double[] cellSoa) {
+		this.cellSoa = cellSoa;
+		this.engine = null;
+	}
+
+	public boolean[] getAbsorbing() {
+		return absorbing;
+	}
+
+	public void setAbsorbing(boolean[] absorbing) {
+		this.absorbing = absorbing;
+		this.engine = null;
+	}
+
+	public double getDriftEastMps() {
+		return driftEastMps;
+	}
+
+	public void setDriftEastMps(double driftEastMps) {
+		this.driftEastMps = driftEastMps;
+		this.engine = null;
+	}
+
+	public double getDriftNorthMps() {
+		return driftNorthMps;
+	}
+
+	public void setDriftNorthMps(double driftNorthMps) {
+		this.driftNorthMps = driftNorthMps;
+		this.engine = null;
+	}
+
+	public double getDiffusivity() {
+		return diffusivity;
+	}
+
+	public void setDiffusivity(double diffusivity) {
+		this.diffusivity = diffusivity;
+		this.engine = null;
+	}
+
+	public long getStartTime() {
+		return startTime;
+	}
+
+	public void setStartTime(long startTime) {
+		this.startTime = startTime;
+	}
+
+	public double[] getInitialState() {
+		return initialState;
+	}
+
+	public void setInitialState(double[] initialState) {
+		this.initialState = initialState;
+	}
+
+	public double[] getMovingFractions() {
+		return movingFractions;
+	}
+
+	public void setMovingFractions(double[] movingFractions) {
+		this.movingFractions = movingFractions;
+	}
+
+	public List<LandsarSearch> getSearches() {
+		return searches;
+	}
+
+	public void setSearches(List<LandsarSearch> searches) {
+		this.searches = searches;
+	}
+}
@@ -0,0 +1,369 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.motionmodel.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bbn.landsar.MovementSchedule;
+import com.bbn.landsar.geospatial.AreaData;
+import com.bbn.landsar.geospatial.Direction;
+import com.bbn.landsar.geospatial.Velocity2d;
+import com.bbn.landsar.motionmodel.AreaDataType;
+import com.bbn.landsar.motionmodel.GeospatialInputDescriptions;
+import com.bbn.landsar.motionmodel.LandMotionModelPlugin;
+import com.bbn.landsar.motionmodel.MotionModelAttributeDescription;
+import com.bbn.landsar.motionmodel.MotionModelConstants;
+import com.bbn.landsar.motionmodel.MotionModelInput;
+import com.bbn.landsar.motionmodel.MotionModelManager;
+import com.bbn.landsar.motionmodel.MotionModelResult;
+import com.bbn.landsar.motionmodel.Unit;
+import com.bbn.landsar.motionmodel.UserEnteredGeospatialData;
+import com.bbn.landsar.motionmodel.grid.GridPropagationEngine;
+import com.bbn.landsar.motionmodel.grid.GridPropagationEngine.Propagation;
+import com.bbn.landsar.search.LandsarSearch;
+import com.bbn.landsar.search.SearchUtilities;
+import com.bbn.landsar.utils.DateTimeUtilities;
+import com.bbn.landsar.utils.StatusUpdateMessage;
+import com.bbn.landsar.utils.json.LandsarJsonModule;
+import com.bbn.roger.annotation.Plugin;
+import com.bbn.roger.config.AttributeDescription;
+import com.bbn.roger.plugin.PluginContext;
+import com.bbn.roger.plugin.exception.InsufficientConfigurationException;
+import com.bbn.roger.plugin.exception.RogerInstantiationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * This motion model plugin models a wandering lost person with the {@link GridPropagationEngine} instead of sample paths:
+ * probability diffuses out from the start distribution at a rate set by the speed, drifting in the direction of travel when one is given.
+ * <br>
+ * Because the propagation takes milliseconds, searches are handled by re-running it with every planned search applied as a (1 - pd) mask.
+ */
+@Plugin
+public class ExampleGridMotionModelPlugin implements LandMotionModelPlugin {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExampleGridMotionModelPlugin.class);
+
+	private static final Set<MotionModelAttributeDescription> PER_LPI_ATTRS = new HashSet<>();
+	private static final Set<GeospatialInputDescriptions> PER_LPI_GEOSPATIAL_ATTRS = new HashSet<>();
+
+	public static final String DISTANCE = "distance";
+	public static final String DIRECTION = "direction";
+	public static final String SPEED = "speed";
+
+	/**
+	 * Fraction of the speed spent going in the direction of travel, when there is one; the rest is spent wandering
+	 */
+	static final double DIRECTED_FRACTION = 0.5;
+
+	/**
+	 * Never model more than this many hours, however little the schedule has the person moving
+	 */
+	static final int MAX_HOURS = 14 * 24;
+
+	/**
+	 * Motion Model Manager provides access to utility methods
+	 */
+	private MotionModelManager motionModelManager;
+
+	private String name = ""; // name will be set by Motion Model Manager via setter
+
+	/**
+	 * Motion Model Manager has per-LPI locking, but my Motion Model Plugin may be called to create / update two different LPIs at once
+	 */
+	private Map<UUID, ExampleGridInternalModel> lpiData = new ConcurrentHashMap<>();
+
+	final String INTERNAL_MODEL_FILENAME = "internal_grid_model.json";
+
+	private boolean started;
+
+	static {
+		PER_LPI_ATTRS.add(new MotionModelAttributeDescription(DISTANCE,
+				"distance person might travel", true, Double.class, Unit.KILOMETERS));
+		PER_LPI_ATTRS.add(new MotionModelAttributeDescription(DIRECTION,
+				"direction (Choose from: N, S, E, W, NE, NW, SE, SW) person was believed to be going, if any", false, String.class, Unit.NONE));
+		PER_LPI_ATTRS.add(new MotionModelAttributeDescription(SPEED,
+				"average speed", true, Double.class, Unit.KILOMETERS_PER_HOUR));
+
+		// adding this here (not required) will still give the user the option to enter in this data type
+		PER_LPI_GEOSPATIAL_ATTRS.add(new GeospatialInputDescriptions(UserEnteredGeospatialData.GeospatialDataType.EXCLUSION_ZONE,
+				false));
+	}
+
+	@Override
+	public void configure(Map<String, Object> configurationOptions, PluginContext context)
+			throws InsufficientConfigurationException {
+		// read in anything configured in the config.json file (deployment-time configuration)
+
+	}
+
+	@Override
+	public Set<AttributeDescription> getConfigurationAttributes() {
+		// if we used deployment-time configuration, we should document that here
+		return new HashSet<>();
+	}
+
+	@Override
+	public void initialize() throws RogerInstantiationException {
+		// No initialization for this plugin
+
+	}
+
+	@Override
+	public Set<AreaDataType> getRequiredAreaData() {
+		Set<AreaDataType> requiredAreaData = new HashSet<>();
+		// land cover sets how fast probability spreads through each cell, and which cells are water
+		requiredAreaData.add(new AreaDataType(AreaDataType.LANDCOVER, true));
+		return requiredAreaData;
+	}
+
+	@Override
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Set<MotionModelAttributeDescription> getMotionModelParameters() {
+		return PER_LPI_ATTRS;
+	}
+
+	@Override
+	public Set<GeospatialInputDescriptions> getMotionModelGeospatialDescriptions() {
+		return PER_LPI_GEOSPATIAL_ATTRS;
+	}
+
+	@Override
+	public boolean validateMotionModelParameters(Map<String, Object> motionModelParameters, UserEnteredGeospatialData geospatialInputs, StatusUpdateMessage status) {
+		LOGGER.debug("Motion model parameters: {}", motionModelParameters);
+		for (MotionModelAttributeDescription attribute : PER_LPI_ATTRS) {
+			if (attribute.isRequired() && !motionModelParameters.containsKey(attribute.getName())) {
+				status.addError(this.getName() + ": Missing required attribute '" + attribute.getName()+"'", "Missing requiredAttribute: " + attribute);
+				// don't validate missing values
+				motionModelManager.sendStatusUpdateMessage(status);
+				return false;
+			}
+		}
+
+		String directionStr = (String) motionModelParameters.get(DIRECTION);
+		Double speed = (Double) motionModelParameters.get(SPEED);
+		Double distance = (Double) motionModelParameters.get(DISTANCE);
+
+		boolean anyErrors = false;
+		if (distance == null || distance < 0.0) {
+			status.addError("invalid parameter", String.format("invalid value for '%s'. Value: %s", DISTANCE, distance));
+			anyErrors = true;
+		}
+		if (directionStr != null) {
+			try {
+				Direction.getDirectionFromString(directionStr);
+			} catch (IllegalArgumentException e) {
+				status.addError("invalid parameter", String.format("invalid value for '%s'. Value: '%s', Valid Values: %s %s", DIRECTION, directionStr,
+						Arrays.toString(Direction.values()), "and their common abbreviations"));
+				anyErrors = true;
+			}
+		}
+		if (speed == null || speed <= 0.0) {
+			status.addError("invalid parameter", String.format("invalid value for '%s'. Value: %s", SPEED, speed));
+			anyErrors = true;
+		}
+
+		if (anyErrors) {
+			// send statusUpdateMessage with all validation errors if there are any
+			motionModelManager.sendStatusUpdateMessage(status);
+		}
+
+		return !anyErrors;
+	}
+
+	@Override
+	public MotionModelResult generateInitialDistribution(MotionModelInput motionModelInput) {
+		UUID lpiId = motionModelInput.getLpiId();
+		AreaData areaData = motionModelInput.getAreaData();
+		Map<String, Object> motionModelParameters = motionModelInput.getMotionModelParameters();
+		MovementSchedule schedule = motionModelInput.getMovementSchedule();
+		long startTime = motionModelInput.getStartTime();
+		StatusUpdateMessage status = motionModelInput.getStatus();
+
+		// get general parameter(s) provided to all motion models
+		Boolean stayOutOfWater = (Boolean) motionModelParameters.get(MotionModelConstants.STAY_OUT_OF_WATER);
+
+		// already validated direction, distance, speed in validateMotionModelParameters method
+		String directionStr = (String) motionModelParameters.get(DIRECTION);
+		double speedKph = (Double) motionModelParameters.get(SPEED);
+		double distanceKm = (Double) motionModelParameters.get(DISTANCE);
+
+		// a random walk with diffusivity v^2 * T / 4 wanders sqrt(4 D T) = v * T in a time T, here an hour
+		double speedMps = speedKph * 1000 / 3600;
+		Velocity2d drift = new Velocity2d(0, 0);
+		double wanderMps = speedMps;
+		if (directionStr != null) {
+			drift = Direction.getDirectionFromString(directionStr).getDirectionVector().scalarFactor(DIRECTED_FRACTION * speedMps);
+			wanderMps = (1 - DIRECTED_FRACTION) * speedMps;
+		}
+		double diffusivity = wanderMps * wanderMps * (DateTimeUtilities.millisecInHour / 1000.0) / 4;
+
+		// exclusion zones and (when staying out of water) water cells absorb the probability that reaches them
+		GridPropagationEngine engine = GridPropagationEngine.forAreaData(areaData,
+				motionModelInput.getGeospatialInputs().getPointValidityMask(areaData, Boolean.TRUE.equals(stayOutOfWater)),
+				drift.getEast(), drift.getNorth(), diffusivity);
+
+		int numHours = hoursToTravel(schedule, startTime, distanceKm / speedKph);
+		double[] initialState = engine.rasterize(motionModelInput.getStartTimeDistribution());
+		ExampleGridInternalModel modelForThisLPI = new ExampleGridInternalModel(engine, startTime, initialState,
+				engine.movingFractions(schedule, startTime, numHours));
+		lpiData.put(lpiId, modelForThisLPI);
+
+		Propagation propagation = modelForThisLPI.propagate(lpiId, modelForThisLPI.getSearches());
+		if (propagation.getAbsorbedProbability() + propagation.getExitedProbability() > modelForThisLPI.getInitialProbability() / 2) {
+			status.addWarning(this.name + ": More than half of the probability reached water, exclusion zones or the edge of the bounding box. Look at results carefully!");
+		}
+		motionModelManager.sendInProgressUpdate(this.name + ": finished computing.", status);
+
+		// build the result object
+		MotionModelResult result = new MotionModelResult();
+		result.setLpiId(lpiId);
+		result.setInitialDistribution(propagation.getDistributions());
+		result.copyInitialDistToDistWithSearches();
+		result.setGeneratedTimestamp(System.currentTimeMillis());
+		result.setGeneratingModelName(this.getName());
+		return result;
+	}
+
+	/**
+	 * @return the number of whole hours from startTime until the schedule has had the person moving for movingHours
+	 */
+	static int hoursToTravel(MovementSchedule schedule, long startTime, double movingHours) {
+		long[] movingMillis = new long[MAX_HOURS];
+		schedule.timeSpentMoving(startTime, DateTimeUtilities.millisecInHour, movingMillis);
+		double moved = 0;
+		for (int hour = 0; hour < MAX_HOURS; hour++) {
+			if (moved >= movingHours) {
+				return hour;
+			}
+			moved += movingMillis[hour] / (double) DateTimeUtilities.millisecInHour;
+		}
+		return MAX_HOURS;
+	}
+
+	@Override
+	public MotionModelResult updateProbabilityDistributionForSearch(MotionModelResult latestResult, LandsarSearch search,
+		SearchUtilities searchUtilities) {
+		ExampleGridInternalModel internalModel = getInternalModel(latestResult.getLpiId());
+		internalModel.addSearch(search);
+		Propagation propagation = internalModel.propagate(latestResult.getLpiId(), internalModel.getSearches());
+		MotionModelResult newResult = latestResult.copy(propagation.getDistributions());
+		newResult.setGeneratedTimestamp(System.currentTimeMillis());
+		return newResult;
+	}
+
+	@Override
+	public MotionModelResult cancelSearch(MotionModelResult latestResult, LandsarSearch search) {
+		ExampleGridInternalModel internalModel = getInternalModel(latestResult.getLpiId());
+		internalModel.removeSearch(search);
+		Propagation propagation = internalModel.propagate(latestResult.getLpiId(), internalModel.getSearches());
+		MotionModelResult newResult = latestResult.copy(propagation.getDistributions());
+		newResult.setGeneratedTimestamp(System.currentTimeMillis());
+		return newResult;
+	}
+
+	/**
+	 * The probability a search detects the person is the mass its mask removes, after the earlier searches have removed theirs
+	 */
+	@Override
+	public double calculateProbabilityOfSuccess(UUID lostPersonId, Set<? extends LandsarSearch> searchesToInclude) {
+		return getInternalModel(lostPersonId).propagate(lostPersonId, searchesToInclude).getDetectedProbability();
+	}
+
+	private ExampleGridInternalModel getInternalModel(UUID lpiId) {
+		ExampleGridInternalModel internalModel = lpiData.get(lpiId);
+		if (internalModel == null) {
+			throw new IllegalStateException(this.name + ": no model for LPI " + lpiId);
+		}
+		return internalModel;
+	}
+
+	@Override
+	public void deleteModelState(List<UUID> lpisToDelete) {
+		// this is called when a user deletes an LPI
+		for (UUID id : lpisToDelete) {
+			lpiData.remove(id);
+		}
+	}
+
+	@Override
+	public void setMotionModelManager(MotionModelManager motionModelManager) {
+		this.motionModelManager = motionModelManager;
+	}
+
+	@Override
+	public void start() {
+		this.started = true;
+	}
+
+	@Override
+	public boolean isStarted() {
+		return started;
+	}
+
+	@Override
+	public void stop() {
+		// LandSAR system will shutdown - save Internal Model currently in memory to disk
+		ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
+		for (Entry<UUID, ExampleGridInternalModel> entry : lpiData.entrySet()) {
+			try {
+				File dataFile = motionModelManager.getOrCreateFileForModelData(entry.getKey(), this.getName(), INTERNAL_MODEL_FILENAME);
+				LOGGER.info("writing data to file: {}", dataFile);
+				mapper.writeValue(dataFile, entry.getValue());
+			} catch (IOException e) {
+				LOGGER.error("Error saving {} for LPI ID: {}", INTERNAL_MODEL_FILENAME, entry.getKey(), e);
+			}
+		}
+		this.started = false;
+	}
+
+	@Override
+	public void restoreModelState(UUID lostPersonId, Map<String, File> tagToDataFile) {
+		// LandSAR system restarted with saved LPIs - restore state my plugin expects to be in memory
+		LOGGER.info("Restoring state for LPI ID={}, file info={}", lostPersonId, tagToDataFile);
+		if (tagToDataFile.containsKey(INTERNAL_MODEL_FILENAME)) {
+			ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
+			try {
+				lpiData.put(lostPersonId, mapper.readValue(tagToDataFile.get(INTERNAL_MODEL_FILENAME), ExampleGridInternalModel.class));
+			} catch (IOException e) {
+				LOGGER.error("Error restoring internal model data for LPI {}", lostPersonId, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.motionmodel.example;
+
+import com.bbn.landsar.motionmodel.InternalModel;
+
+/**
+ * Maintain Internal-to-the-Motion-Model State for each Lost Person Instance of {@link ExampleMaritimeMotionModelPlugin}.
+ * The drifted particles are kept as the sample paths.
+ */
+public class ExampleMaritimeInternalModel extends InternalModel {
+	private double leewayFraction;
+	private double driftHours;
+
+	public ExampleMaritimeInternalModel() {
+		// Json constructor
+	}
+
+	ExampleMaritimeInternalModel(double leewayFraction, double driftHours) {
+		this.leewayFraction = leewayFraction;
+		this.driftHours = driftHours;
+	}
+
+	public double getLeewayFraction() {
+		return leewayFraction;
+	}
+
+	public void setLeewayFraction(double leewayFraction) {
+		this.leewayFraction = leewayFraction;
+	}
+
+	public double getDriftHours() {
+		return driftHours;
+	}
+
+	public void setDriftHours(double driftHours) {
+		this.driftHours = driftHours;
+	}
+}
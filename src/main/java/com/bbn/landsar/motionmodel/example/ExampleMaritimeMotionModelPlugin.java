@@ -0,0 +1,348 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.motionmodel.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bbn.landsar.geospatial.AreaData;
+import com.bbn.landsar.geospatial.BoundingBox;
+import com.bbn.landsar.motionmodel.DistOrMap;
+import com.bbn.landsar.motionmodel.DistributionBySamplePoints;
+import com.bbn.landsar.motionmodel.GeospatialInputDescriptions;
+import com.bbn.landsar.motionmodel.MaritimeMotionModelPlugin;
+import com.bbn.landsar.motionmodel.MotionModelAttributeDescription;
+import com.bbn.landsar.motionmodel.MotionModelInput;
+import com.bbn.landsar.motionmodel.MotionModelManager;
+import com.bbn.landsar.motionmodel.MotionModelResult;
+import com.bbn.landsar.motionmodel.ProbabilityDistribution;
+import com.bbn.landsar.motionmodel.RandomSeeder;
+import com.bbn.landsar.motionmodel.Unit;
+import com.bbn.landsar.motionmodel.UserEnteredGeospatialData;
+import com.bbn.landsar.motionmodel.maritime.DriftResult;
+import com.bbn.landsar.motionmodel.maritime.MaritimeDriftEngine;
+import com.bbn.landsar.motionmodel.path.Sample;
+import com.bbn.landsar.search.LandsarSearch;
+import com.bbn.landsar.search.SearchUtilities;
+import com.bbn.landsar.utils.StatusUpdateMessage;
+import com.bbn.landsar.utils.json.LandsarJsonModule;
+import com.bbn.roger.annotation.Plugin;
+import com.bbn.roger.config.AttributeDescription;
+import com.bbn.roger.plugin.PluginContext;
+import com.bbn.roger.plugin.exception.InsufficientConfigurationException;
+import com.bbn.roger.plugin.exception.RogerInstantiationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * This maritime motion model plugin drifts particles from the start distribution with the {@link MaritimeDriftEngine},
+ * using the currents and (when available) wind of the AreaData. The particles are kept as sample paths,
+ * so searches are evaluated the same way as in {@link ExampleMotionModelPluginWithSearchEval}.
+ */
+@Plugin
+public class ExampleMaritimeMotionModelPlugin implements MaritimeMotionModelPlugin {
+	private static final Logger LOGGER = LoggerFactory.getLogger(ExampleMaritimeMotionModelPlugin.class);
+
+	private static final Set<MotionModelAttributeDescription> PER_LPI_ATTRS = new HashSet<>();
+	private static final Set<GeospatialInputDescriptions> PER_LPI_GEOSPATIAL_ATTRS = new HashSet<>();
+
+	public static final String DRIFT_HOURS = "drift hours";
+	public static final String LEEWAY = "leeway";
+
+	/**
+	 * Downwind leeway of a person in the water is a few percent of the wind speed
+	 */
+	public static final double DEFAULT_LEEWAY = 0.03;
+
+	/**
+	 * Square meters per second, for the spreading that the current data is too coarse to resolve
+	 */
+	static final double DIFFUSIVITY = 10;
+
+	/**
+	 * Start points are repeated until there are at least this many particles
+	 */
+	static final int MIN_PARTICLES = 1000;
+
+	/**
+	 * Motion Model Manager provides access to utility methods
+	 */
+	private MotionModelManager motionModelManager;
+
+	private String name = ""; // name will be set by Motion Model Manager via setter
+
+	/**
+	 * Motion Model Manager has per-LPI locking, but my Motion Model Plugin may be called to create / update two different LPIs at once
+	 */
+	private Map<UUID, ExampleMaritimeInternalModel> lpiData = new ConcurrentHashMap<>();
+
+	final String INTERNAL_MODEL_FILENAME = "internal_model.json";
+
+	private boolean started;
+
+	static {
+		PER_LPI_ATTRS.add(new MotionModelAttributeDescription(DRIFT_HOURS,
+				"number of hours to drift from the start time", true, Double.class, Unit.NONE));
+		PER_LPI_ATTRS.add(new MotionModelAttributeDescription(LEEWAY,
+				"fraction of the wind speed the person drifts downwind (default " + DEFAULT_LEEWAY + ")", false, Double.class, Unit.NONE));
+	}
+
+	@Override
+	public void configure(Map<String, Object> configurationOptions, PluginContext context)
+			throws InsufficientConfigurationException {
+		// read in anything configured in the config.json file (deployment-time configuration)
+
+	}
+
+	@Override
+	public Set<AttributeDescription> getConfigurationAttributes() {
+		// if we used deployment-time configuration, we should document that here
+		return new HashSet<>();
+	}
+
+	@Override
+	public void initialize() throws RogerInstantiationException {
+		// No initialization for this plugin
+
+	}
+
+	@Override
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public Set<MotionModelAttributeDescription> getMotionModelParameters() {
+		return PER_LPI_ATTRS;
+	}
+
+	@Override
+	public Set<GeospatialInputDescriptions> getMotionModelGeospatialDescriptions() {
+		return PER_LPI_GEOSPATIAL_ATTRS;
+	}
+
+	@Override
+	public boolean validateMotionModelParameters(Map<String, Object> motionModelParameters, UserEnteredGeospatialData geospatialInputs, StatusUpdateMessage status) {
+		LOGGER.debug("Motion model parameters: {}", motionModelParameters);
+		for (MotionModelAttributeDescription attribute : PER_LPI_ATTRS) {
+			if (attribute.isRequired() && !motionModelParameters.containsKey(attribute.getName())) {
+				status.addError(this.getName() + ": Missing required attribute '" + attribute.getName()+"'", "Missing requiredAttribute: " + attribute);
+				// don't validate missing values
+				motionModelManager.sendStatusUpdateMessage(status);
+				return false;
+			}
+		}
+
+		Double driftHours = (Double) motionModelParameters.get(DRIFT_HOURS);
+		Double leeway = (Double) motionModelParameters.get(LEEWAY);
+
+		boolean anyErrors = false;
+		if (driftHours == null || driftHours <= 0.0) {
+			status.addError("invalid parameter", String.format("invalid value for '%s'. Value: %s", DRIFT_HOURS, driftHours));
+			anyErrors = true;
+		}
+		if (leeway != null && (leeway < 0.0 || leeway > 1.0)) {
+			status.addError("invalid parameter", String.format("invalid value for '%s'. Value: %s", LEEWAY, leeway));
+			anyErrors = true;
+		}
+
+		if (anyErrors) {
+			// send statusUpdateMessage with all validation errors if there are any
+			motionModelManager.sendStatusUpdateMessage(status);
+		}
+
+		return !anyErrors;
+	}
+
+	@Override
+	public MotionModelResult generateInitialDistribution(MotionModelInput motionModelInput) {
+		UUID lpiId = motionModelInput.getLpiId();
+		AreaData areaData = motionModelInput.getAreaData();
+		Map<String, Object> motionModelParameters = motionModelInput.getMotionModelParameters();
+		long startTime = motionModelInput.getStartTime();
+		List<LatLonGeo> startTimeDistribution = motionModelInput.getStartTimeDistribution();
+		StatusUpdateMessage status = motionModelInput.getStatus();
+		if (startTimeDistribution == null || startTimeDistribution.isEmpty()) {
+			// there is nothing to drift, and the particles are made by repeating the start points
+			status.addError(this.name + ": No start points to drift from");
+			motionModelManager.sendStatusUpdateMessage(status);
+			return null;
+		}
+
+		// already validated in validateMotionModelParameters method
+		double driftHours = (Double) motionModelParameters.get(DRIFT_HOURS);
+		Double leeway = (Double) motionModelParameters.get(LEEWAY);
+		double leewayFraction = leeway == null ? DEFAULT_LEEWAY : leeway;
+
+		ExampleMaritimeInternalModel modelForThisLPI = new ExampleMaritimeInternalModel(leewayFraction, driftHours);
+		lpiData.put(lpiId, modelForThisLPI);
+
+		if (areaData.getWindData() == null) {
+			status.addWarning(this.name + ": No wind data, drifting with the current only.");
+		}
+		MaritimeDriftEngine engine = new MaritimeDriftEngine(areaData.getCurrentData(), areaData.getWindData(), leewayFraction, DIFFUSIVITY,
+				MaritimeDriftEngine.Integrator.RK4, MaritimeDriftEngine.DEFAULT_STEP_MILLIS);
+		List<LatLonGeo> startPoints = new ArrayList<>();
+		while (startPoints.size() < MIN_PARTICLES) {
+			startPoints.addAll(startTimeDistribution);
+		}
+		DriftResult drift = engine.run(startPoints, startTime, (int) Math.ceil(driftHours), areaData.getBoundingBox(),
+				RandomSeeder.fromParameters(motionModelParameters, lpiId));
+		List<Sample> samplePaths = drift.toSamples();
+		modelForThisLPI.setSamples(samplePaths);
+
+		// create list of distributions to return, every hour
+		Map<Long, ProbabilityDistribution> distributions = new HashMap<>();
+		for (int hour = 0; hour <= drift.getNumHours(); hour++) {
+			long time = drift.getTime(hour);
+			distributions.put(time, motionModelManager.createProbabilityDistribution(lpiId, time, areaData.getBoundingBox(), drift.getPositions(hour)));
+		}
+
+		motionModelManager.sendInProgressUpdate(this.name + ": finished computing.", status);
+		// build the result object
+		MotionModelResult result = new MotionModelResult();
+		result.setLpiId(lpiId);
+		result.setInitialDistribution(distributions);
+		result.copyInitialDistToDistWithSearches();
+		result.setGeneratedTimestamp(System.currentTimeMillis());
+		result.setGeneratingModelName(this.getName());
+		return result;
+	}
+
+	@Override
+	public DistOrMap calcDistributionWithSearches(MotionModelResult result, long time) {
+		ExampleMaritimeInternalModel internalModel = this.lpiData.get(result.getLpiId());
+		// return a Distribution which is more precise than the ContainmentMap
+		return new DistOrMap(internalModel.updateDistributionWithSearches(Collections.singleton(time)).get(time));
+	}
+
+	@Override
+	public MotionModelResult updateProbabilityDistributionForSearch(MotionModelResult latestResult, LandsarSearch search,
+		SearchUtilities searchUtilities) {
+		ExampleMaritimeInternalModel internalModel = this.lpiData.get(latestResult.getLpiId());
+		List<Double> pathPds = searchUtilities
+			.getSampleProbabilityDistributions(internalModel.getSamplePaths(), search);
+		Map<Long, DistributionBySamplePoints> samplePointDist = internalModel.addSearch(latestResult, search, pathPds);
+		MotionModelResult newResult = latestResult.copy(convertToProbabilityDistMap(latestResult, samplePointDist));
+		newResult.setGeneratedTimestamp(System.currentTimeMillis());
+		return newResult;
+	}
+
+	@Override
+	public MotionModelResult cancelSearch(MotionModelResult latestResult, LandsarSearch search) {
+		ExampleMaritimeInternalModel internalModel = this.lpiData.get(latestResult.getLpiId());
+		Map<Long, DistributionBySamplePoints> samplePointDist = internalModel.removeSearch(latestResult, search);
+		MotionModelResult newResult = latestResult.copy(convertToProbabilityDistMap(latestResult, samplePointDist));
+		newResult.setGeneratedTimestamp(System.currentTimeMillis());
+		return newResult;
+	}
+
+	/**
+	 * for each time step, convert the model's representation of state (samplePointDist) to Motion Model SDK compliant ProbabilityDistribution
+	 */
+	private Map<Long, ProbabilityDistribution> convertToProbabilityDistMap(MotionModelResult latestResult,
+			Map<Long, DistributionBySamplePoints> samplePointDist) {
+		BoundingBox bbox = latestResult.getInitialDistribution().values().iterator().next().getBoundingBox();
+		Map<Long, ProbabilityDistribution> probDistMap = new HashMap<>();
+		for (Entry<Long, DistributionBySamplePoints> entry : samplePointDist.entrySet()) {
+			DistributionBySamplePoints pointDist = entry.getValue();
+			probDistMap.put(entry.getKey(), this.motionModelManager.createProbabilityDistribution(latestResult.getLpiId(), entry.getKey(),
+					bbox, pointDist.getPoints(), pointDist.getWeights()));
+		}
+		return probDistMap;
+	}
+
+	@Override
+	public double calculateProbabilityOfSuccess(UUID lostPersonId, Set<? extends LandsarSearch> searchesToInclude) {
+		ExampleMaritimeInternalModel internalModel = this.lpiData.get(lostPersonId);
+		return internalModel.calcCumulativePd(searchesToInclude);
+	}
+
+	@Override
+	public void deleteModelState(List<UUID> lpisToDelete) {
+		// this is called when a user deletes an LPI
+		for (UUID id : lpisToDelete) {
+			lpiData.remove(id);
+		}
+	}
+
+	@Override
+	public void setMotionModelManager(MotionModelManager motionModelManager) {
+		this.motionModelManager = motionModelManager;
+	}
+
+	@Override
+	public void start() {
+		this.started = true;
+	}
+
+	@Override
+	public boolean isStarted() {
+		return started;
+	}
+
+	@Override
+	public void stop() {
+		// LandSAR system will shutdown - save Internal Model currently in memory to disk
+		ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
+		for (Entry<UUID, ExampleMaritimeInternalModel> entry : lpiData.entrySet()) {
+			try {
+				File dataFile = motionModelManager.getOrCreateFileForModelData(entry.getKey(), this.getName(), INTERNAL_MODEL_FILENAME);
+				LOGGER.info("writing data to file: {}", dataFile);
+				mapper.writeValue(dataFile, entry.getValue());
+			} catch (IOException e) {
+				LOGGER.error("Error saving {} for LPI ID: {}", INTERNAL_MODEL_FILENAME, entry.getKey(), e);
+			}
+		}
+		this.started = false;
+	}
+
+	@Override
+	public void restoreModelState(UUID lostPersonId, Map<String, File> tagToDataFile) {
+		// LandSAR system restarted with saved LPIs - restore state my plugin expects to be in memory
+		LOGGER.info("Restoring state for LPI ID={}, file info={}", lostPersonId, tagToDataFile);
+		if (tagToDataFile.containsKey(INTERNAL_MODEL_FILENAME)) {
+			ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
+			try {
+				lpiData.put(lostPersonId, mapper.readValue(tagToDataFile.get(INTERNAL_MODEL_FILENAME), ExampleMaritimeInternalModel.class));
+			} catch (IOException e) {
+				LOGGER.error("Error restoring internal model data for LPI {}", lostPersonId, e);
+			}
+		}
+	}
+}
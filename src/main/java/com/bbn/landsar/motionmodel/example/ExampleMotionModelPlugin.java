@@ -50,8 +50,8 @@ import com.bbn.landsar.motionmodel.Unit;
 import com.bbn.landsar.motionmodel.UserEnteredGeospatialData;
 import com.bbn.landsar.search.LandsarSearch;
 import com.bbn.landsar.utils.DateTimeUtilities;
-import com.bbn.landsar.utils.GroundUtilities;
 import com.bbn.landsar.utils.StatusUpdateMessage;
+import com.bbn.landsar.utils.json.LandsarJsonModule;
 import com.bbn.roger.annotation.Plugin;
 import com.bbn.roger.config.AttributeDescription;
 import com.bbn.roger.plugin.PluginContext;
@@ -229,6 +229,7 @@ public class ExampleMotionModelPlugin implements LandMotionModelPlugin {
 		long startTime = input.getStartTime();
 		List<LatLonGeo> startTimeDistribution = input.getStartTimeDistribution();
 		AreaData areaData = input.getAreaData();
+		UserEnteredGeospatialData geospatialInputs = input.getGeospatialInputs();
 		StatusUpdateMessage status = input.getStatus();
 		
 		// get general parameter(s) provided to all motion models
@@ -280,8 +281,8 @@ public class ExampleMotionModelPlugin implements LandMotionModelPlugin {
 						.map(pt -> pt.displacedBy(1000 * speed * areaData.getLandcoverData().getSoaFactor(pt.getLatDeg(), pt.getLonDeg()), direction))
 						// Motion Models can't represent points outside the bounding box, so filter those out (a better model might find the nearest point inside the box and keep it)
 						.filter(pt -> areaData.getBoundingBox().contains(pt))
-						// for the new points, remove any that are in the exclusion zones
-						.filter(pt -> !GroundUtilities.exclusionZonesContainsPoint(input.getGeospatialInputs().getExclusionZones(), pt))
+						// for the new points, remove any that are in the exclusion zones (circular or polygonal; the check uses a spatial index)
+						.filter(pt -> !geospatialInputs.isInsideExclusionZone(pt))
 						// for the new points, remove any that are in water if stayOutOfWater 
 						.filter(pt -> {
 							if (stayOutOfWater) {
@@ -373,7 +374,7 @@ public class ExampleMotionModelPlugin implements LandMotionModelPlugin {
 	@Override
 	public void stop() {
 		// LandSAR system will shutdown - save Internal Model currently in memory to disk
-		ObjectMapper mapper = new ObjectMapper();
+		ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
 		for (Entry<UUID, InternalModel> entry : lpiData.entrySet()) {
 			try {
 				File dataFile = motionModelManager.getOrCreateFileForModelData(entry.getKey(), this.getName(), INTERNAL_MODEL_FILENAME);
@@ -392,7 +393,7 @@ public class ExampleMotionModelPlugin implements LandMotionModelPlugin {
 		// LandSAR system restarted with saved LPIs - restore state my plugin expects to be in memory 
 		
 		if (tagToDataFile.containsKey(INTERNAL_MODEL_FILENAME)) {
-			ObjectMapper mapper = new ObjectMapper();
+			ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
 			try {
 				lpiData.put(lostPersonId, mapper.readValue(tagToDataFile.get(INTERNAL_MODEL_FILENAME), InternalModel.class));
 			} catch (IOException e) {
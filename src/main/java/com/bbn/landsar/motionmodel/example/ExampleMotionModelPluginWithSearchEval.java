@@ -26,7 +26,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -42,6 +41,7 @@ import com.bbn.landsar.MovementSchedule;
 import com.bbn.landsar.geospatial.AreaData;
 import com.bbn.landsar.geospatial.BoundingBox;
 import com.bbn.landsar.geospatial.Direction;
+import com.bbn.landsar.geospatial.PointValidityMask;
 import com.bbn.landsar.motionmodel.DistOrMap;
 import com.bbn.landsar.motionmodel.DistributionBySamplePoints;
 import com.bbn.landsar.motionmodel.GeospatialInputDescriptions;
@@ -55,12 +55,13 @@ import com.bbn.landsar.motionmodel.ProbabilityDistribution;
 import com.bbn.landsar.motionmodel.Unit;
 import com.bbn.landsar.motionmodel.UserEnteredGeospatialData;
 import com.bbn.landsar.motionmodel.path.Path;
-import com.bbn.landsar.motionmodel.path.Sample;
 import com.bbn.landsar.motionmodel.path.SampleBuilder;
+import com.bbn.landsar.motionmodel.path.SampleSimulationEngine;
 import com.bbn.landsar.search.LandsarSearch;
 import com.bbn.landsar.search.SearchUtilities;
 import com.bbn.landsar.utils.DateTimeUtilities;
 import com.bbn.landsar.utils.StatusUpdateMessage;
+import com.bbn.landsar.utils.json.LandsarJsonModule;
 import com.bbn.roger.annotation.Plugin;
 import com.bbn.roger.config.AttributeDescription;
 import com.bbn.roger.plugin.PluginContext;
@@ -81,6 +82,11 @@ public class ExampleMotionModelPluginWithSearchEval implements LandMotionModelPl
 
 	// Traditionally, the Sample class has used a time-delta of 5 minutes as part of its internal representation a Sample Path as traversed over time.
 	public static final long TIME_DELTA = 60*DateTimeUtilities.millisecInMin;
+
+	/**
+	 * Number of samples behind the first (coarsest) result in progressive mode; each later batch is twice as large as the one before
+	 */
+	public static final int FIRST_BATCH_SIZE = 250;
 	
     private static final Set<MotionModelAttributeDescription> PER_LPI_ATTRS = new HashSet<>();
 	private static final Set<GeospatialInputDescriptions> PER_LPI_GEOSPATIAL_ATTRS = new HashSet<>();
@@ -259,50 +265,61 @@ public class ExampleMotionModelPluginWithSearchEval implements LandMotionModelPl
 		
 		// could change this in the future, so use a variable. It does need to evenly divide an hour, though. 
 		final long timeDelta = TIME_DELTA;
+		// every sample checks every new point against the same exclusion zones, bounding box and water, so rasterize those once
+		PointValidityMask validityMask = geospatialInputs.getPointValidityMask(areaData, stayOutOfWater);
 		List<SampleBuilder> samplePathsInProgress = startTimeDistribution.stream().map(point -> new SampleBuilder(startTime, timeDelta, point, directionOfMovement.getDirectionVector(), distanceKm, speed)).collect(Collectors.toList());
+		samplePathsInProgress.forEach(modelBuilder -> modelBuilder.setPointValidityMask(validityMask));
 		
-		List<Sample> samplePaths = new ArrayList<>();
 		// build up our internal model
-		long time = startTime;
-		while (!samplePathsInProgress.isEmpty()) {
-			// All motion models should create distributions for each hour, starting from the start time  
-			// "Sample" class uses 5-minute time resolution for internal model
-			time += timeDelta;
-			
-			for (SampleBuilder modelBuilder : samplePathsInProgress) {
-				modelBuilder.computeNextPoint(time, schedule, areaData, geospatialInputs, stayOutOfWater);
-			}
-
-			Iterator<SampleBuilder> modelIterator = samplePathsInProgress.iterator();
-			while (modelIterator.hasNext()) {
-				SampleBuilder modelBuilder = modelIterator.next();
-				if (modelBuilder.reachedLogicalEnd(time)) {
-					Sample sample = modelBuilder.build();
-					samplePaths.add(sample);
-					modelIterator.remove();
-				}
-			}			
+		// "Sample" class uses 5-minute time resolution for internal model; samples are independent, so each one is run to its end in parallel,
+		// jumping over the times the schedule has the person resting
+		SampleSimulationEngine engine = new SampleSimulationEngine();
+		if (Boolean.TRUE.equals(motionModelParameters.get(MotionModelConstants.PROGRESSIVE_RESULTS_PARAMETER))) {
+			// merge each batch into the model as it finishes, and send everything but the last batch as a coarse result
+			modelForThisLPI.setSamples(new ArrayList<>());
+			StatusUpdateMessage[] latestStatus = {status};
+			engine.runSkippingRestInBatches(samplePathsInProgress, schedule, areaData, geospatialInputs, stayOutOfWater, FIRST_BATCH_SIZE,
+					(batch, numFinished, numTotal) -> {
+						modelForThisLPI.addSamples(batch);
+						if (numFinished < numTotal) {
+							MotionModelResult intermediate = createResult(lpiId, startTime, areaData.getBoundingBox(), modelForThisLPI, false);
+							intermediate.setIntermediate(true);
+							latestStatus[0] = motionModelManager.sendIntermediateResult(intermediate,
+									String.format("%s: refining, %d of %d samples", this.name, numFinished, numTotal), latestStatus[0]);
+						}
+					});
+			status = latestStatus[0];
+		} else {
+			modelForThisLPI.setSamples(engine.runSkippingRest(samplePathsInProgress, schedule, areaData, geospatialInputs, stayOutOfWater));
 		}
 		// here, all of the sample paths have "reached a logical end"
-		modelForThisLPI.setSamples(samplePaths);
-		
+
+		motionModelManager.sendInProgressUpdate(this.name + ": finished computing.", status);
+		return createResult(lpiId, startTime, areaData.getBoundingBox(), modelForThisLPI, true);
+	}
+
+	/**
+	 * Builds a result from the samples currently in the model
+	 * @param includePaths - paths are optional, but if present, will be displayed in the UI
+	 */
+	private MotionModelResult createResult(UUID lpiId, long startTime, BoundingBox bbox, ExampleInternalModel model, boolean includePaths) {
 		// create list of distributions to return
 		Map<Long, ProbabilityDistribution> distributions = new HashMap<>();
 		
 		// add to time-based distribution (which will be shown to users as a KMZ), every hour
-		for (long timeAgain = startTime; timeAgain <= modelForThisLPI.endTime(); timeAgain += DateTimeUtilities.millisecInHour) {
-			distributions.put(timeAgain, motionModelManager.createProbabilityDistribution(lpiId, timeAgain, areaData.getBoundingBox(), modelForThisLPI.getLocationsAtTime(timeAgain)));
+		for (long timeAgain = startTime; timeAgain <= model.endTime(); timeAgain += DateTimeUtilities.millisecInHour) {
+			distributions.put(timeAgain, motionModelManager.createProbabilityDistribution(lpiId, timeAgain, bbox, model.getLocationsAtTime(timeAgain)));
 		}
 
-		motionModelManager.sendInProgressUpdate(this.name + ": finished computing.", status);
 		// build the result object
 		MotionModelResult result = new MotionModelResult();
-		result.setLpiId(motionModelInput.getLpiId());
+		result.setLpiId(lpiId);
 		result.setInitialDistribution(distributions);
 		result.copyInitialDistToDistWithSearches();
-		// paths are optional, but if present, will be displayed in the UI
-		List<Path> paths = samplePaths.stream().map(sample -> new Path(sample.getPoints())).collect(Collectors.toList());
-		result.setPaths(paths);
+		if (includePaths) {
+			List<Path> paths = model.getSamplePaths().stream().map(sample -> new Path(sample.getPoints())).collect(Collectors.toList());
+			result.setPaths(paths);
+		}
 		result.setGeneratedTimestamp(System.currentTimeMillis());
 		result.setGeneratingModelName(this.getName());
 		return result;	
@@ -404,7 +421,7 @@ public class ExampleMotionModelPluginWithSearchEval implements LandMotionModelPl
 	@Override
 	public void stop() {
 		// LandSAR system will shutdown - save Internal Model currently in memory to disk
-		ObjectMapper mapper = new ObjectMapper();
+		ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
 		for (Entry<UUID, ExampleInternalModel> entry : lpiData.entrySet()) {
 			try {
 				File dataFile = motionModelManager.getOrCreateFileForModelData(entry.getKey(), this.getName(), INTERNAL_MODEL_FILENAME);
@@ -423,7 +440,7 @@ public class ExampleMotionModelPluginWithSearchEval implements LandMotionModelPl
 		// LandSAR system restarted with saved LPIs - restore state my plugin expects to be in memory 
 		LOGGER.info("Restoring state for LPI ID={}, file info={}", lostPersonId, tagToDataFile);
 		if (tagToDataFile.containsKey(INTERNAL_MODEL_FILENAME)) {
-			ObjectMapper mapper = new ObjectMapper();
+			ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
 			try {
 				lpiData.put(lostPersonId, mapper.readValue(tagToDataFile.get(INTERNAL_MODEL_FILENAME), ExampleInternalModel.class));
 			} catch (IOException e) {
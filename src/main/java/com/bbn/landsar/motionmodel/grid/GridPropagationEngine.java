@@ -0,0 +1,469 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.motionmodel.grid;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bbn.landsar.MovementSchedule;
+import com.bbn.landsar.geospatial.AbstractLandCoverData;
+import com.bbn.landsar.geospatial.AreaData;
+import com.bbn.landsar.geospatial.BoundingBox;
+import com.bbn.landsar.geospatial.PointValidityMask;
+import com.bbn.landsar.motionmodel.ProbabilityDistribution;
+import com.bbn.landsar.search.LandsarSearch;
+import com.bbn.landsar.searchtheory.ContainmentMap;
+import com.bbn.landsar.utils.DateTimeUtilities;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Propagates probability mass directly on the {@link ProbabilityDistribution} grid of a bounding box, as an alternative to
+ * simulating thousands of sample paths when the lost person is expected to wander (diffuse) with an optional drift.
+ * <br>
+ * Each sub-step moves a fraction of every cell's mass to its four neighbors, using explicit upwind advection for the drift
+ * and a second difference for the diffusion. The rates out of a cell are scaled by the land cover speed of advance factor of that cell
+ * and by the fraction of the sub-step the {@link MovementSchedule} has the person moving, so mass lingers in slow terrain and at night.
+ * Cells that the {@link PointValidityMask} rejects (exclusion zones, and water when staying out of water) are absorbing:
+ * mass moved into them is removed and counted, as is mass that leaves the bounding box.
+ * <br>
+ * Searches are applied as a multiplicative (1 - pd) mask on the sub-step that contains their start time, and the removed mass is
+ * counted as detected. The grid has at most {@link ContainmentMap#MAX_NUM_CELLS} cells, so a day of hourly distributions
+ * takes milliseconds, and re-running the whole propagation when a search is added or cancelled is cheap.
+ * <br>
+ * Cell [0][0] is the northwest corner, as in ProbabilityDistribution. Instances are immutable and thread-safe.
+ */
+public class GridPropagationEngine {
+	private static final Logger LOGGER = LoggerFactory.getLogger(GridPropagationEngine.class);
+
+	/**
+	 * Largest fraction of a cell's mass that may leave it in one sub-step; explicit schemes are only stable (and non-negative) below 1
+	 */
+	static final double MAX_OUTFLOW_PER_STEP = 0.5;
+
+	private final BoundingBox bbox;
+	private final int numLat;
+	private final int numLon;
+	private final double latCellDeg;
+	private final double lonCellDeg;
+
+	private final double[] cellSoa;
+	private final boolean[] absorbing;
+
+	private final double driftEastMps;
+	private final double driftNorthMps;
+	private final double diffusivity;
+
+	private final int stepsPerHour;
+	private final long stepMillis;
+	// fraction of a moving, soa 1 cell's mass sent to each neighbor per sub-step
+	private final double outNorth;
+	private final double outSouth;
+	private final double outEast;
+	private final double outWest;
+
+	/**
+	 * @param bbox - area of the grid; the number of rows and columns are those of a ProbabilityDistribution over it
+	 * @param cellSoa - speed of advance factor of each cell, row major from the northwest corner
+	 * @param absorbing - whether each cell absorbs the mass moved into it, row major from the northwest corner
+	 * @param driftEastMps - east component of the drift, meters per second of movement
+	 * @param driftNorthMps - north component of the drift, meters per second of movement
+	 * @param diffusivity - square meters per second of movement
+	 */
+	public GridPropagationEngine(BoundingBox bbox, double[] cellSoa, boolean[] absorbing, double driftEastMps, double driftNorthMps, double diffusivity) {
+		int[] cellDimensions = ContainmentMap.determineNumLonAndNumLat(bbox);
+		this.bbox = bbox;
+		this.numLat = cellDimensions[0];
+		this.numLon = cellDimensions[1];
+		if (cellSoa.length != numLat * numLon || absorbing.length != numLat * numLon) {
+			throw new IllegalArgumentException("Expecting " + numLat + "x" + numLon + " cells but have " + cellSoa.length + " soa factors and "
+					+ absorbing.length + " absorbing flags");
+		}
+		if (diffusivity < 0 || Double.isNaN(diffusivity) || Double.isNaN(driftEastMps) || Double.isNaN(driftNorthMps)) {
+			throw new IllegalArgumentException("invalid drift (" + driftEastMps + ", " + driftNorthMps + ") or diffusivity " + diffusivity);
+		}
+		this.latCellDeg = (bbox.getNorthLatDeg() - bbox.getSouthLatDeg()) / numLat;
+		this.lonCellDeg = (bbox.getEastLonDeg() - bbox.getWestLonDeg()) / numLon;
+		this.cellSoa = cellSoa.clone();
+		this.absorbing = absorbing.clone();
+		this.driftEastMps = driftEastMps;
+		this.driftNorthMps = driftNorthMps;
+		this.diffusivity = diffusivity;
+
+		double rowMeters = latCellDeg * AreaData.metersPerLatDeg;
+		double colMeters = lonCellDeg * AreaData.metersPerLatDeg * Math.cos(Math.toRadians(bbox.calcCenter().getLatDeg()));
+		double rateNorth = diffusivity / (rowMeters * rowMeters) + Math.max(driftNorthMps, 0) / rowMeters;
+		double rateSouth = diffusivity / (rowMeters * rowMeters) + Math.max(-driftNorthMps, 0) / rowMeters;
+		double rateEast = diffusivity / (colMeters * colMeters) + Math.max(driftEastMps, 0) / colMeters;
+		double rateWest = diffusivity / (colMeters * colMeters) + Math.max(-driftEastMps, 0) / colMeters;
+
+		double maxSoa = 0;
+		for (int c = 0; c < cellSoa.length; c++) {
+			if (!absorbing[c]) {
+				maxSoa = Math.max(maxSoa, cellSoa[c]);
+			}
+		}
+		double hourSeconds = DateTimeUtilities.millisecInHour / 1000.0;
+		this.stepsPerHour = stepsPerHour(hourSeconds * maxSoa * (rateNorth + rateSouth + rateEast + rateWest) / MAX_OUTFLOW_PER_STEP);
+		this.stepMillis = DateTimeUtilities.millisecInHour / stepsPerHour;
+		double stepSeconds = stepMillis / 1000.0;
+		this.outNorth = rateNorth * stepSeconds;
+		this.outSouth = rateSouth * stepSeconds;
+		this.outEast = rateEast * stepSeconds;
+		this.outWest = rateWest * stepSeconds;
+		LOGGER.debug("{}x{} grid propagation with {} sub-steps per hour", numLat, numLon, stepsPerHour);
+	}
+
+	/**
+	 * @return the smallest number of sub-steps, at least the one required, that divides an hour into whole milliseconds
+	 */
+	private static int stepsPerHour(double required) {
+		if (!(required < DateTimeUtilities.millisecInHour)) {
+			throw new IllegalArgumentException("drift or diffusivity is too large for the grid: needs " + required + " sub-steps per hour");
+		}
+		int steps = Math.max(1, (int) Math.ceil(required));
+		while (DateTimeUtilities.millisecInHour % steps != 0) {
+			steps++;
+		}
+		return steps;
+	}
+
+	/**
+	 * Samples the speed of advance factor and validity at the center of every cell of the ProbabilityDistribution grid over the
+	 * bounding box of areaData
+	 * @param validityMask - cells whose centers are not valid are absorbing; may be null when no cells are
+	 */
+	public static GridPropagationEngine forAreaData(AreaData areaData, PointValidityMask validityMask,
+			double driftEastMps, double driftNorthMps, double diffusivity) {
+		BoundingBox bbox = areaData.getBoundingBox();
+		int[] cellDimensions = ContainmentMap.determineNumLonAndNumLat(bbox);
+		int numLat = cellDimensions[0];
+		int numLon = cellDimensions[1];
+		double latCellDeg = (bbox.getNorthLatDeg() - bbox.getSouthLatDeg()) / numLat;
+		double lonCellDeg = (bbox.getEastLonDeg() - bbox.getWestLonDeg()) / numLon;
+		AbstractLandCoverData landcover = areaData.getLandcoverData();
+
+		double[] cellSoa = new double[numLat * numLon];
+		boolean[] absorbing = new boolean[numLat * numLon];
+		for (int i = 0; i < numLat; i++) {
+			double lat = bbox.getNorthLatDeg() - (i + 0.5) * latCellDeg;
+			for (int j = 0; j < numLon; j++) {
+				double lon = bbox.getWestLonDeg() + (j + 0.5) * lonCellDeg;
+				int c = i * numLon + j;
+				// land cover is optional for land motion models; without it, every cell moves at the base speed
+				cellSoa[c] = landcover == null ? 1.0 : landcover.getSoaFactor(lat, lon);
+				absorbing[c] = validityMask != null && !validityMask.isValid(lat, lon);
+			}
+		}
+		return new GridPropagationEngine(bbox, cellSoa, absorbing, driftEastMps, driftNorthMps, diffusivity);
+	}
+
+	/**
+	 * @return the state for equally weighted points: each point adds 1 / points.size() to its cell. Points outside the
+	 * bounding box or in absorbing cells are dropped, so the total is less than 1 when there are any.
+	 */
+	public double[] rasterize(List<LatLonGeo> points) {
+		double[] state = new double[numLat * numLon];
+		if (points.isEmpty()) {
+			return state;
+		}
+		double weight = 1.0 / points.size();
+		for (LatLonGeo point : points) {
+			int c = cellIndex(point);
+			if (c >= 0 && !absorbing[c]) {
+				state[c] += weight;
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * @return row major index of the cell containing point, or -1 if it is outside the bounding box
+	 */
+	int cellIndex(LatLonGeo point) {
+		if (point == null || !bbox.contains(point)) {
+			return -1;
+		}
+		int i = Math.min(numLat - 1, Math.max(0, (int) ((bbox.getNorthLatDeg() - point.getLatDeg()) / latCellDeg)));
+		int j = Math.min(numLon - 1, Math.max(0, (int) ((point.getLonDeg() - bbox.getWestLonDeg()) / lonCellDeg)));
+		return i * numLon + j;
+	}
+
+	/**
+	 * @return fraction of each sub-step, for numHours from startTime, that the schedule has the person moving
+	 */
+	public double[] movingFractions(MovementSchedule schedule, long startTime, int numHours) {
+		long[] movingMillis = new long[numHours * stepsPerHour];
+		schedule.timeSpentMoving(startTime, stepMillis, movingMillis);
+		double[] fractions = new double[movingMillis.length];
+		for (int k = 0; k < fractions.length; k++) {
+			fractions[k] = movingMillis[k] / (double) stepMillis;
+		}
+		return fractions;
+	}
+
+	public SearchMask searchMask(LandsarSearch search) {
+		return searchMask(search.getTime(), search::getPointPd);
+	}
+
+	/**
+	 * Evaluates the probability of detection once at the center of every cell
+	 * @param time - when the mask is applied; masks before the start of a propagation are applied on its first sub-step
+	 */
+	public SearchMask searchMask(long time, ToDoubleFunction<LatLonGeo> pointPd) {
+		double[] survival = new double[numLat * numLon];
+		for (int i = 0; i < numLat; i++) {
+			double lat = bbox.getNorthLatDeg() - (i + 0.5) * latCellDeg;
+			for (int j = 0; j < numLon; j++) {
+				double pd = pointPd.applyAsDouble(LatLonGeo.fromDeg(lat, bbox.getWestLonDeg() + (j + 0.5) * lonCellDeg));
+				survival[i * numLon + j] = 1 - Math.max(0, Math.min(1, pd));
+			}
+		}
+		return new SearchMask(time, survival);
+	}
+
+	/**
+	 * Propagates initialState for movingFractions.length / {@link #getStepsPerHour()} hours
+	 * @param initialState - mass in each cell at startTime, as from {@link #rasterize(List)}; not modified
+	 * @param movingFractions - as from {@link #movingFractions(MovementSchedule, long, int)}
+	 * @param searches - applied on the sub-step containing their time; searches after the last sub-step are ignored
+	 * @return hourly distributions from startTime, with the mass removed along the way
+	 */
+	public Propagation propagate(UUID lpiId, double[] initialState, long startTime, double[] movingFractions, Collection<SearchMask> searches) {
+		if (initialState.length != numLat * numLon) {
+			throw new IllegalArgumentException("Expecting " + numLat * numLon + " cells but have " + initialState.length);
+		}
+		if (movingFractions.length % stepsPerHour != 0) {
+			throw new IllegalArgumentException("movingFractions must cover whole hours of " + stepsPerHour + " sub-steps, but has " + movingFractions.length);
+		}
+		long start = System.currentTimeMillis();
+		List<SearchMask> pending = new ArrayList<>(searches);
+		Collections.sort(pending, Comparator.comparingLong(SearchMask::getTime));
+		int nextSearch = 0;
+
+		double[] state = initialState.clone();
+		double[] next = new double[state.length];
+		// removed[0] is absorbed, removed[1] left the bounding box
+		double[] removed = new double[2];
+		double detected = 0;
+		Map<Long, ProbabilityDistribution> distributions = new HashMap<>();
+		distributions.put(startTime, toDistribution(lpiId, startTime, state));
+
+		for (int k = 0; k < movingFractions.length; k++) {
+			long stepEnd = startTime + (k + 1) * stepMillis;
+			// a search planned at a time sees the distribution at that time, so masks are applied after the hourly snapshot
+			while (nextSearch < pending.size() && pending.get(nextSearch).getTime() < stepEnd) {
+				detected += pending.get(nextSearch++).apply(state);
+			}
+			if (movingFractions[k] > 0) {
+				step(state, next, movingFractions[k], removed);
+				double[] swap = state;
+				state = next;
+				next = swap;
+			}
+			if ((k + 1) % stepsPerHour == 0) {
+				distributions.put(stepEnd, toDistribution(lpiId, stepEnd, state));
+			}
+		}
+		LOGGER.debug("Propagated {} hours on a {}x{} grid in {} ms", movingFractions.length / stepsPerHour, numLat, numLon,
+				System.currentTimeMillis() - start);
+		return new Propagation(distributions, detected, removed[0], removed[1]);
+	}
+
+	/**
+	 * Moves mass from state into next, which is overwritten
+	 */
+	private void step(double[] state, double[] next, double movingFraction, double[] removed) {
+		Arrays.fill(next, 0);
+		for (int i = 0; i < numLat; i++) {
+			for (int j = 0; j < numLon; j++) {
+				int c = i * numLon + j;
+				double mass = state[c];
+				if (mass == 0) {
+					continue;
+				}
+				double mobility = mass * movingFraction * cellSoa[c];
+				if (mobility == 0) {
+					next[c] += mass;
+					continue;
+				}
+				double north = mobility * outNorth;
+				double south = mobility * outSouth;
+				double east = mobility * outEast;
+				double west = mobility * outWest;
+				next[c] += mass - (north + south + east + west);
+				deliver(next, i - 1, j, north, removed);
+				deliver(next, i + 1, j, south, removed);
+				deliver(next, i, j + 1, east, removed);
+				deliver(next, i, j - 1, west, removed);
+			}
+		}
+	}
+
+	private void deliver(double[] next, int i, int j, double mass, double[] removed) {
+		if (i < 0 || i >= numLat || j < 0 || j >= numLon) {
+			removed[1] += mass;
+			return;
+		}
+		int c = i * numLon + j;
+		if (absorbing[c]) {
+			removed[0] += mass;
+		} else {
+			next[c] += mass;
+		}
+	}
+
+	private ProbabilityDistribution toDistribution(UUID lpiId, long time, double[] state) {
+		double[][] cellProbs = new double[numLat][numLon];
+		for (int i = 0; i < numLat; i++) {
+			System.arraycopy(state, i * numLon, cellProbs[i], 0, numLon);
+		}
+		return new ProbabilityDistribution(lpiId, time, cellProbs, bbox);
+	}
+
+	public BoundingBox getBoundingBox() {
+		return bbox;
+	}
+
+	public int getNumLat() {
+		return numLat;
+	}
+
+	public int getNumLon() {
+		return numLon;
+	}
+
+	public int getStepsPerHour() {
+		return stepsPerHour;
+	}
+
+	public long getStepMillis() {
+		return stepMillis;
+	}
+
+	/**
+	 * @return a copy of the speed of advance factor of each cell, row major from the northwest corner
+	 */
+	public double[] getCellSoa() {
+		return cellSoa.clone();
+	}
+
+	/**
+	 * @return a copy of whether each cell is absorbing, row major from the northwest corner
+	 */
+	public boolean[] getAbsorbing() {
+		return absorbing.clone();
+	}
+
+	public double getDriftEastMps() {
+		return driftEastMps;
+	}
+
+	public double getDriftNorthMps() {
+		return driftNorthMps;
+	}
+
+	public double getDiffusivity() {
+		return diffusivity;
+	}
+
+	/**
+	 * Probability that a search does not detect the person, for each cell
+	 */
+	public static class SearchMask {
+		private final long time;
+		private final double[] survival;
+
+		SearchMask(long time, double[] survival) {
+			this.time = time;
+			this.survival = survival;
+		}
+
+		public long getTime() {
+			return time;
+		}
+
+		/**
+		 * Multiplies state by the mask
+		 * @return the mass removed, i.e. detected
+		 */
+		double apply(double[] state) {
+			double detected = 0;
+			for (int c = 0; c < state.length; c++) {
+				double remaining = state[c] * survival[c];
+				detected += state[c] - remaining;
+				state[c] = remaining;
+			}
+			return detected;
+		}
+	}
+
+	/**
+	 * Result of {@link GridPropagationEngine#propagate}: the hourly distributions and where the missing mass went
+	 */
+	public static class Propagation {
+		private final Map<Long, ProbabilityDistribution> distributions;
+		private final double detectedProbability;
+		private final double absorbedProbability;
+		private final double exitedProbability;
+
+		Propagation(Map<Long, ProbabilityDistribution> distributions, double detectedProbability, double absorbedProbability, double exitedProbability) {
+			this.distributions = distributions;
+			this.detectedProbability = detectedProbability;
+			this.absorbedProbability = absorbedProbability;
+			this.exitedProbability = exitedProbability;
+		}
+
+		public Map<Long, ProbabilityDistribution> getDistributions() {
+			return distributions;
+		}
+
+		/**
+		 * @return mass removed by the search masks
+		 */
+		public double getDetectedProbability() {
+			return detectedProbability;
+		}
+
+		/**
+		 * @return mass moved into absorbing cells
+		 */
+		public double getAbsorbedProbability() {
+			return absorbedProbability;
+		}
+
+		/**
+		 * @return mass moved out of the bounding box
+		 */
+		public double getExitedProbability() {
+			return exitedProbability;
+		}
+	}
+}
@@ -0,0 +1,111 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.motionmodel.maritime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.bbn.landsar.motionmodel.path.Sample;
+import com.bbn.landsar.utils.DateTimeUtilities;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Hourly particle positions from {@link MaritimeDriftEngine#run}, hour 0 being the start time
+ */
+public class DriftResult {
+	private final long startTime;
+	// [hour][particle]
+	private final double[][] lat;
+	private final double[][] lon;
+	private final boolean[][] stopped;
+
+	DriftResult(long startTime, int numHours, int numParticles) {
+		this.startTime = startTime;
+		this.lat = new double[numHours + 1][numParticles];
+		this.lon = new double[numHours + 1][numParticles];
+		this.stopped = new boolean[numHours + 1][numParticles];
+	}
+
+	void record(int hour, MaritimeDriftEngine.ParticleState state) {
+		System.arraycopy(state.lat, 0, lat[hour], 0, state.lat.length);
+		System.arraycopy(state.lon, 0, lon[hour], 0, state.lon.length);
+		System.arraycopy(state.stopped, 0, stopped[hour], 0, state.stopped.length);
+	}
+
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * @return number of hours drifted; there are positions for hours 0 through getNumHours()
+	 */
+	public int getNumHours() {
+		return lat.length - 1;
+	}
+
+	public int getNumParticles() {
+		return lat[0].length;
+	}
+
+	public long getTime(int hour) {
+		return startTime + hour * DateTimeUtilities.millisecInHour;
+	}
+
+	public double getLatDeg(int hour, int particle) {
+		return lat[hour][particle];
+	}
+
+	public double getLonDeg(int hour, int particle) {
+		return lon[hour][particle];
+	}
+
+	/**
+	 * @return true if the particle had stopped at the edge of the bounding box or of the current data by this hour
+	 */
+	public boolean isStopped(int hour, int particle) {
+		return stopped[hour][particle];
+	}
+
+	public List<LatLonGeo> getPositions(int hour) {
+		List<LatLonGeo> positions = new ArrayList<>(getNumParticles());
+		for (int p = 0; p < getNumParticles(); p++) {
+			positions.add(LatLonGeo.fromDeg(lat[hour][p], lon[hour][p]));
+		}
+		return positions;
+	}
+
+	/**
+	 * @return one hourly Sample per particle, e.g. for {@link com.bbn.landsar.motionmodel.InternalModel#setSamples(List)}
+	 */
+	public List<Sample> toSamples() {
+		List<Sample> samples = new ArrayList<>(getNumParticles());
+		for (int p = 0; p < getNumParticles(); p++) {
+			List<LatLonGeo> points = new ArrayList<>(lat.length);
+			for (int hour = 0; hour < lat.length; hour++) {
+				points.add(LatLonGeo.fromDeg(lat[hour][p], lon[hour][p]));
+			}
+			Sample sample = new Sample(startTime, DateTimeUtilities.millisecInHour, points, new ArrayList<Double>());
+			// stopped particles repeat the same point
+			sample.compactStationaryRuns();
+			samples.add(sample);
+		}
+		return samples;
+	}
+}
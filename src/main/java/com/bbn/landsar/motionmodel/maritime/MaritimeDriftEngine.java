@@ -0,0 +1,256 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.motionmodel.maritime;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bbn.landsar.geospatial.AbstractTimeBasedVectorData;
+import com.bbn.landsar.geospatial.AreaData;
+import com.bbn.landsar.geospatial.BoundingBox;
+import com.bbn.landsar.geospatial.VectorDataSlices;
+import com.bbn.landsar.geospatial.WindData;
+import com.bbn.landsar.motionmodel.RandomSeeder;
+import com.bbn.landsar.utils.DateTimeUtilities;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Reference drift engine for maritime motion models: advects particles with the surface current plus a leeway fraction
+ * of the wind, optionally adding a random walk for the unresolved turbulence.
+ * <br>
+ * Particle positions are kept as parallel primitive arrays rather than as LatLonGeo objects, and each step is integrated with
+ * midpoint (RK2) or classic Runge-Kutta (RK4). The time slices around the (up to three) stage times of a step are looked up once per step
+ * with {@link VectorDataSlices} and shared by all particles, and the point interpolation of currents and
+ * {@link WindData#getWind(double, double, double[])} write into per-chunk scratch arrays, so the inner loop does not allocate.
+ * Chunks of particles are stepped in parallel; each particle draws from its own {@link RandomSeeder} stream, so results do not depend on
+ * the number of threads.
+ * <br>
+ * A particle that would leave the bounding box, or that reaches a point without current data (such as land), stops at its last
+ * position, where it remains for the rest of the run.
+ */
+public class MaritimeDriftEngine {
+	private static final Logger LOGGER = LoggerFactory.getLogger(MaritimeDriftEngine.class);
+
+	public static final long DEFAULT_STEP_MILLIS = 10 * DateTimeUtilities.millisecInMin;
+
+	static final int CHUNK_SIZE = 256;
+
+	public enum Integrator {
+		RK2, RK4
+	}
+
+	private final AbstractTimeBasedVectorData currents;
+	private final WindData wind;
+	private final double leewayFraction;
+	private final double diffusivity;
+	private final Integrator integrator;
+	private final long stepMillis;
+
+	/**
+	 * @param currents - surface currents
+	 * @param wind - surface wind, or null to drift with the current only
+	 * @param leewayFraction - fraction of the wind speed the drifting object moves downwind, e.g. about 0.01 to 0.04 for a person in the water
+	 * @param diffusivity - square meters per second of random walk added to every particle; 0 for none
+	 * @param stepMillis - integration step, which must divide an hour
+	 */
+	public MaritimeDriftEngine(AbstractTimeBasedVectorData currents, WindData wind, double leewayFraction, double diffusivity,
+			Integrator integrator, long stepMillis) {
+		if (currents == null) {
+			throw new IllegalArgumentException("currents are required");
+		}
+		if (stepMillis <= 0 || DateTimeUtilities.millisecInHour % stepMillis != 0) {
+			throw new IllegalArgumentException("stepMillis must divide an hour: " + stepMillis);
+		}
+		if (leewayFraction < 0 || diffusivity < 0) {
+			throw new IllegalArgumentException("invalid leewayFraction " + leewayFraction + " or diffusivity " + diffusivity);
+		}
+		this.currents = currents;
+		this.wind = wind;
+		this.leewayFraction = leewayFraction;
+		this.diffusivity = diffusivity;
+		this.integrator = integrator;
+		this.stepMillis = stepMillis;
+	}
+
+	/**
+	 * Drifts one particle per start point for numHours from startTime
+	 * @param seeder - random streams for the random walk; may be null when diffusivity is 0
+	 */
+	public DriftResult run(List<LatLonGeo> startPoints, long startTime, int numHours, BoundingBox bbox, RandomSeeder seeder) {
+		if (diffusivity > 0 && seeder == null) {
+			throw new IllegalArgumentException("a RandomSeeder is required for a random walk");
+		}
+		long start = System.currentTimeMillis();
+		int numParticles = startPoints.size();
+		ParticleState state = new ParticleState(numParticles, bbox);
+		for (int p = 0; p < numParticles; p++) {
+			state.lat[p] = startPoints.get(p).getLatDeg();
+			state.lon[p] = startPoints.get(p).getLonDeg();
+			state.stopped[p] = !state.inside(state.lat[p], state.lon[p]);
+		}
+		SplittableRandom[] randoms = new SplittableRandom[diffusivity > 0 ? numParticles : 0];
+		for (int p = 0; p < randoms.length; p++) {
+			randoms[p] = seeder.forSample(p);
+		}
+
+		DriftResult result = new DriftResult(startTime, numHours, numParticles);
+		result.record(0, state);
+		VectorDataSlices slices = new VectorDataSlices(currents);
+		int stepsPerHour = (int) (DateTimeUtilities.millisecInHour / stepMillis);
+		double dt = stepMillis / 1000.0;
+		int numChunks = (numParticles + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		for (int hour = 0; hour < numHours; hour++) {
+			for (int s = 0; s < stepsPerHour; s++) {
+				long time = startTime + hour * DateTimeUtilities.millisecInHour + s * stepMillis;
+				// every particle of the step uses the same slices, so look them up once
+				VectorDataSlices.Bracket atStart = slices.bracket(time);
+				VectorDataSlices.Bracket atMiddle = slices.bracket(time + stepMillis / 2);
+				VectorDataSlices.Bracket atEnd = integrator == Integrator.RK4 ? slices.bracket(time + stepMillis) : null;
+				IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+					double[] scratch = new double[2];
+					int end = Math.min(numParticles, (chunk + 1) * CHUNK_SIZE);
+					for (int p = chunk * CHUNK_SIZE; p < end; p++) {
+						if (!state.stopped[p]) {
+							step(state, p, dt, atStart, atMiddle, atEnd, randoms.length == 0 ? null : randoms[p], scratch);
+						}
+					}
+				});
+			}
+			result.record(hour + 1, state);
+		}
+		LOGGER.debug("Drifted {} particles for {} hours with {} in {} ms", numParticles, numHours, integrator, System.currentTimeMillis() - start);
+		return result;
+	}
+
+	private void step(ParticleState state, int p, double dt, VectorDataSlices.Bracket atStart, VectorDataSlices.Bracket atMiddle,
+			VectorDataSlices.Bracket atEnd, SplittableRandom random, double[] scratch) {
+		double lat = state.lat[p];
+		double lon = state.lon[p];
+		double newLat;
+		double newLon;
+		// rates are in degrees per second
+		if (!rate(atStart, lat, lon, scratch)) {
+			state.stopped[p] = true;
+			return;
+		}
+		double k1Lat = scratch[0];
+		double k1Lon = scratch[1];
+		if (!rate(atMiddle, lat + k1Lat * dt / 2, lon + k1Lon * dt / 2, scratch)) {
+			state.stopped[p] = true;
+			return;
+		}
+		double k2Lat = scratch[0];
+		double k2Lon = scratch[1];
+		if (integrator == Integrator.RK2) {
+			newLat = lat + k2Lat * dt;
+			newLon = lon + k2Lon * dt;
+		} else {
+			if (!rate(atMiddle, lat + k2Lat * dt / 2, lon + k2Lon * dt / 2, scratch)) {
+				state.stopped[p] = true;
+				return;
+			}
+			double k3Lat = scratch[0];
+			double k3Lon = scratch[1];
+			if (!rate(atEnd, lat + k3Lat * dt, lon + k3Lon * dt, scratch)) {
+				state.stopped[p] = true;
+				return;
+			}
+			newLat = lat + dt / 6 * (k1Lat + 2 * k2Lat + 2 * k3Lat + scratch[0]);
+			newLon = lon + dt / 6 * (k1Lon + 2 * k2Lon + 2 * k3Lon + scratch[1]);
+		}
+		if (random != null) {
+			// Box-Muller: two independent standard normals from two uniforms
+			double radius = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.sqrt(2 * diffusivity * dt);
+			double angle = 2 * Math.PI * random.nextDouble();
+			newLat += radius * Math.sin(angle) / AreaData.metersPerLatDeg;
+			newLon += radius * Math.cos(angle) / metersPerLonDeg(newLat);
+		}
+		if (state.inside(newLat, newLon)) {
+			state.lat[p] = newLat;
+			state.lon[p] = newLon;
+		} else {
+			state.stopped[p] = true;
+		}
+	}
+
+	/**
+	 * Writes the drift in degrees of latitude per second into out[0] and degrees of longitude per second into out[1]
+	 * @return false where there is no data, e.g. currents over land are unknown (NaN)
+	 */
+	private boolean rate(VectorDataSlices.Bracket bracket, double lat, double lon, double[] out) {
+		bracket.interpolate(lat, lon, out);
+		double east = out[0];
+		double north = out[1];
+		if (wind != null && leewayFraction > 0) {
+			wind.getWind(lat, lon, out);
+			east += leewayFraction * out[0];
+			north += leewayFraction * out[1];
+		}
+		out[0] = north / AreaData.metersPerLatDeg;
+		out[1] = east / metersPerLonDeg(lat);
+		return !Double.isNaN(out[0]) && !Double.isNaN(out[1]);
+	}
+
+	private static double metersPerLonDeg(double latDeg) {
+		return AreaData.metersPerLatDeg * Math.cos(Math.toRadians(latDeg));
+	}
+
+	public Integrator getIntegrator() {
+		return integrator;
+	}
+
+	public long getStepMillis() {
+		return stepMillis;
+	}
+
+	/**
+	 * Particle positions as parallel arrays; particle p is only written by the thread stepping its chunk
+	 */
+	static class ParticleState {
+		final double[] lat;
+		final double[] lon;
+		final boolean[] stopped;
+		private final double south;
+		private final double north;
+		private final double west;
+		private final double east;
+
+		ParticleState(int numParticles, BoundingBox bbox) {
+			this.lat = new double[numParticles];
+			this.lon = new double[numParticles];
+			this.stopped = new boolean[numParticles];
+			this.south = bbox.getSouthLatDeg();
+			this.north = bbox.getNorthLatDeg();
+			this.west = bbox.getWestLonDeg();
+			this.east = bbox.getEastLonDeg();
+		}
+
+		/**
+		 * Same test as BoundingBox.contains, without allocating a LatLonGeo; false for NaN
+		 */
+		boolean inside(double latDeg, double lonDeg) {
+			return latDeg >= south && latDeg <= north && lonDeg >= west && lonDeg <= east;
+		}
+	}
+}
@@ -47,5 +47,12 @@ public abstract class AbstractPathProfile {
 	
 	abstract public double getTotalVariation(AreaData areaData); // generatePath
 	
+	/**
+	 * Terrain slope in degrees at each intermediate point, read from the elevation data's cached slope grid
+	 */
+	public double[] getSlopeProfile(AreaData areaData) {
+		return areaData.getElevationData().getSlopeProfile(getIntermediatePoints());
+	}
+	
 	abstract public void clearStorage();
 }
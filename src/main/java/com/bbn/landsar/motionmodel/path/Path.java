@@ -30,7 +30,9 @@ import com.bbn.landsar.geospatial.GeographicDrawable;
 import com.bbn.landsar.geospatial.GeographicGeometry;
 import com.bbn.landsar.geospatial.GeographicPolyPoints;
 import com.bbn.landsar.utils.LandsarUtils;
+import com.bbn.landsar.utils.PointCodec;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.metsci.glimpse.util.geo.LatLonGeo;
 
@@ -83,6 +85,10 @@ public class Path implements GeographicDrawable {
 		return drawables;
 	}
 
+	/**
+	 * Readable CSV form of the points, which every SDK version reads. Mappers from LandsarJsonModule.newObjectMapper()
+	 * write {@link #getPathEncoded()} in its place.
+	 */
 	public String getPathString() {
 	    return LandsarUtils.getStringForPts(anchorPoints);
 	}
@@ -91,6 +97,20 @@ public class Path implements GeographicDrawable {
 	    anchorPoints = LandsarUtils.stringToPts(pathString);
 	}
 
+	/**
+	 * Base64 of the points in the compact binary form of {@link PointCodec}. Only written in place of pathString by mappers
+	 * that ask for compact formats, but always read; see {@link Sample#getPtsEncoded()}.
+	 */
+	@JsonIgnore
+	public String getPathEncoded() {
+	    return PointCodec.encodeToBase64(anchorPoints);
+	}
+
+	@JsonProperty("pathEncoded")
+	public void setPathEncoded(String pathEncoded) {
+	    anchorPoints = PointCodec.decodeBase64(pathEncoded);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -19,8 +19,6 @@ https://github.com/atapas/add-copyright.git
 
 package com.bbn.landsar.motionmodel.path;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -31,47 +29,51 @@ import com.metsci.glimpse.util.geo.LatLonGeo;
 public class PathBuilder {
 	private static final Logger LOGGER = LoggerFactory.getLogger(PathBuilder.class);
 			
-	protected List<LatLonGeo> anchorPoints= new ArrayList<>();
-	protected double lengthInMeters = Double.NaN;
+	// keeps the path length up to date as points are added and removed
+	private final PointSequence points;
+
+	/**
+	 * Live, modifiable view of the points, for subclasses. Changes made through it keep the path length up to date.
+	 * Since the view is final, subclasses can no longer assign a list of their own, and the former lengthInMeters field
+	 * is now {@link #getLengthInMeters()}.
+	 */
+	protected final List<LatLonGeo> anchorPoints;
 
 	private boolean done = false;
 	
 
     public PathBuilder(LatLonGeo[] points) {
-		this.anchorPoints = Arrays.asList(points);
+		this(new PointSequence(points));
 	}
 
 	public PathBuilder() {
-		lengthInMeters = 0;
+		this(new PointSequence());
 	}
 
 	public PathBuilder(LatLonGeo point) {
-		this.anchorPoints = new ArrayList<>();
-		this.anchorPoints.add(point);
+		this(new PointSequence());
+		this.points.append(point);
+	}
+
+	private PathBuilder(PointSequence points) {
+		this.points = points;
+		this.anchorPoints = points.asList();
 	}
 
 	public void appendPoint(LatLonGeo point) {
     	if (point == null) {
     		LOGGER.warn("Not appending null point to path");
     	}else {	
-    		anchorPoints.add(point);
-    		// recalculate path length if/when we need it
-    		this.lengthInMeters = Double.NaN;
+    		points.append(point);
     	}
     }
     
     public void appendPath(PathBuilder other) {
-        anchorPoints.addAll(other.anchorPoints);
-        lengthInMeters=this.getPathLength() + 
-        		this.anchorPoints.get(this.anchorPoints.size()-1).getDistanceTo(other.anchorPoints.get(0))
-        		+ other.getPathLength();
+        points.appendAll(other.points);
     }
     
     public LatLonGeo removePointAtIndex(int index) {
-    	// recalculate path length if/when we need it
-    	this.lengthInMeters = Double.NaN;
-    	return anchorPoints.remove(index);
-    	
+    	return points.remove(index);
     }
 
     public void setDone(boolean done) {
@@ -82,37 +84,35 @@ public class PathBuilder {
     }
     
     public Path build() {
-        return new Path(anchorPoints);
+        return new Path(points.toArray());
     }
     
     /**
-     * In meters
+     * In meters. Maintained incrementally, so this is O(1).
      * @return
      */
     public double getPathLength() {
-    	if (Double.isNaN(this.lengthInMeters)){
-    		lengthInMeters = 0;
-    		for (int i = 0; i< anchorPoints.size()-1; i++) {
-    			lengthInMeters += anchorPoints.get(i).getDistanceTo(anchorPoints.get(i+1));
-    		}
-    		return lengthInMeters;
-    	}
-    	//already calculated
-    	return lengthInMeters;
+    	return points.getLengthInMeters();
     }
     
     public int getNumPoints() {
-    	return anchorPoints.size();
+    	return points.size();
     }
 
 	public void prependPoint(LatLonGeo first) {
-		anchorPoints.add(0, first);
-    	// recalculate path length if/when we need it
-    	this.lengthInMeters = Double.NaN;
+		points.prepend(first);
 	}
 
 	public LatLonGeo getLastPoint() {
-		return anchorPoints.get(getNumPoints()-1);
+		return points.get(getNumPoints()-1);
+	}
+
+	/**
+	 * For subclasses, which used to read the lengthInMeters field directly
+	 * @return same as {@link #getPathLength()}
+	 */
+	protected double getLengthInMeters() {
+		return points.getLengthInMeters();
 	}
 
 }
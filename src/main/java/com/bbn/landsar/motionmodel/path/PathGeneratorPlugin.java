@@ -23,11 +23,15 @@ import java.util.Map;
 import java.util.Random;
 
 import com.bbn.landsar.geospatial.AreaData;
+import com.bbn.landsar.motionmodel.RandomSeeder;
 import com.bbn.roger.plugin.Plugin;
 import com.metsci.glimpse.util.geo.LatLonGeo;
 
 /**
  * This plugin can be implemented and then paired with a PathGeneratorPlugin to support path-based motion models in LandSAR.
+ * <br>
+ * Generators that route paths to goal points should share one {@link com.bbn.landsar.geospatial.GoalCostField} per goal
+ * (see {@link com.bbn.landsar.geospatial.GoalCostField#forGoal}) rather than search for a route per path.
  */
 public interface PathGeneratorPlugin extends Plugin {
 
@@ -39,4 +43,13 @@ public interface PathGeneratorPlugin extends Plugin {
      * @return
      */
     Path generatePath(Random rs, LatLonGeo landingPoint, AreaData areaData, Map<String, Object> motionModelParameters);
+
+    /**
+     * Generates the path for one sample with that sample's own random stream, so that paths can be generated in parallel
+     * and still come out the same as a sequential run. Implementations that draw from a SplittableRandom can override this.
+     * @param sampleIndex - index of the sample within the Lost Person Instance
+     */
+    default Path generatePath(RandomSeeder seeder, int sampleIndex, LatLonGeo landingPoint, AreaData areaData, Map<String, Object> motionModelParameters) {
+        return generatePath(seeder.randomForSample(sampleIndex), landingPoint, areaData, motionModelParameters);
+    }
 }
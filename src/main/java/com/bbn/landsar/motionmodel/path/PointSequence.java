@@ -0,0 +1,217 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.motionmodel.path;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Growable sequence of points for the path builders that keeps the length of every segment,
+ * so that the total path length is maintained as points are added and removed instead of being
+ * re-summed (with one geodesic distance per segment) whenever it is asked for.
+ * <br>
+ * Appending costs one distance computation; prepending, inserting, replacing and removing cost at most two,
+ * plus the array shift, and update the total from the neighboring segments only.
+ */
+class PointSequence {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private LatLonGeo[] points;
+	// segmentLengths[i] is the distance in meters from points[i] to points[i + 1]
+	private double[] segmentLengths;
+	private int size;
+	private double lengthInMeters;
+
+	PointSequence() {
+		this.points = new LatLonGeo[INITIAL_CAPACITY];
+		this.segmentLengths = new double[INITIAL_CAPACITY];
+	}
+
+	PointSequence(LatLonGeo[] initial) {
+		this.points = new LatLonGeo[Math.max(INITIAL_CAPACITY, initial.length)];
+		this.segmentLengths = new double[points.length];
+		for (LatLonGeo point : initial) {
+			append(point);
+		}
+	}
+
+	int size() {
+		return size;
+	}
+
+	LatLonGeo get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return points[index];
+	}
+
+	double getLengthInMeters() {
+		return lengthInMeters;
+	}
+
+	void append(LatLonGeo point) {
+		ensureCapacity(size + 1);
+		points[size] = point;
+		if (size > 0) {
+			// repeated points (resting) need no distance computation
+			double segment = points[size - 1] == point ? 0 : points[size - 1].getDistanceTo(point);
+			segmentLengths[size - 1] = segment;
+			lengthInMeters += segment;
+		}
+		size++;
+	}
+
+	void appendAll(PointSequence other) {
+		ensureCapacity(size + other.size);
+		for (int i = 0; i < other.size; i++) {
+			append(other.points[i]);
+		}
+	}
+
+	void prepend(LatLonGeo point) {
+		insert(0, point);
+	}
+
+	void insert(int index, LatLonGeo point) {
+		if (index < 0 || index > size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		if (index == size) {
+			append(point);
+			return;
+		}
+		ensureCapacity(size + 1);
+		System.arraycopy(points, index, points, index + 1, size - index);
+		System.arraycopy(segmentLengths, index, segmentLengths, index + 1, size - index);
+		points[index] = point;
+		size++;
+		// the segment that used to start at index - 1 is split in two at the new point
+		segmentLengths[index] = point.getDistanceTo(points[index + 1]);
+		lengthInMeters += segmentLengths[index];
+		if (index > 0) {
+			lengthInMeters -= segmentLengths[index - 1];
+			segmentLengths[index - 1] = points[index - 1].getDistanceTo(point);
+			lengthInMeters += segmentLengths[index - 1];
+		}
+	}
+
+	LatLonGeo set(int index, LatLonGeo point) {
+		LatLonGeo replaced = get(index);
+		points[index] = point;
+		if (index > 0) {
+			lengthInMeters -= segmentLengths[index - 1];
+			segmentLengths[index - 1] = points[index - 1].getDistanceTo(point);
+			lengthInMeters += segmentLengths[index - 1];
+		}
+		if (index < size - 1) {
+			lengthInMeters -= segmentLengths[index];
+			segmentLengths[index] = point.getDistanceTo(points[index + 1]);
+			lengthInMeters += segmentLengths[index];
+		}
+		return replaced;
+	}
+
+	LatLonGeo remove(int index) {
+		LatLonGeo removed = get(index);
+		if (index == 0) {
+			if (size > 1) {
+				lengthInMeters -= segmentLengths[0];
+			}
+			System.arraycopy(segmentLengths, 1, segmentLengths, 0, size - 1);
+		} else if (index == size - 1) {
+			lengthInMeters -= segmentLengths[index - 1];
+		} else {
+			// the segments on either side of the point become one
+			lengthInMeters -= segmentLengths[index - 1] + segmentLengths[index];
+			segmentLengths[index - 1] = points[index - 1].getDistanceTo(points[index + 1]);
+			lengthInMeters += segmentLengths[index - 1];
+			System.arraycopy(segmentLengths, index + 1, segmentLengths, index, size - index - 1);
+		}
+		System.arraycopy(points, index + 1, points, index, size - index - 1);
+		size--;
+		points[size] = null;
+		if (size <= 1) {
+			// no segments left, so drop any accumulated round off
+			lengthInMeters = 0;
+		}
+		return removed;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > points.length) {
+			int newCapacity = Math.max(capacity, points.length + (points.length >> 1));
+			points = Arrays.copyOf(points, newCapacity);
+			segmentLengths = Arrays.copyOf(segmentLengths, newCapacity);
+		}
+	}
+
+	LatLonGeo[] toArray() {
+		return Arrays.copyOf(points, size);
+	}
+
+	List<LatLonGeo> toList() {
+		return Arrays.asList(toArray());
+	}
+
+	/**
+	 * @return modifiable live view of the points; changes through it keep the length up to date
+	 */
+	List<LatLonGeo> asList() {
+		return new ListView();
+	}
+
+	private class ListView extends AbstractList<LatLonGeo> implements RandomAccess {
+
+		@Override
+		public LatLonGeo get(int index) {
+			return PointSequence.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public LatLonGeo set(int index, LatLonGeo point) {
+			return PointSequence.this.set(index, Objects.requireNonNull(point, "point"));
+		}
+
+		@Override
+		public void add(int index, LatLonGeo point) {
+			insert(index, Objects.requireNonNull(point, "point"));
+			modCount++;
+		}
+
+		@Override
+		public LatLonGeo remove(int index) {
+			LatLonGeo removed = PointSequence.this.remove(index);
+			modCount++;
+			return removed;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.motionmodel.path;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Read-only list of points that stores each run of identical consecutive points once, with its length.
+ * <br>
+ * Sample paths repeat the same location for every time step the lost person is resting (e.g. overnight),
+ * so this is often much smaller than the full list. get(index) is a binary search over the runs.
+ * Equality and hash code are those of any List with the same points.
+ */
+public class RunLengthPointList extends AbstractList<LatLonGeo> implements RandomAccess, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final LatLonGeo[] runPoints;
+	// runEnds[r] is one past the index of the last point in run r, so runEnds[numRuns - 1] == size()
+	private final int[] runEnds;
+
+	/**
+	 * @param runPoints - the point of each run
+	 * @param runLengths - how many times each point repeats, all positive
+	 */
+	public RunLengthPointList(List<LatLonGeo> runPoints, int[] runLengths) {
+		if (runPoints.size() != runLengths.length) {
+			throw new IllegalArgumentException("Number of run points (" + runPoints.size() + ") and run lengths (" + runLengths.length + ") differ");
+		}
+		this.runPoints = runPoints.toArray(new LatLonGeo[runPoints.size()]);
+		this.runEnds = new int[runLengths.length];
+		int end = 0;
+		for (int r = 0; r < runLengths.length; r++) {
+			if (runLengths[r] <= 0) {
+				throw new IllegalArgumentException("Run lengths must be positive, got " + runLengths[r]);
+			}
+			end += runLengths[r];
+			runEnds[r] = end;
+		}
+	}
+
+	/**
+	 * A single point repeated count times, e.g. for a {@link StationaryPath}
+	 */
+	public RunLengthPointList(LatLonGeo point, int count) {
+		this(Arrays.asList(point), new int[] {count});
+	}
+
+	/**
+	 * Encodes consecutive points with identical latitude and longitude as one run
+	 */
+	public static RunLengthPointList encode(List<LatLonGeo> pts) {
+		if (pts instanceof RunLengthPointList) {
+			return (RunLengthPointList) pts;
+		}
+		int numRuns = countRuns(pts);
+		LatLonGeo[] points = new LatLonGeo[numRuns];
+		int[] lengths = new int[numRuns];
+		int r = -1;
+		LatLonGeo previous = null;
+		for (LatLonGeo pt : pts) {
+			if (previous == null || !samePosition(previous, pt)) {
+				r++;
+				points[r] = pt;
+			}
+			lengths[r]++;
+			previous = pt;
+		}
+		return new RunLengthPointList(Arrays.asList(points), lengths);
+	}
+
+	/**
+	 * @return the number of runs of identical consecutive points
+	 */
+	public static int countRuns(List<LatLonGeo> pts) {
+		if (pts instanceof RunLengthPointList) {
+			return ((RunLengthPointList) pts).getNumRuns();
+		}
+		int numRuns = 0;
+		LatLonGeo previous = null;
+		for (LatLonGeo pt : pts) {
+			if (previous == null || !samePosition(previous, pt)) {
+				numRuns++;
+			}
+			previous = pt;
+		}
+		return numRuns;
+	}
+
+	private static boolean samePosition(LatLonGeo a, LatLonGeo b) {
+		return a.getLatDeg() == b.getLatDeg() && a.getLonDeg() == b.getLonDeg();
+	}
+
+	@Override
+	public LatLonGeo get(int index) {
+		return runPoints[runIndexOf(index)];
+	}
+
+	/**
+	 * @return the run containing the point at index
+	 */
+	public int runIndexOf(int index) {
+		if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+		}
+		// first run whose end is after index
+		int low = 0;
+		int high = runEnds.length - 1;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (runEnds[mid] <= index) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	@Override
+	public int size() {
+		return runEnds.length == 0 ? 0 : runEnds[runEnds.length - 1];
+	}
+
+	public int getNumRuns() {
+		return runPoints.length;
+	}
+
+	public LatLonGeo getRunPoint(int run) {
+		return runPoints[run];
+	}
+
+	public int getRunLength(int run) {
+		return run == 0 ? runEnds[0] : runEnds[run] - runEnds[run - 1];
+	}
+
+	/**
+	 * @return the point of each run, in order
+	 */
+	public List<LatLonGeo> getRunPoints() {
+		return Arrays.asList(runPoints.clone());
+	}
+
+	public int[] getRunLengths() {
+		int[] lengths = new int[runEnds.length];
+		for (int r = 0; r < lengths.length; r++) {
+			lengths[r] = getRunLength(r);
+		}
+		return lengths;
+	}
+}
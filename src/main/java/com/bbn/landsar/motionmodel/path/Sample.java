@@ -21,10 +21,13 @@ package com.bbn.landsar.motionmodel.path;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.bbn.landsar.utils.LandsarUtils;
+import com.bbn.landsar.utils.PointCodec;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.metsci.glimpse.util.geo.LatLonGeo;
 
 /**
@@ -73,7 +76,10 @@ public class Sample implements Serializable{
 	}
 	
 	/*
-	 * To be used by JSON serialization only
+	 * To be used by JSON serialization only.
+	 * Readable CSV form of the points, which every SDK version reads. Mappers from LandsarJsonModule.newObjectMapper()
+	 * write getPtsEncoded() in its place.
+	 * Always holds every point, also when they are run-length encoded in memory (see compactStationaryRuns())
 	 */
     public String getPtsString() {
         return LandsarUtils.getStringForPts(pts);
@@ -83,8 +89,58 @@ public class Sample implements Serializable{
 	 * To be used by JSON serialization only
 	 */
     public void setPtsString(String ptsString) {
-        pts = LandsarUtils.stringToPtsList(ptsString);
+        setPointsFromJson(LandsarUtils.stringToPtsList(ptsString));
+    }
+    
+	/*
+	 * Base64 of the points in the compact binary form of PointCodec. Like getPtsString() this always holds every point.
+	 * Default mappers do not write it, since SDK readers from before PointCodec do not know it; mappers with a
+	 * LandsarJsonModule that asks for compact formats write it in place of ptsString. It is always read.
+	 * The points are rounded to PointCodec.DEGREES_PER_UNIT, so a restored sample equals the original only if all of its
+	 * points have at most 7 decimals.
+	 */
+    @JsonIgnore
+    public String getPtsEncoded() {
+        return PointCodec.encodeToBase64(pts);
+    }
+    
+	/*
+	 * To be used by JSON serialization only
+	 */
+    @JsonProperty("ptsEncoded")
+    public void setPtsEncoded(String ptsEncoded) {
+        setPointsFromJson(PointCodec.decodeBase64ToList(ptsEncoded));
     }
+    
+    private void setPointsFromJson(List<LatLonGeo> points) {
+        pts = points;
+        // the JSON holds every point, so a restored sample is compacted again as SampleBuilder does
+        compactStationaryRuns();
+    }
+    
+	/**
+	 * Stores runs of identical consecutive points (the lost person resting) once each, if that at least halves
+	 * the number of points stored. Locations, equality and the JSON form are unchanged; this is only an in-memory representation.
+	 * @return true if the points are now run-length encoded
+	 */
+	public boolean compactStationaryRuns() {
+		if (pts instanceof RunLengthPointList) {
+			return true;
+		}
+		if (pts == null || RunLengthPointList.countRuns(pts) * 2 > pts.size()) {
+			return false;
+		}
+		pts = RunLengthPointList.encode(pts);
+		return true;
+	}
+	
+	/**
+	 * @return true if the points are stored as runs, see {@link #compactStationaryRuns()}
+	 */
+	@JsonIgnore
+	public boolean isRunLengthEncoded() {
+		return pts instanceof RunLengthPointList;
+	}
 	
 	public long getEndTime() {
 		return endTime;
@@ -96,6 +152,19 @@ public class Sample implements Serializable{
 		return new ArrayList<>(this.pts);
 	}
 	
+	/**
+	 * Read-only view of the points, without the copy made by {@link #getPoints()}
+	 */
+	@JsonIgnore
+	public List<LatLonGeo> getPointsView(){
+		return Collections.unmodifiableList(this.pts);
+	}
+	
+	@JsonIgnore
+	public int getNumPoints() {
+		return pts.size();
+	}
+	
 	/*
 	 * To be used by JSON serialization only
 	 */
@@ -145,24 +214,54 @@ public class Sample implements Serializable{
 	}
 	
 	public LatLonGeo getLocation(long time) {
+		double[] latLon = new double[2];
+		getLocation(time, latLon, 0, latLon, 1);
+		return LatLonGeo.fromDeg(latLon[0], latLon[1]);
+	}
+	
+	/**
+	 * Same as {@link #getLocation(long)}, but writes latitude (degrees) into out[0] and longitude into out[1]
+	 * instead of allocating a LatLonGeo
+	 */
+	public void getLocation(long time, double[] out) {
+		getLocation(time, out, 0, out, 1);
+	}
 	
+	private void getLocation(long time, double[] latOut, int latIndex, double[] lonOut, int lonIndex) {
 		if (time > quittingTime) time = quittingTime;
-
-		if (time <= startTime) return pts.get(0);
-		if (time >= endTime) return pts.get(pts.size() - 1);
-				
-		int indx0 = (int)((time - startTime) / timeDelta);
-		int indx1 = Math.min(indx0 + 1, pts.size() - 1);
-		
-		double beta = (double)((time - startTime) % timeDelta) / timeDelta;
 		
-		LatLonGeo pt0 = pts.get(indx0);
-		LatLonGeo pt1 = pts.get(indx1);
-		
-		double lat = (1 - beta) * pt0.getLatDeg() + beta * pt1.getLatDeg();
-		double lon = (1 - beta) * pt0.getLonDeg() + beta * pt1.getLonDeg();
+		LatLonGeo pt0;
+		LatLonGeo pt1;
+		double beta;
+		if (time <= startTime) {
+			pt0 = pt1 = pts.get(0);
+			beta = 0;
+		} else if (time >= endTime) {
+			pt0 = pt1 = pts.get(pts.size() - 1);
+			beta = 0;
+		} else {
+			int indx0 = (int)((time - startTime) / timeDelta);
+			int indx1 = Math.min(indx0 + 1, pts.size() - 1);
+			pt0 = pts.get(indx0);
+			pt1 = pts.get(indx1);
+			beta = (double)((time - startTime) % timeDelta) / timeDelta;
+		}
 		
-		return LatLonGeo.fromDeg(lat, lon);		
+		latOut[latIndex] = (1 - beta) * pt0.getLatDeg() + beta * pt1.getLatDeg();
+		lonOut[lonIndex] = (1 - beta) * pt0.getLonDeg() + beta * pt1.getLonDeg();
+	}
+	
+	/**
+	 * Bulk form of {@link #getLocation(long)}: the location at times[i] is written to lat[i], lon[i] (degrees).
+	 * Nothing is allocated, so this can be called for every sample at every search time.
+	 */
+	public void getLocations(long[] times, double[] lat, double[] lon) {
+		if (lat.length < times.length || lon.length < times.length) {
+			throw new IllegalArgumentException("lat and lon must be at least as long as times");
+		}
+		for (int i = 0; i < times.length; i++) {
+			getLocation(times[i], lat, i, lon, i);
+		}
 	}
 	
 	// Returns the locations at regular intervals over time
@@ -176,7 +275,7 @@ public class Sample implements Serializable{
 	}
 	
 	public List<LatLonGeo> getLocations(List<Long> times) {
-		List<LatLonGeo> locations = new ArrayList<>();
+		List<LatLonGeo> locations = new ArrayList<>(times.size());
 		
 		for (long time : times) {
 			locations.add(getLocation(time));
@@ -20,13 +20,14 @@ https://github.com/atapas/add-copyright.git
 package com.bbn.landsar.motionmodel.path;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import com.bbn.landsar.MovementSchedule;
 import com.bbn.landsar.geospatial.AreaData;
+import com.bbn.landsar.geospatial.PointValidityMask;
 import com.bbn.landsar.geospatial.Velocity2d;
 import com.bbn.landsar.motionmodel.UserEnteredGeospatialData;
 import com.bbn.landsar.utils.DateTimeUtilities;
-import com.bbn.landsar.utils.GroundUtilities;
 import com.metsci.glimpse.util.geo.LatLonGeo;
 
 public class SampleBuilder {
@@ -51,6 +52,7 @@ public class SampleBuilder {
 	private double direction;
 	private double maxDistanceMeters;
 	private double speedKph;
+	private PointValidityMask pointValidityMask = null;
 
 	public SampleBuilder(long startTime, long timeDelta, LatLonGeo point, double direction, double distanceKm, double speedKph) {
 		// can only be in one place at a time 
@@ -69,6 +71,30 @@ public class SampleBuilder {
 		this(startTime, timeDelta, point, directionVector.getHeading(), distanceKm, speed);
 	}
 
+	/**
+	 * Optional: check new points against a precomputed mask instead of testing the exclusion zones, bounding box and water directly.
+	 * The mask must have been built for the same AreaData, geospatial inputs and stay-out-of-water setting passed to computeNextPoint.
+	 * @see UserEnteredGeospatialData#getPointValidityMask(AreaData, boolean)
+	 */
+	public void setPointValidityMask(PointValidityMask pointValidityMask) {
+		this.pointValidityMask = pointValidityMask;
+	}
+
+	public long getStartTime() {
+		return startTime;
+	}
+
+	public long getTimeDelta() {
+		return timeDelta;
+	}
+
+	/**
+	 * @return the time of the last point computed so far
+	 */
+	public long getMostRecentTime() {
+		return mostRecentPointTime.time;
+	}
+
 	void setEndTime(long endTime){
 		this.endTime = endTime;
 	}
@@ -95,11 +121,14 @@ public class SampleBuilder {
 		
 		// Movement schedule models when the Lost Person is moving 
 		long movingTime = schedule.timeSpentMoving(previousPointAndTime.time, time);
-		double movingTimeInHours = movingTime / DateTimeUtilities.millisecInHour;
+		double movingTimeInHours = movingTime / (double) DateTimeUtilities.millisecInHour;
 
 		double movingDistanceInMeters = 1000 * this.speedKph * movingTimeInHours * areaData.getLandcoverData().getSoaFactor(prevPt.getLatDeg(), prevPt.getLonDeg());
 		LatLonGeo newPoint;
-		if ((pathBuilder.getPathLength() + movingDistanceInMeters) < maxDistanceMeters) {
+		if (movingDistanceInMeters == 0) {
+			// resting: repeat the exact same point, so that the sample can run-length encode it
+			newPoint = prevPt;
+		} else if ((pathBuilder.getPathLength() + movingDistanceInMeters) < maxDistanceMeters) {
 
 			newPoint = prevPt.displacedBy(movingDistanceInMeters, direction);
 		} else { // ((pathBuilder.getPathLength() + movingDistanceInMeters) >= maxDistance) {
@@ -127,9 +156,70 @@ public class SampleBuilder {
 
 	}
 
+	/**
+	 * Event-driven form of {@link #computeNextPoint}: if the schedule has the lost person resting from the most recent point,
+	 * jumps over the whole resting interval at once, adding the (unchanged) point for every time step in it, and otherwise
+	 * computes a single next point. The result is the same as calling computeNextPoint for every time step.
+	 * <br>
+	 * Callers should continue from {@link #getMostRecentTime()} + time delta.
+	 * @param time - the next time step, i.e. getMostRecentTime() + time delta
+	 */
+	public void computeNextPoints(long time, MovementSchedule schedule, AreaData areaData, UserEnteredGeospatialData geospatialInputs, boolean stayOutOfWater) {
+		PointAndTime previousPointAndTime = this.mostRecentPointTime;
+		if (previousPointAndTime.time + this.timeDelta != time) {
+			throw new IllegalArgumentException("method called with unexpected time: " + time + ", expecting :" + (previousPointAndTime.time + this.timeDelta));
+		}
+		// once the end time is set, the caller takes a single last step
+		long restingSteps = endTime == null ? countRestingSteps(previousPointAndTime.time, schedule) : 0;
+		if (restingSteps < 2) {
+			computeNextPoint(time, schedule, areaData, geospatialInputs, stayOutOfWater);
+			return;
+		}
+		// each resting step would re-check the same point
+		LatLonGeo point = previousPointAndTime.point;
+		if (!isPointValid(point, geospatialInputs, areaData, stayOutOfWater)) {
+			this.endTime = previousPointAndTime.time;
+			return;
+		}
+		for (long step = 0; step < restingSteps; step++) {
+			this.pathBuilder.appendPoint(point);
+		}
+		this.mostRecentPointTime = new PointAndTime(point, previousPointAndTime.time + restingSteps * timeDelta);
+	}
+
+	/**
+	 * @return the number of whole time steps from fromTime with no time spent moving, 0 if unknown
+	 */
+	private long countRestingSteps(long fromTime, MovementSchedule schedule) {
+		List<long[]> movingIntervals = schedule.determineMovingIntervals(fromTime, fromTime + 2 * DateTimeUtilities.millisecsInDay);
+		if (movingIntervals.isEmpty()) {
+			// never moving; leave it to the per-step computation
+			return 0;
+		}
+		long nextMovingTime = Long.MAX_VALUE;
+		for (long[] interval : movingIntervals) {
+			nextMovingTime = Math.min(nextMovingTime, interval[0]);
+		}
+		long steps = (nextMovingTime - fromTime) / timeDelta;
+		if (steps <= 0) {
+			return 0;
+		}
+		long restEnd = fromTime + steps * timeDelta;
+		// determineMovingIntervals uses the UTC offset at fromTime throughout, while each step uses the offset at its own start,
+		// so don't jump across an offset change (e.g. daylight savings)
+		if (schedule.getTimeZone().getOffset(fromTime) != schedule.getTimeZone().getOffset(restEnd)
+				|| schedule.timeSpentMoving(fromTime, restEnd) != 0) {
+			return 0;
+		}
+		return steps;
+	}
+
 	private boolean isPointValid(LatLonGeo newPoint, UserEnteredGeospatialData geospatialInputs, AreaData areaData, boolean stayOutOfWater) {
+		if (pointValidityMask != null) {
+			return pointValidityMask.isValid(newPoint);
+		}
 		// a more detailed / robust model might handle the point in the exclusion zone by going around it, but we'll assume the lost person just stops if they hit an exclusion zone. 
-		if (GroundUtilities.exclusionZonesContainsPoint(geospatialInputs.getExclusionZones(), newPoint)
+		if (geospatialInputs.isInsideExclusionZone(newPoint)
 				// Motion Models can't represent points outside the bounding box, so filter those out
 				|| !areaData.getBoundingBox().contains(newPoint)) {
 			return false;			
@@ -146,7 +236,10 @@ public class SampleBuilder {
 		}
 		//long startTime, long timeDelta, List<LatLonGeo> pts, 	List<Double> resourceLevelChange
 		// since we add the points to the pathBuilder with the time delta in mind we should have the correct (time) spacing in the points from pathBuilder.build().getPoints()
-		return new Sample(startTime, timeDelta, pathBuilder.build().getPoints(), new ArrayList<Double>());
+		Sample sample = new Sample(startTime, timeDelta, pathBuilder.build().getPoints(), new ArrayList<Double>());
+		// resting intervals repeat the same point at every time step
+		sample.compactStationaryRuns();
+		return sample;
 	}
 
 }
@@ -0,0 +1,228 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+package com.bbn.landsar.motionmodel.path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.bbn.landsar.MovementSchedule;
+import com.bbn.landsar.geospatial.AreaData;
+import com.bbn.landsar.motionmodel.UserEnteredGeospatialData;
+
+/**
+ * Runs many {@link SampleBuilder}s to completion in parallel.
+ * <br>
+ * Samples are independent of each other, so instead of stepping every builder in lock-step on one thread,
+ * the builders are split into chunks on a ForkJoinPool and each chunk advances its builders one at a time from
+ * start to logical end. Each finished Sample is written to its own slot of a result array, so no locking is needed
+ * to collect them, and the result is in the same order as the builders regardless of how the work was scheduled.
+ * <br>
+ * Everything a step reads (AreaData, schedule, geospatial inputs, validity mask) must be safe to read from several threads,
+ * which the SDK implementations are.
+ */
+public class SampleSimulationEngine {
+	private static final Logger LOGGER = LoggerFactory.getLogger(SampleSimulationEngine.class);
+
+	public static final int DEFAULT_CHUNK_SIZE = 32;
+
+	/**
+	 * Advances one builder to the given time, e.g. by calling {@link SampleBuilder#computeNextPoint}
+	 */
+	@FunctionalInterface
+	public interface Stepper {
+		void step(SampleBuilder builder, long time);
+	}
+
+	/**
+	 * Told about each batch of {@link #runInBatches} as soon as that batch has been simulated
+	 */
+	@FunctionalInterface
+	public interface BatchListener {
+		/**
+		 * @param batch - the samples finished in this batch
+		 * @param numFinished - number of samples finished so far, including this batch
+		 * @param numTotal - number of builders being run
+		 */
+		void batchFinished(List<Sample> batch, int numFinished, int numTotal);
+	}
+
+	private final ForkJoinPool pool;
+	private final int chunkSize;
+
+	/**
+	 * Uses the common ForkJoinPool and {@link #DEFAULT_CHUNK_SIZE}
+	 */
+	public SampleSimulationEngine() {
+		this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param chunkSize - number of builders below which a chunk is run on one thread rather than split further
+	 */
+	public SampleSimulationEngine(ForkJoinPool pool, int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		}
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Steps every builder with {@link SampleBuilder#computeNextPoint} until it reaches its logical end
+	 * @return the built samples, in the same order as builders
+	 */
+	public List<Sample> run(List<SampleBuilder> builders, MovementSchedule schedule, AreaData areaData,
+			UserEnteredGeospatialData geospatialInputs, boolean stayOutOfWater) {
+		return run(builders, (builder, time) -> builder.computeNextPoint(time, schedule, areaData, geospatialInputs, stayOutOfWater));
+	}
+
+	/**
+	 * Like {@link #run(List, MovementSchedule, AreaData, UserEnteredGeospatialData, boolean)}, but with
+	 * {@link SampleBuilder#computeNextPoints}, which jumps over resting intervals of the schedule instead of
+	 * stepping through them. Gives the same samples with work roughly proportional to the time spent moving.
+	 */
+	public List<Sample> runSkippingRest(List<SampleBuilder> builders, MovementSchedule schedule, AreaData areaData,
+			UserEnteredGeospatialData geospatialInputs, boolean stayOutOfWater) {
+		return run(builders, (builder, time) -> builder.computeNextPoints(time, schedule, areaData, geospatialInputs, stayOutOfWater));
+	}
+
+	/**
+	 * Steps every builder, every time delta from its start time, until it reaches its logical end.
+	 * A step may advance a builder by several time steps, see {@link SampleBuilder#getMostRecentTime()}.
+	 * @return the built samples, in the same order as builders
+	 */
+	public List<Sample> run(List<SampleBuilder> builders, Stepper stepper) {
+		long start = System.currentTimeMillis();
+		SampleBuilder[] inProgress = builders.toArray(new SampleBuilder[builders.size()]);
+		Sample[] samples = new Sample[inProgress.length];
+		pool.invoke(new Chunk(inProgress, samples, stepper, 0, inProgress.length));
+		LOGGER.debug("Simulated {} samples in {} ms", samples.length, System.currentTimeMillis() - start);
+		return Arrays.asList(samples);
+	}
+
+	/**
+	 * Like {@link #runSkippingRest(List, MovementSchedule, AreaData, UserEnteredGeospatialData, boolean)}, but in batches,
+	 * see {@link #runInBatches(List, Stepper, int, BatchListener)}
+	 */
+	public List<Sample> runSkippingRestInBatches(List<SampleBuilder> builders, MovementSchedule schedule, AreaData areaData,
+			UserEnteredGeospatialData geospatialInputs, boolean stayOutOfWater, int firstBatchSize, BatchListener listener) {
+		return runInBatches(builders, (builder, time) -> builder.computeNextPoints(time, schedule, areaData, geospatialInputs, stayOutOfWater),
+				firstBatchSize, listener);
+	}
+
+	/**
+	 * Runs the builders in batches that double in size, starting with firstBatchSize, and hands each batch to the listener
+	 * before starting the next, so that a caller can publish a coarse answer early and refine it as more samples finish.
+	 * <br>
+	 * Builders are taken with a stride rather than in list order, so that every batch (and in particular the first)
+	 * is spread over the whole input, e.g. over all of the start points, instead of covering only its beginning.
+	 * @return the built samples, in the same order as builders; the same samples as {@link #run(List, Stepper)} gives
+	 */
+	public List<Sample> runInBatches(List<SampleBuilder> builders, Stepper stepper, int firstBatchSize, BatchListener listener) {
+		if (firstBatchSize < 1) {
+			throw new IllegalArgumentException("firstBatchSize must be positive: " + firstBatchSize);
+		}
+		long start = System.currentTimeMillis();
+		int numBuilders = builders.size();
+		int[] order = stridedOrder(numBuilders, (numBuilders + firstBatchSize - 1) / firstBatchSize);
+		Sample[] samples = new Sample[numBuilders];
+		int numFinished = 0;
+		int batchSize = firstBatchSize;
+		while (numFinished < numBuilders) {
+			int batchEnd = (int) Math.min(numBuilders, (long) numFinished + batchSize);
+			SampleBuilder[] batchBuilders = new SampleBuilder[batchEnd - numFinished];
+			for (int k = 0; k < batchBuilders.length; k++) {
+				batchBuilders[k] = builders.get(order[numFinished + k]);
+			}
+			Sample[] batchSamples = new Sample[batchBuilders.length];
+			pool.invoke(new Chunk(batchBuilders, batchSamples, stepper, 0, batchBuilders.length));
+			for (int k = 0; k < batchSamples.length; k++) {
+				samples[order[numFinished + k]] = batchSamples[k];
+			}
+			numFinished = batchEnd;
+			LOGGER.debug("Simulated {} of {} samples after {} ms", numFinished, numBuilders, System.currentTimeMillis() - start);
+			listener.batchFinished(new ArrayList<>(Arrays.asList(batchSamples)), numFinished, numBuilders);
+			batchSize = (int) Math.min(Integer.MAX_VALUE, 2L * batchSize);
+		}
+		return Arrays.asList(samples);
+	}
+
+	/**
+	 * @return 0, stride, 2 * stride, ..., then 1, 1 + stride, ..., and so on, so that every prefix is spread over [0, n)
+	 */
+	static int[] stridedOrder(int n, int stride) {
+		int[] order = new int[n];
+		int k = 0;
+		for (int offset = 0; offset < stride; offset++) {
+			for (int i = offset; i < n; i += stride) {
+				order[k++] = i;
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Runs a single builder from its start to its logical end
+	 */
+	public static Sample runToEnd(SampleBuilder builder, Stepper stepper) {
+		long time = builder.getStartTime();
+		do {
+			time += builder.getTimeDelta();
+			stepper.step(builder, time);
+			time = Math.max(time, builder.getMostRecentTime());
+		} while (!builder.reachedLogicalEnd(time));
+		return builder.build();
+	}
+
+	private class Chunk extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final SampleBuilder[] builders;
+		private final Sample[] samples;
+		private final Stepper stepper;
+		private final int from;
+		private final int to;
+
+		Chunk(SampleBuilder[] builders, Sample[] samples, Stepper stepper, int from, int to) {
+			this.builders = builders;
+			this.samples = samples;
+			this.stepper = stepper;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= chunkSize) {
+				for (int i = from; i < to; i++) {
+					samples[i] = runToEnd(builders[i], stepper);
+				}
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			invokeAll(new Chunk(builders, samples, stepper, from, mid), new Chunk(builders, samples, stepper, mid, to));
+		}
+	}
+}
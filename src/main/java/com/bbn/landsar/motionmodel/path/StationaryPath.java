@@ -19,6 +19,8 @@ https://github.com/atapas/add-copyright.git
 
 package com.bbn.landsar.motionmodel.path;
 
+import java.util.ArrayList;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,4 +52,15 @@ public class StationaryPath extends Path {
 		this.anchorPoints = new LatLonGeo[] {point};
 	}
 
+	/**
+	 * @return a Sample that stays at this path's point from startTime for totalTime, stored as a single run
+	 */
+	public Sample toSample(long startTime, long timeDelta) {
+		if (timeDelta <= 0) {
+			throw new IllegalArgumentException("timeDelta must be positive: " + timeDelta);
+		}
+		int numPoints = (int) (totalTime / timeDelta) + 1;
+		return new Sample(startTime, timeDelta, new RunLengthPointList(anchorPoints[0], numPoints), new ArrayList<Double>());
+	}
+
 }
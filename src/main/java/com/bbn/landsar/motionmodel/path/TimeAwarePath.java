@@ -19,45 +19,177 @@ https://github.com/atapas/add-copyright.git
 
 package com.bbn.landsar.motionmodel.path;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map.Entry;
 
-import com.bbn.landsar.motionmodel.ProbabilityDistribution;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.metsci.glimpse.util.geo.LatLonGeo;
 
+/**
+ * Path whose points each have a time. Times are kept sorted in a long[] (with the points in the same order),
+ * so that lookups by time are binary searches.
+ */
 public class TimeAwarePath extends Path {
 
-	private List<Long> times;
-	private List<LatLonGeo> points;
+	private final long[] times;
 
 	public TimeAwarePath(List<LatLonGeo> anchorPoints, List<Long> times) {
-		super(anchorPoints);
-		this.times = times;
-		this.points = anchorPoints;
+		this(anchorPoints, toArray(times));
 	}
 
+	/**
+	 * Points and times may be out of order, e.g. when points were prepended with earlier times;
+	 * both are then sorted by time, so that {@link #getPoints()} is in the same order as {@link #getTimes()}
+	 */
+	public TimeAwarePath(List<LatLonGeo> anchorPoints, long[] times) {
+		super(sortByTime(anchorPoints, times));
+		long[] sortedTimes = times.clone();
+		Arrays.sort(sortedTimes);
+		this.times = sortedTimes;
+	}
+
+	/**
+	 * @return the points in order of their times, keeping ties in order
+	 */
+	private static LatLonGeo[] sortByTime(List<LatLonGeo> anchorPoints, long[] times) {
+		if (times.length != anchorPoints.size()) {
+			throw new IllegalArgumentException("Number of times (" + times.length + ") and points (" + anchorPoints.size() + ") differ");
+		}
+		LatLonGeo[] pts = anchorPoints.toArray(new LatLonGeo[anchorPoints.size()]);
+		if (!isSorted(times)) {
+			Integer[] order = new Integer[times.length];
+			for (int i = 0; i < order.length; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, (a, b) -> Long.compare(times[a], times[b]));
+			for (int i = 0; i < order.length; i++) {
+				pts[i] = anchorPoints.get(order[i]);
+			}
+		}
+		return pts;
+	}
+
+	private static long[] toArray(List<Long> times) {
+		long[] result = new long[times.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = times.get(i);
+		}
+		return result;
+	}
+
+	private static boolean isSorted(long[] values) {
+		for (int i = 1; i < values.length; i++) {
+			if (values[i] < values[i - 1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Same as {@link #nextPointAfter(long)}
+	 */
 	public LatLonGeo pointAtTime(long time) {
-		// TODO use a more efficient data structure so this look up is faster, and/or use interpolation (used in Motion Model SDK for getting ocean current value)
-		long delta = Long.MAX_VALUE;
-		long latestTime = Long.MIN_VALUE;
-		
-		// closest time after desired time
-		Long bestTime = null;
-		
-		for (Long distTime: this.times) {
-			if (distTime > latestTime) {
-				latestTime = distTime;
+		return nextPointAfter(time);
+	}
+
+	/**
+	 * @return the earliest point whose time is strictly after the given time, or the last point if there is none
+	 */
+	public LatLonGeo nextPointAfter(long time) {
+		return anchorPoints[nextIndexAfter(time)];
+	}
+
+	private int nextIndexAfter(long time) {
+		// first index with times[index] > time
+		int low = 0;
+		int high = times.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (times[mid] <= time) {
+				low = mid + 1;
+			} else {
+				high = mid;
 			}
-			long distDelta = distTime - time;
-			if (distDelta > 0 && distDelta < delta) {
-				delta = distDelta;
-				bestTime = distTime;
+		}
+		return Math.min(low, times.length - 1);
+	}
+
+	/**
+	 * Linear interpolation in lat/lon between the points before and after the given time.
+	 * Times before the first point or after the last one give the first or last point.
+	 */
+	public LatLonGeo interpolatedPointAtTime(long time) {
+		double[] latLon = new double[2];
+		interpolate(time, latLon, 0);
+		return LatLonGeo.fromDeg(latLon[0], latLon[1]);
+	}
+
+	/**
+	 * Writes lat into out[offset] and lon into out[offset + 1]
+	 */
+	private void interpolate(long time, double[] out, int offset) {
+		int last = times.length - 1;
+		if (time <= times[0]) {
+			out[offset] = anchorPoints[0].getLatDeg();
+			out[offset + 1] = anchorPoints[0].getLonDeg();
+			return;
+		}
+		if (time >= times[last]) {
+			out[offset] = anchorPoints[last].getLatDeg();
+			out[offset + 1] = anchorPoints[last].getLonDeg();
+			return;
+		}
+		int index1 = nextIndexAfter(time);
+		int index0 = index1 - 1;
+		double beta = (double) (time - times[index0]) / (times[index1] - times[index0]);
+		LatLonGeo pt0 = anchorPoints[index0];
+		LatLonGeo pt1 = anchorPoints[index1];
+		out[offset] = (1 - beta) * pt0.getLatDeg() + beta * pt1.getLatDeg();
+		out[offset + 1] = (1 - beta) * pt0.getLonDeg() + beta * pt1.getLonDeg();
+	}
+
+	/**
+	 * Batch lookup, O(log n) per query time.
+	 * @param interpolate - true for {@link #interpolatedPointAtTime(long)}, false for {@link #nextPointAfter(long)}
+	 * @param latOut - latitude in degrees for each query time
+	 * @param lonOut - longitude in degrees for each query time
+	 */
+	public void pointsAtTimes(long[] queryTimes, boolean interpolate, double[] latOut, double[] lonOut) {
+		if (latOut.length < queryTimes.length || lonOut.length < queryTimes.length) {
+			throw new IllegalArgumentException("Output arrays are shorter than queryTimes");
+		}
+		double[] latLon = new double[2];
+		for (int i = 0; i < queryTimes.length; i++) {
+			if (interpolate) {
+				interpolate(queryTimes[i], latLon, 0);
+				latOut[i] = latLon[0];
+				lonOut[i] = latLon[1];
+			} else {
+				LatLonGeo pt = anchorPoints[nextIndexAfter(queryTimes[i])];
+				latOut[i] = pt.getLatDeg();
+				lonOut[i] = pt.getLonDeg();
 			}
 		}
-		// maybe we want to create a map of time--> point in the constructor...
-		// found closest time after desired time
-		return points.get(times.indexOf(bestTime));
 	}
 
+	/**
+	 * Batch lookup, O(log n) per query time.
+	 * @see #pointsAtTimes(long[], boolean, double[], double[])
+	 */
+	public LatLonGeo[] pointsAtTimes(long[] queryTimes, boolean interpolate) {
+		LatLonGeo[] result = new LatLonGeo[queryTimes.length];
+		for (int i = 0; i < queryTimes.length; i++) {
+			result[i] = interpolate ? interpolatedPointAtTime(queryTimes[i]) : nextPointAfter(queryTimes[i]);
+		}
+		return result;
+	}
+
+	/**
+	 * @return copy of the point times, in ascending order
+	 */
+	@JsonIgnore
+	public long[] getTimes() {
+		return times.clone();
+	}
 }
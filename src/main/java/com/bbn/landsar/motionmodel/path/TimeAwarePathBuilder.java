@@ -19,86 +19,73 @@ https://github.com/atapas/add-copyright.git
 
 package com.bbn.landsar.motionmodel.path;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Random;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.bbn.landsar.utils.GroundUtilities;
 import com.metsci.glimpse.util.geo.LatLonGeo;
-import com.metsci.glimpse.util.geo.projection.TangentPlane;
-import com.metsci.glimpse.util.vector.Vector2d;
 
 public class TimeAwarePathBuilder {
 	private static final Logger LOGGER = LoggerFactory.getLogger(TimeAwarePathBuilder.class);
 			
-	List<LatLonGeo> anchorPoints= new ArrayList<>();
-	double lengthInMeters = Double.NaN;
+	// keeps the path length up to date as points are added and removed
+	final PointSequence anchorPoints;
 
-	List<Long> times = new ArrayList<>();
+	// times[i] is the time of anchorPoints.get(i); only the first numTimes entries are used
+	long[] times = new long[16];
+	int numTimes = 0;
 
     public TimeAwarePathBuilder(LatLonGeo[] points) {
-		this.anchorPoints = Arrays.asList(points);
+		this.anchorPoints = new PointSequence(points);
 	}
 
 	public TimeAwarePathBuilder(LatLonGeo point, long startTime) {
-		this.anchorPoints = new ArrayList<>();
-		this.anchorPoints.add(point);
-		this.times = new ArrayList<>();
-		this.times.add(startTime);
+		this.anchorPoints = new PointSequence();
+		this.anchorPoints.append(point);
+		addTime(numTimes, startTime);
 	}
 
 	public void appendPoint(LatLonGeo point, long time) {
     	if (point == null) {
     		LOGGER.warn("Not appending null point to path");
     	}else {	
-    		times.add(time);
-    		anchorPoints.add(point);
-    		// recalculate path length if/when we need it
-    		this.lengthInMeters = Double.NaN;
+    		addTime(numTimes, time);
+    		anchorPoints.append(point);
     	}
     }
     
     public void appendPath(TimeAwarePathBuilder other) {
-        anchorPoints.addAll(other.anchorPoints);
-        times.addAll(other.times);
-        lengthInMeters=this.getPathLength() + 
-        		this.anchorPoints.get(this.anchorPoints.size()-1).getDistanceTo(other.anchorPoints.get(0))
-        		+ other.getPathLength();
+        anchorPoints.appendAll(other.anchorPoints);
+        for (int i = 0; i < other.numTimes; i++) {
+        	addTime(numTimes, other.times[i]);
+        }
     }
     
     public LatLonGeo removePointAtIndex(int index) {
-    	times.remove(index);
-    	// recalculate path length if/when we need it
-    	this.lengthInMeters = Double.NaN;
-    	return anchorPoints.remove(index);
-    	
+    	// checked before changing either, so that points and times stay in step
+    	if (index < 0 || index >= anchorPoints.size() || index >= numTimes) {
+    		throw new IndexOutOfBoundsException("Index: " + index + ", Points: " + anchorPoints.size() + ", Times: " + numTimes);
+    	}
+    	LatLonGeo removed = anchorPoints.remove(index);
+    	System.arraycopy(times, index + 1, times, index, numTimes - index - 1);
+    	numTimes--;
+    	return removed;
     }
 
     public TimeAwarePath build() {
-    	if (times.size() != anchorPoints.size()) {
+    	if (numTimes != anchorPoints.size()) {
     		throw new IllegalStateException("Times and points are not in sync");
     	}
-        return new TimeAwarePath(anchorPoints, times);
+        return new TimeAwarePath(anchorPoints.toList(), Arrays.copyOf(times, numTimes));
     }
     
     /**
-     * In meters
+     * In meters. Maintained incrementally, so this is O(1).
      * @return
      */
     public double getPathLength() {
-    	if (this.lengthInMeters == Double.NaN){
-    		lengthInMeters = 0;
-    		for (int i = 0; i< anchorPoints.size()-1; i++) {
-    			lengthInMeters += anchorPoints.get(i).getDistanceTo(anchorPoints.get(i+1));
-    		}
-    		return lengthInMeters;
-    	}
-    	//already calculated
-    	return lengthInMeters;
+    	return anchorPoints.getLengthInMeters();
     }
     
     public int getNumPoints() {
@@ -106,14 +93,21 @@ public class TimeAwarePathBuilder {
     }
 
 	public void prependPoint(LatLonGeo first, long time) {
-		times.add(0, time);
-		anchorPoints.add(0, first);
-    	// recalculate path length if/when we need it
-    	this.lengthInMeters = Double.NaN;
+		addTime(0, time);
+		anchorPoints.prepend(first);
 	}
 
 	public LatLonGeo getLastPoint() {
 		return anchorPoints.get(getNumPoints()-1);
 	}
 
+	private void addTime(int index, long time) {
+		if (numTimes == times.length) {
+			times = Arrays.copyOf(times, times.length + (times.length >> 1));
+		}
+		System.arraycopy(times, index, times, index + 1, numTimes - index);
+		times[index] = time;
+		numTimes++;
+	}
+
 }
@@ -37,6 +37,9 @@ import static com.bbn.landsar.geospatial.GeometricUtilities.tangentPoints;
  */
 public class GroundUtilities {
 
+	// shuffle seed for getMinimalCircle(double[], double[]), so the same points always give the same circle
+	private static final long MINIMAL_CIRCLE_SEED = 0x5EEDL;
+
 	public static void main(String[] arg) {
 
 		//		testTurnPoints();
@@ -146,86 +149,115 @@ public class GroundUtilities {
 		return null;
 	}
 	
+	/**
+	 * Smallest circle containing all of the points.
+	 * @return {center x, center y, radius}; all zero for no points. For three or more points the radius is
+	 * enlarged by a factor of 1.0001 to allow for discretization.
+	 */
 	public static double[] getMinimalCircle(List<Vector2d> pts) {
+		double[] x = new double[pts.size()];
+		double[] y = new double[pts.size()];
+		for (int i = 0; i < x.length; i++) {
+			x[i] = pts.get(i).getX();
+			y[i] = pts.get(i).getY();
+		}
+		return getMinimalCircle(x, y);
+	}
+	
+	public static double[] getMinimalCircle(double[] x, double[] y) {
+		return getMinimalCircle(x, y, MINIMAL_CIRCLE_SEED);
+	}
+	
+	/**
+	 * Randomized incremental (Welzl) minimal enclosing circle, expected O(n).
+	 * The shuffle is seeded, so the same points always give the same circle.
+	 * @see #getMinimalCircle(List)
+	 */
+	public static double[] getMinimalCircle(double[] x, double[] y, long seed) {
+		if (x.length != y.length) {
+			throw new IllegalArgumentException("x and y must have the same length");
+		}
+		int n = x.length;
 		double[] centerAndRadius = new double[3];
+		if (n == 0) return centerAndRadius;
 		
-		if (pts.size() <= 0) return centerAndRadius;
-		
-		if (pts.size() == 2) {
-			centerAndRadius[0] = (pts.get(0).getX() + pts.get(1).getX()) / 2;
-			centerAndRadius[1] = (pts.get(0).getY() + pts.get(1).getY()) / 2;
-			centerAndRadius[2] = pts.get(0).distance(pts.get(1)) / 2;
+		if (n <= 2) {
+			centerAndRadius[0] = (x[0] + x[n - 1]) / 2;
+			centerAndRadius[1] = (y[0] + y[n - 1]) / 2;
+			centerAndRadius[2] = Math.hypot(x[0] - x[n - 1], y[0] - y[n - 1]) / 2;
 			return centerAndRadius;
 		}
 		
-		double minRadius = Double.POSITIVE_INFINITY;
-		Vector2d minCenter = null;
-		
-		// Loop over all pairs
-		for (int i = 0; i < pts.size(); i++) {
-			Vector2d v0 = pts.get(i);
-			for (int j = i + 1; j < pts.size(); j++) {
-				Vector2d v1 = pts.get(j);
-				Vector2d c = v1.plus(v0).scalarProduct(0.5);
-				double r = c.distance(v1) * 1.0001; // Allow for discretization
-//				System.out.println(i + "\t" + j + "\t" + r + "\t" + getMaxDist(c, r, pts) +
-//						"\t" + allInCircle(c, r, pts));
-				if (allInCircle(c, r, pts)) {
-					if (r < minRadius) {
-						minRadius = r;
-						minCenter = c;
-					}
-				}
-//				System.out.println(minRadius);
-			}
+		// shuffled copies, so that the caller's arrays are untouched and the expected running time is linear
+		double[] px = x.clone();
+		double[] py = y.clone();
+		Random random = new Random(seed);
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			double t = px[i]; px[i] = px[j]; px[j] = t;
+			t = py[i]; py[i] = py[j]; py[j] = t;
 		}
 		
-		// Loop over all triples
-		for (int i = 0; i < pts.size(); i++) {
-			Vector2d v0 = pts.get(i);
-			for (int j = i + 1; j < pts.size(); j++) {
-				Vector2d v1 = pts.get(j);
-				for (int k = j + 1; k < pts.size(); k++) {
-					Vector2d v2 = pts.get(k);
-					
-					Circle circle = getCircleForPoints(v0, v1, v2);
-					double r = circle.r * 1.0001;
-//					System.out.println(i + "\t" + j + "\t" + k + "\t" + r + "\t" + 
-//					getMaxDist(circle.center, r, pts) + "\t" + allInCircle(circle.center, r, pts));
-					if (allInCircle(circle.center, r, pts)) {
-//						if (circle.r < minRadius) {
-						if (r < minRadius) {
-							minRadius = r;
-							minCenter = circle.center;
-						}
-					}
-//					System.out.println(minRadius);
+		double[] c = {px[0], py[0], 0};
+		for (int i = 1; i < n; i++) {
+			if (inCircle(c, px[i], py[i])) continue;
+			// p[i] is on the boundary of the circle for p[0..i]
+			c[0] = px[i]; c[1] = py[i]; c[2] = 0;
+			for (int j = 0; j < i; j++) {
+				if (inCircle(c, px[j], py[j])) continue;
+				// p[i] and p[j] are both on the boundary
+				circleFromTwo(px[i], py[i], px[j], py[j], c);
+				for (int k = 0; k < j; k++) {
+					if (inCircle(c, px[k], py[k])) continue;
+					circleFromThree(px[i], py[i], px[j], py[j], px[k], py[k], c);
 				}
 			}
 		}
 		
-		if (minCenter == null) {
-			System.out.println("Problem");
-			System.out.println("==============");
-			for (Vector2d pt : pts) {
-				System.out.println(pt.getX() + "," + pt.getY());
-			}
-			System.out.println("==============");
-			
-			double delta = 0.001;
-			List<Vector2d> newPts = new ArrayList<Vector2d>();
-			for (Vector2d pt : pts) {
-				newPts.add(new Vector2d(pt.getX() + delta * Math.random(), 
-						                pt.getY() + delta * Math.random()));
+		centerAndRadius[0] = c[0];
+		centerAndRadius[1] = c[1];
+		centerAndRadius[2] = c[2] * 1.0001; // Allow for discretization
+		return centerAndRadius;
+	}
+	
+	private static boolean inCircle(double[] c, double px, double py) {
+		double dx = px - c[0];
+		double dy = py - c[1];
+		// relative tolerance for points that define the circle and are only on it up to round off
+		return dx * dx + dy * dy <= c[2] * c[2] * (1 + 1.0e-12) + 1.0e-18;
+	}
+	
+	private static void circleFromTwo(double ax, double ay, double bx, double by, double[] c) {
+		c[0] = (ax + bx) / 2;
+		c[1] = (ay + by) / 2;
+		c[2] = Math.hypot(ax - bx, ay - by) / 2;
+	}
+	
+	private static void circleFromThree(double ax, double ay, double bx, double by, double cx, double cy, double[] c) {
+		double bxr = bx - ax, byr = by - ay;
+		double cxr = cx - ax, cyr = cy - ay;
+		double d = 2 * (bxr * cyr - byr * cxr);
+		if (d == 0) {
+			// collinear: the circle on the two points farthest apart
+			double ab = Math.hypot(bxr, byr);
+			double ac = Math.hypot(cxr, cyr);
+			double bc = Math.hypot(cx - bx, cy - by);
+			if (ab >= ac && ab >= bc) {
+				circleFromTwo(ax, ay, bx, by, c);
+			} else if (ac >= bc) {
+				circleFromTwo(ax, ay, cx, cy, c);
+			} else {
+				circleFromTwo(bx, by, cx, cy, c);
 			}
-			getMinimalCircle(newPts);
-		}
-		else {
-			centerAndRadius[0] = minCenter.getX();
-			centerAndRadius[1] = minCenter.getY();
-			centerAndRadius[2] = minRadius;
+			return;
 		}
-		return centerAndRadius;
+		double b2 = bxr * bxr + byr * byr;
+		double c2 = cxr * cxr + cyr * cyr;
+		double ux = (cyr * b2 - byr * c2) / d;
+		double uy = (bxr * c2 - cxr * b2) / d;
+		c[0] = ax + ux;
+		c[1] = ay + uy;
+		c[2] = Math.hypot(ux, uy);
 	}
 	
 	public static Circle getCircleForPoints(Vector2d v0, Vector2d v1, Vector2d v2) {
@@ -20,6 +20,7 @@ https://github.com/atapas/add-copyright.git
 package com.bbn.landsar.utils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,12 +36,12 @@ public class LandsarUtils {
      * Returns a CSV string of lat/lons defining the points
      */
     public static String getStringForPts(List<LatLonGeo> pts) {
-        StringBuffer buffer = new StringBuffer();
+        StringBuilder buffer = new StringBuilder(pts.size() * 40);
 
         for (int pIndx = 0; pIndx < pts.size(); pIndx++) {
-            if (pIndx > 0) buffer.append(",");
+            if (pIndx > 0) buffer.append(',');
             LatLonGeo pt = pts.get(pIndx);
-            buffer.append(pt.getLatDeg() + "," + pt.getLonDeg());
+            buffer.append(pt.getLatDeg()).append(',').append(pt.getLonDeg());
         }
         return buffer.toString();
     }
@@ -70,14 +71,7 @@ public class LandsarUtils {
      * Returns a CSV string of lat/lons defining the path
      */
     public static String getStringForPts(LatLonGeo[] pts) {
-        StringBuffer buffer = new StringBuffer();
-
-        for (int pIndx = 0; pIndx < pts.length; pIndx++) {
-            if (pIndx > 0) buffer.append(",");
-            LatLonGeo pt = pts[pIndx];
-            buffer.append(pt.getLatDeg() + "," + pt.getLonDeg());
-        }
-        return buffer.toString();
+        return getStringForPts(Arrays.asList(pts));
     }
     
     public static <T> Map<T, String> getStringForPointsListInMap(Map<T, List<LatLonGeo>> mapWithPointsList){
@@ -0,0 +1,170 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Compact binary form of a list of points, for persisting sample paths and paths.
+ * <br>
+ * Latitude and longitude are rounded to {@link #DEGREES_PER_UNIT} (about 1 cm) and each point is written as the
+ * difference from the previous one, zigzag encoded as a variable length integer. Consecutive points of a sample
+ * path are close together, so most points take 2-4 bytes instead of the ~40 characters of the CSV form of
+ * {@link LandsarUtils#getStringForPts(List)}, and neither direction formats or parses decimal text.
+ * <br>
+ * Layout: format version byte, point count, then (delta lat, delta lon) per point, all varints.
+ * Inside JSON the bytes are carried as a base64 string, written by mappers that ask for it with
+ * {@link com.bbn.landsar.utils.json.LandsarJsonModule#LandsarJsonModule(boolean)}.
+ */
+public final class PointCodec {
+
+	public static final double DEGREES_PER_UNIT = 1.0e-7;
+	private static final double UNITS_PER_DEGREE = 1.0e7;
+
+	private static final byte VERSION = 1;
+
+	/**
+	 * Largest latitude or longitude magnitude accepted; it keeps every zigzag encoded delta within 5 varint bytes
+	 */
+	public static final double MAX_ABS_DEGREES = 360;
+
+	private PointCodec() {
+	}
+
+	/**
+	 * @throws IllegalArgumentException if a latitude or longitude is NaN, infinite, or larger than {@link #MAX_ABS_DEGREES}
+	 */
+	public static byte[] encode(List<LatLonGeo> pts) {
+		return encode(pts.toArray(new LatLonGeo[pts.size()]));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if a latitude or longitude is NaN, infinite, or larger than {@link #MAX_ABS_DEGREES}
+	 */
+	public static byte[] encode(LatLonGeo[] pts) {
+		for (int i = 0; i < pts.length; i++) {
+			checkDegrees(i, pts[i].getLatDeg());
+			checkDegrees(i, pts[i].getLonDeg());
+		}
+		// worst case: version, count, and two 5 byte varints per point
+		byte[] buffer = new byte[1 + 5 + pts.length * 10];
+		int pos = 0;
+		buffer[pos++] = VERSION;
+		pos = writeVarint(buffer, pos, pts.length);
+		long previousLat = 0;
+		long previousLon = 0;
+		for (LatLonGeo pt : pts) {
+			long lat = toUnits(pt.getLatDeg());
+			long lon = toUnits(pt.getLonDeg());
+			pos = writeVarint(buffer, pos, zigzag(lat - previousLat));
+			pos = writeVarint(buffer, pos, zigzag(lon - previousLon));
+			previousLat = lat;
+			previousLon = lon;
+		}
+		return Arrays.copyOf(buffer, pos);
+	}
+
+	public static LatLonGeo[] decode(byte[] bytes) {
+		if (bytes.length == 0 || bytes[0] != VERSION) {
+			throw new IllegalArgumentException("Unsupported point encoding version: " + (bytes.length == 0 ? "empty" : bytes[0]));
+		}
+		int[] pos = {1};
+		int count = (int) readVarint(bytes, pos);
+		LatLonGeo[] pts = new LatLonGeo[count];
+		long lat = 0;
+		long lon = 0;
+		for (int i = 0; i < count; i++) {
+			lat += unzigzag(readVarint(bytes, pos));
+			lon += unzigzag(readVarint(bytes, pos));
+			// dividing gives the double nearest the decimal value, as parsing the CSV form would
+			pts[i] = LatLonGeo.fromDeg(lat / UNITS_PER_DEGREE, lon / UNITS_PER_DEGREE);
+		}
+		return pts;
+	}
+
+	public static ArrayList<LatLonGeo> decodeList(byte[] bytes) {
+		return new ArrayList<>(Arrays.asList(decode(bytes)));
+	}
+
+	public static String encodeToBase64(List<LatLonGeo> pts) {
+		return Base64.getEncoder().encodeToString(encode(pts));
+	}
+
+	public static String encodeToBase64(LatLonGeo[] pts) {
+		return Base64.getEncoder().encodeToString(encode(pts));
+	}
+
+	public static LatLonGeo[] decodeBase64(String encoded) {
+		return decode(Base64.getDecoder().decode(encoded));
+	}
+
+	public static ArrayList<LatLonGeo> decodeBase64ToList(String encoded) {
+		return decodeList(Base64.getDecoder().decode(encoded));
+	}
+
+	private static void checkDegrees(int index, double degrees) {
+		// also false for NaN
+		if (!(Math.abs(degrees) <= MAX_ABS_DEGREES)) {
+			throw new IllegalArgumentException("Point " + index + " has a coordinate that cannot be encoded: " + degrees);
+		}
+	}
+
+	private static long toUnits(double degrees) {
+		return Math.round(degrees * UNITS_PER_DEGREE);
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static int writeVarint(byte[] buffer, int pos, long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer[pos++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[pos++] = (byte) value;
+		return pos;
+	}
+
+	private static long readVarint(byte[] bytes, int[] pos) {
+		long value = 0;
+		int shift = 0;
+		while (true) {
+			if (pos[0] >= bytes.length) {
+				throw new IllegalArgumentException("Truncated point encoding");
+			}
+			byte b = bytes[pos[0]++];
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+			shift += 7;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * A polygon prepared for many point-in-polygon queries.
+ * <br>
+ * Vertices are copied into primitive arrays, and the edges are bucketed into horizontal slabs between
+ * consecutive distinct vertex latitudes. A query binary searches for its slab and runs the ray-casting test
+ * of {@link GeometryUtils#polygonContainsPoint(LatLonGeo, List)} against only the k edges that span that slab,
+ * so it costs O(log n + k) and gives the same answer as GeometryUtils, including on edges and vertices.
+ * <br>
+ * Like GeometryUtils, coordinates are treated as planar lon/lat, so the polygon should be small and must
+ * not cross the antimeridian. Instances are immutable and thread-safe.
+ */
+public class PreparedPolygon {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PreparedPolygon.class);
+
+    private final int numVertices;
+
+    private final double minLat;
+    private final double maxLat;
+    private final double minLon;
+    private final double maxLon;
+
+    // edge e runs from vertex (edgeLonJ[e], edgeLatJ[e]) to vertex (edgeLonI[e], edgeLatI[e]), as in GeometryUtils
+    private final double[] edgeLatI;
+    private final double[] edgeLonI;
+    private final double[] edgeLatJ;
+    private final double[] edgeLonJ;
+
+    // distinct vertex latitudes, ascending; slab k is [slabLat[k], slabLat[k + 1])
+    private final double[] slabLat;
+    // edges of slab k are slabEdges[slabStart[k]] .. slabEdges[slabStart[k + 1] - 1]
+    private final int[] slabStart;
+    private final int[] slabEdges;
+
+    public PreparedPolygon(List<LatLonGeo> vertices) {
+        this.numVertices = vertices == null ? 0 : vertices.size();
+        if (numVertices < 3) {
+            LOGGER.warn("Polygon has less than 3 points, not valid");
+            minLat = maxLat = minLon = maxLon = 0;
+            edgeLatI = edgeLonI = edgeLatJ = edgeLonJ = slabLat = new double[0];
+            slabStart = new int[] {0};
+            slabEdges = new int[0];
+            return;
+        }
+
+        double[] lat = new double[numVertices];
+        double[] lon = new double[numVertices];
+        for (int v = 0; v < numVertices; v++) {
+            lat[v] = vertices.get(v).getLatDeg();
+            lon[v] = vertices.get(v).getLonDeg();
+        }
+
+        edgeLatI = new double[numVertices];
+        edgeLonI = new double[numVertices];
+        edgeLatJ = new double[numVertices];
+        edgeLonJ = new double[numVertices];
+        double south = Double.POSITIVE_INFINITY;
+        double north = Double.NEGATIVE_INFINITY;
+        double west = Double.POSITIVE_INFINITY;
+        double east = Double.NEGATIVE_INFINITY;
+        for (int i = 0, j = numVertices - 1; i < numVertices; j = i++) {
+            edgeLatI[i] = lat[i];
+            edgeLonI[i] = lon[i];
+            edgeLatJ[i] = lat[j];
+            edgeLonJ[i] = lon[j];
+            south = Math.min(south, lat[i]);
+            north = Math.max(north, lat[i]);
+            west = Math.min(west, lon[i]);
+            east = Math.max(east, lon[i]);
+        }
+        minLat = south;
+        maxLat = north;
+        minLon = west;
+        maxLon = east;
+
+        double[] sorted = lat.clone();
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int k = 0; k < sorted.length; k++) {
+            if (k == 0 || sorted[k] != sorted[k - 1]) {
+                sorted[distinct++] = sorted[k];
+            }
+        }
+        slabLat = Arrays.copyOf(sorted, distinct);
+
+        // An edge crosses the ray at latitude y iff min <= y < max, so within slab k it crosses
+        // iff min <= slabLat[k] and max >= slabLat[k + 1]. Count first, then fill.
+        int numSlabs = Math.max(0, distinct - 1);
+        slabStart = new int[numSlabs + 1];
+        int[] first = new int[numVertices];
+        int[] last = new int[numVertices];
+        for (int e = 0; e < numVertices; e++) {
+            double low = Math.min(edgeLatI[e], edgeLatJ[e]);
+            double high = Math.max(edgeLatI[e], edgeLatJ[e]);
+            first[e] = Arrays.binarySearch(slabLat, low);
+            // slabs first[e] .. last[e] - 1; empty for horizontal edges
+            last[e] = Arrays.binarySearch(slabLat, high);
+            for (int k = first[e]; k < last[e]; k++) {
+                slabStart[k + 1]++;
+            }
+        }
+        for (int k = 0; k < numSlabs; k++) {
+            slabStart[k + 1] += slabStart[k];
+        }
+        slabEdges = new int[slabStart[numSlabs]];
+        int[] fill = Arrays.copyOf(slabStart, numSlabs);
+        for (int e = 0; e < numVertices; e++) {
+            for (int k = first[e]; k < last[e]; k++) {
+                slabEdges[fill[k]++] = e;
+            }
+        }
+    }
+
+    public boolean contains(LatLonGeo p) {
+        return contains(p.getLatDeg(), p.getLonDeg());
+    }
+
+    /**
+     * @return true if the point is inside the polygon, using the same ray-casting rule as GeometryUtils
+     */
+    public boolean contains(double latDeg, double lonDeg) {
+        if (latDeg < minLat || latDeg >= maxLat || lonDeg < minLon || lonDeg > maxLon || slabLat.length < 2) {
+            // no edge has min <= y < max outside of [minLat, maxLat), and nothing is to the right of a point east of maxLon
+            return false;
+        }
+        int k = Arrays.binarySearch(slabLat, latDeg);
+        if (k < 0) {
+            k = -k - 2;
+        }
+        boolean inside = false;
+        double x = lonDeg;
+        double y = latDeg;
+        for (int s = slabStart[k]; s < slabStart[k + 1]; s++) {
+            int e = slabEdges[s];
+            double xi = edgeLonI[e];
+            double yi = edgeLatI[e];
+            double xj = edgeLonJ[e];
+            double yj = edgeLatJ[e];
+            if (x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Batch form of {@link #contains(double, double)}: bit i of out is set to whether point i is inside.
+     * Other bits of out are left alone.
+     */
+    public void containsAll(double[] latDeg, double[] lonDeg, BitSet out) {
+        if (latDeg.length != lonDeg.length) {
+            throw new IllegalArgumentException("latDeg and lonDeg must have the same length");
+        }
+        for (int i = 0; i < latDeg.length; i++) {
+            out.set(i, contains(latDeg[i], lonDeg[i]));
+        }
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    public double getMinLon() {
+        return minLon;
+    }
+
+    public double getMaxLon() {
+        return maxLon;
+    }
+}
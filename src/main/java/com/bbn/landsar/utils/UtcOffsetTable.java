@@ -0,0 +1,164 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+
+package com.bbn.landsar.utils;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the UTC offset transitions (e.g. daylight savings changes) of a TimeZone, so that looking up the offset
+ * at a time is a search over the handful of transitions near it instead of a {@link TimeZone#getOffset(long)} call.
+ * <br>
+ * Transitions are cached for a window of years around the most recently requested time, and the window moves
+ * when a time outside it is requested. Time zones the java.time rules do not know (e.g. custom SimpleTimeZones)
+ * fall back to calling TimeZone.getOffset. Instances are thread-safe.
+ */
+public class UtcOffsetTable {
+	private static final Logger LOGGER = LoggerFactory.getLogger(UtcOffsetTable.class);
+
+	private static final long WINDOW_BEFORE = 366 * DateTimeUtilities.millisecsInDay;
+	private static final long WINDOW_AFTER = 3 * 366 * DateTimeUtilities.millisecsInDay;
+
+	private final TimeZone timeZone;
+	// null if the offsets come from timeZone directly
+	private final ZoneRules rules;
+	private volatile Window window;
+
+	private static class Window {
+		final long start;
+		final long end;
+		// offsets[k] applies from transitions[k - 1] (inclusive) to transitions[k] (exclusive)
+		final long[] transitions;
+		final int[] offsets;
+
+		Window(long start, long end, long[] transitions, int[] offsets) {
+			this.start = start;
+			this.end = end;
+			this.transitions = transitions;
+			this.offsets = offsets;
+		}
+
+		int indexOf(long time) {
+			int k = Arrays.binarySearch(transitions, time);
+			return k >= 0 ? k + 1 : -k - 1;
+		}
+	}
+
+	public UtcOffsetTable(TimeZone timeZone) {
+		this.timeZone = timeZone;
+		this.rules = rulesFor(timeZone);
+	}
+
+	private static ZoneRules rulesFor(TimeZone timeZone) {
+		try {
+			ZoneRules rules = timeZone.toZoneId().getRules();
+			long now = System.currentTimeMillis();
+			for (long time : new long[] {0, now, now + 183 * DateTimeUtilities.millisecsInDay}) {
+				if (rules.getOffset(Instant.ofEpochMilli(time)).getTotalSeconds() * 1000L != timeZone.getOffset(time)) {
+					LOGGER.debug("java.time rules for {} do not match the TimeZone, not caching offsets", timeZone.getID());
+					return null;
+				}
+			}
+			return rules;
+		} catch (DateTimeException e) {
+			LOGGER.debug("No java.time rules for {}, not caching offsets", timeZone.getID());
+			return null;
+		}
+	}
+
+	public TimeZone getTimeZone() {
+		return timeZone;
+	}
+
+	/**
+	 * @return the same as {@link TimeZone#getOffset(long)}: milliseconds to add to UTC to get local time
+	 */
+	public int getOffset(long time) {
+		if (rules == null) {
+			return timeZone.getOffset(time);
+		}
+		Window current = windowFor(time);
+		return current.offsets[current.indexOf(time)];
+	}
+
+	/**
+	 * @return the first time after the given time at which the offset changes, or Long.MAX_VALUE if it never does
+	 */
+	public long nextTransition(long time) {
+		if (rules == null) {
+			return time + 1;
+		}
+		if (rules.isFixedOffset()) {
+			return Long.MAX_VALUE;
+		}
+		Window current = windowFor(time);
+		int k = current.indexOf(time);
+		if (k < current.transitions.length) {
+			return current.transitions[k];
+		}
+		// no transition before the end of the window; the offset may still change after it
+		return current.end;
+	}
+
+	private Window windowFor(long time) {
+		Window current = window;
+		if (current == null || time < current.start || time >= current.end) {
+			current = buildWindow(time);
+			window = current;
+		}
+		return current;
+	}
+
+	private Window buildWindow(long time) {
+		long start = saturatedAdd(time, -WINDOW_BEFORE);
+		long end = saturatedAdd(time, WINDOW_AFTER);
+		long[] transitions = new long[8];
+		int[] offsets = new int[9];
+		int numTransitions = 0;
+		offsets[0] = rules.getOffset(Instant.ofEpochMilli(start)).getTotalSeconds() * 1000;
+		ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(start));
+		while (transition != null && transition.toEpochSecond() * 1000 < end) {
+			if (numTransitions == transitions.length) {
+				transitions = Arrays.copyOf(transitions, 2 * numTransitions);
+				offsets = Arrays.copyOf(offsets, 2 * numTransitions + 1);
+			}
+			transitions[numTransitions] = transition.toEpochSecond() * 1000;
+			offsets[++numTransitions] = transition.getOffsetAfter().getTotalSeconds() * 1000;
+			transition = rules.nextTransition(transition.getInstant());
+		}
+		return new Window(start, end, Arrays.copyOf(transitions, numTransitions), Arrays.copyOf(offsets, numTransitions + 1));
+	}
+
+	private static long saturatedAdd(long time, long delta) {
+		long sum = time + delta;
+		// overflow iff both operands have the same sign and the sum's sign differs
+		if (((time ^ sum) & (delta ^ sum)) < 0) {
+			return delta < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+		return sum;
+	}
+}
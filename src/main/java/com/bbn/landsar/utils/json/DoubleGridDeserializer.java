@@ -0,0 +1,89 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+package com.bbn.landsar.utils.json;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Reads nested JSON arrays of numbers into a double[][] straight from the token stream.
+ */
+public class DoubleGridDeserializer extends StdDeserializer<double[][]> {
+
+	private static final long serialVersionUID = 1L;
+
+	public DoubleGridDeserializer() {
+		super(double[][].class);
+	}
+
+	@Override
+	public double[][] deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+		if (p.getCurrentToken() != JsonToken.START_ARRAY) {
+			return (double[][]) ctxt.handleUnexpectedToken(double[][].class, p);
+		}
+		double[][] rows = new double[16][];
+		int numRows = 0;
+		JsonToken token;
+		while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+			if (numRows == rows.length) {
+				rows = Arrays.copyOf(rows, numRows * 2);
+			}
+			if (token == JsonToken.VALUE_NULL) {
+				rows[numRows++] = null;
+			} else if (token == JsonToken.START_ARRAY) {
+				rows[numRows++] = readRow(p, ctxt);
+			} else {
+				return (double[][]) ctxt.handleUnexpectedToken(double[][].class, p);
+			}
+		}
+		return Arrays.copyOf(rows, numRows);
+	}
+
+	/**
+	 * Reads the numbers up to the END_ARRAY matching the current START_ARRAY
+	 */
+	static double[] readRow(JsonParser p, DeserializationContext ctxt) throws IOException {
+		double[] row = new double[64];
+		int n = 0;
+		JsonToken token;
+		while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+			if (n == row.length) {
+				row = Arrays.copyOf(row, n * 2);
+			}
+			row[n++] = readDouble(p, token, ctxt);
+		}
+		return Arrays.copyOf(row, n);
+	}
+
+	static double readDouble(JsonParser p, JsonToken token, DeserializationContext ctxt) throws IOException {
+		if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+			return p.getDoubleValue();
+		}
+		if (token == JsonToken.VALUE_STRING) {
+			// NaN and infinities are written as strings unless ALLOW_NON_NUMERIC_NUMBERS is on
+			return Double.parseDouble(p.getText().trim());
+		}
+		return (Double) ctxt.handleUnexpectedToken(Double.TYPE, p);
+	}
+}
@@ -0,0 +1,51 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+package com.bbn.landsar.utils.json;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a double[][] (e.g. ProbabilityDistribution cell probabilities) as nested JSON arrays, one
+ * {@link JsonGenerator#writeArray(double[], int, int)} call per row, without boxing or per-element serializer lookups.
+ */
+public class DoubleGridSerializer extends StdSerializer<double[][]> {
+
+	private static final long serialVersionUID = 1L;
+
+	public DoubleGridSerializer() {
+		super(double[][].class);
+	}
+
+	@Override
+	public void serialize(double[][] grid, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		gen.writeStartArray(grid.length);
+		for (double[] row : grid) {
+			if (row == null) {
+				gen.writeNull();
+			} else {
+				gen.writeArray(row, 0, row.length);
+			}
+		}
+		gen.writeEndArray();
+	}
+}
@@ -0,0 +1,55 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+package com.bbn.landsar.utils.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Reads a JSON array of numbers into an ArrayList&lt;Double&gt; straight from the token stream.
+ */
+public class DoubleListDeserializer extends StdDeserializer<List<Double>> {
+
+	private static final long serialVersionUID = 1L;
+
+	public DoubleListDeserializer() {
+		super(List.class);
+	}
+
+	@Override
+	public List<Double> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+		if (p.getCurrentToken() != JsonToken.START_ARRAY) {
+			@SuppressWarnings("unchecked")
+			List<Double> handled = (List<Double>) ctxt.handleUnexpectedToken(List.class, p);
+			return handled;
+		}
+		List<Double> values = new ArrayList<>();
+		JsonToken token;
+		while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+			values.add(token == JsonToken.VALUE_NULL ? null : DoubleGridDeserializer.readDouble(p, token, ctxt));
+		}
+		return values;
+	}
+}
@@ -0,0 +1,60 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+package com.bbn.landsar.utils.json;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a List&lt;Double&gt; (sample weights, p(detection) values) as a JSON array of numbers directly,
+ * instead of going through the generic collection serializer for each element.
+ */
+public class DoubleListSerializer extends StdSerializer<List<Double>> {
+
+	private static final long serialVersionUID = 1L;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public DoubleListSerializer() {
+		super((Class<List<Double>>) (Class) List.class);
+	}
+
+	@Override
+	public void serialize(List<Double> values, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		int size = values.size();
+		gen.writeStartArray(size);
+		for (int i = 0; i < size; i++) {
+			Double value = values.get(i);
+			if (value == null) {
+				gen.writeNull();
+			} else {
+				gen.writeNumber(value.doubleValue());
+			}
+		}
+		gen.writeEndArray();
+	}
+
+	@Override
+	public boolean isEmpty(SerializerProvider provider, List<Double> value) {
+		return value.isEmpty();
+	}
+}
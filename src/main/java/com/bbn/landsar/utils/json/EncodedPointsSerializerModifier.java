@@ -0,0 +1,87 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+package com.bbn.landsar.utils.json;
+
+import java.util.List;
+import java.util.function.Function;
+
+import com.bbn.landsar.motionmodel.path.Path;
+import com.bbn.landsar.motionmodel.path.Sample;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+/**
+ * Writes the points of a {@link Sample} (ptsEncoded) and {@link Path} (pathEncoded) in the compact
+ * {@link com.bbn.landsar.utils.PointCodec} form in place of the readable ptsString and pathString.
+ * Both forms are always read, but SDK versions before PointCodec only read the readable one.
+ */
+class EncodedPointsSerializerModifier extends BeanSerializerModifier {
+
+	@Override
+	public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+			List<BeanPropertyWriter> beanProperties) {
+		Class<?> beanClass = beanDesc.getBeanClass();
+		if (Sample.class.isAssignableFrom(beanClass)) {
+			replace(beanProperties, "ptsString", "ptsEncoded", bean -> ((Sample) bean).getPtsEncoded());
+		} else if (Path.class.isAssignableFrom(beanClass)) {
+			replace(beanProperties, "pathString", "pathEncoded", bean -> ((Path) bean).getPathEncoded());
+		}
+		return beanProperties;
+	}
+
+	private static void replace(List<BeanPropertyWriter> beanProperties, String readableName, String encodedName,
+			Function<Object, String> encoder) {
+		for (int i = 0; i < beanProperties.size(); i++) {
+			if (beanProperties.get(i).getName().equals(readableName)) {
+				beanProperties.set(i, new EncodedPointsWriter(beanProperties.get(i), encodedName, encoder));
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Takes the place of the readable property, under the encoded property's name
+	 */
+	private static class EncodedPointsWriter extends BeanPropertyWriter {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient Function<Object, String> encoder;
+
+		EncodedPointsWriter(BeanPropertyWriter base, String name, Function<Object, String> encoder) {
+			super(base, PropertyName.construct(name));
+			this.encoder = encoder;
+		}
+
+		@Override
+		public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+			gen.writeStringField(getName(), encoder.apply(bean));
+		}
+
+		@Override
+		public void serializeAsElement(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+			gen.writeString(encoder.apply(bean));
+		}
+	}
+}
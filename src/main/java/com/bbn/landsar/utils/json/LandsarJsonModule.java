@@ -0,0 +1,167 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+package com.bbn.landsar.utils.json;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.jsontype.TypeDeserializer;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Jackson module with streaming serializers for the bulky values of motion model state:
+ * double[][] cell grids, List&lt;Double&gt; weights, and List&lt;LatLonGeo&gt; point lists.
+ * <br>
+ * The grid and weight formats are the same JSON that default databind writes, so either can read the other's output.
+ * Compact formats are only written when asked for with {@link #LandsarJsonModule(boolean)}, since older readers cannot read them:
+ * point lists as flat [lat, lon, ...] arrays, which default databind cannot read back, and the points of a Sample or Path
+ * in the {@link com.bbn.landsar.utils.PointCodec} form, which SDK versions before it cannot read. Both forms are always read.
+ * <br>
+ * The module is listed in META-INF/services, so mappers that call {@link ObjectMapper#findAndRegisterModules()}
+ * pick it up without code changes. That registration uses the default constructor, so it does not change the messaging format.
+ */
+public class LandsarJsonModule extends SimpleModule {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final String SMILE_FACTORY_CLASS = "com.fasterxml.jackson.dataformat.smile.SmileFactory";
+
+	private final boolean compact;
+
+	/**
+	 * Writes the same JSON as default databind
+	 */
+	public LandsarJsonModule() {
+		this(false);
+	}
+
+	/**
+	 * @param compact - whether to write List&lt;LatLonGeo&gt; as flat [lat, lon, ...] arrays, which only readers with this module
+	 * can read, and Sample and Path points encoded, which only readers with this SDK version can read
+	 */
+	public LandsarJsonModule(boolean compact) {
+		super(LandsarJsonModule.class.getSimpleName());
+		this.compact = compact;
+		addSerializer(double[][].class, new DoubleGridSerializer());
+		addDeserializer(double[][].class, new DoubleGridDeserializer());
+	}
+
+	@Override
+	public void setupModule(SetupContext context) {
+		super.setupModule(context);
+		context.addSerializers(new ListSerializers(compact));
+		context.addDeserializers(new ListDeserializers());
+		if (compact) {
+			context.addBeanSerializerModifier(new EncodedPointsSerializerModifier());
+		}
+	}
+
+	/**
+	 * @return a JSON mapper with this module registered, writing the compact formats; meant for a plugin's own saved state
+	 */
+	public static ObjectMapper newObjectMapper() {
+		return new ObjectMapper().registerModule(new LandsarJsonModule(true));
+	}
+
+	/**
+	 * @return a mapper for the Smile binary format (smaller and faster than JSON text) with this module registered, writing the compact formats
+	 * @throws IllegalStateException if jackson-dataformat-smile, which the SDK does not bring in, is not on the classpath
+	 */
+	public static ObjectMapper newSmileObjectMapper() {
+		try {
+			Class.forName(SMILE_FACTORY_CLASS, false, LandsarJsonModule.class.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			throw new IllegalStateException("The Smile format needs com.fasterxml.jackson.dataformat:jackson-dataformat-smile on the classpath", e);
+		}
+		return SmileMappers.newObjectMapper().registerModule(new LandsarJsonModule(true));
+	}
+
+	/**
+	 * Only loaded once the Smile classes are known to be present
+	 */
+	private static class SmileMappers {
+		static ObjectMapper newObjectMapper() {
+			return new ObjectMapper(new SmileFactory());
+		}
+	}
+
+	/**
+	 * Lists are matched on their element type, which a plain addSerializer(Class) cannot do
+	 */
+	private static class ListSerializers extends Serializers.Base {
+		private final DoubleListSerializer doubleListSerializer = new DoubleListSerializer();
+		// null unless flat point lists were asked for
+		private final PointListSerializer pointListSerializer;
+
+		ListSerializers(boolean writeFlatPointLists) {
+			this.pointListSerializer = writeFlatPointLists ? new PointListSerializer() : null;
+		}
+
+		@Override
+		public JsonSerializer<?> findCollectionSerializer(SerializationConfig config, CollectionType type, BeanDescription beanDesc,
+				TypeSerializer elementTypeSerializer, JsonSerializer<Object> elementValueSerializer) {
+			if (!List.class.isAssignableFrom(type.getRawClass()) || elementTypeSerializer != null || elementValueSerializer != null) {
+				// keep polymorphic type info and per-property element serializers
+				return null;
+			}
+			Class<?> elementClass = type.getContentType().getRawClass();
+			if (elementClass == Double.class) {
+				return doubleListSerializer;
+			}
+			if (elementClass == LatLonGeo.class) {
+				return pointListSerializer;
+			}
+			return null;
+		}
+	}
+
+	private static class ListDeserializers extends Deserializers.Base {
+		private final DoubleListDeserializer doubleListDeserializer = new DoubleListDeserializer();
+		private final PointListDeserializer pointListDeserializer = new PointListDeserializer();
+
+		@Override
+		public JsonDeserializer<?> findCollectionDeserializer(CollectionType type, DeserializationConfig config, BeanDescription beanDesc,
+				TypeDeserializer elementTypeDeserializer, JsonDeserializer<?> elementDeserializer) {
+			// the deserializers create ArrayLists, so only take declared types an ArrayList can be assigned to
+			if (!type.getRawClass().isAssignableFrom(ArrayList.class) || elementTypeDeserializer != null || elementDeserializer != null) {
+				return null;
+			}
+			Class<?> elementClass = type.getContentType().getRawClass();
+			if (elementClass == Double.class) {
+				return doubleListDeserializer;
+			}
+			if (elementClass == LatLonGeo.class) {
+				return pointListDeserializer;
+			}
+			return null;
+		}
+	}
+}
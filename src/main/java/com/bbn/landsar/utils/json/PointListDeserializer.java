@@ -0,0 +1,89 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+package com.bbn.landsar.utils.json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Reads a List&lt;LatLonGeo&gt; from the flat form written by {@link PointListSerializer},
+ * and also from an array of [lat, lon] pairs or of objects with latDeg and lonDeg fields.
+ */
+public class PointListDeserializer extends StdDeserializer<List<LatLonGeo>> {
+
+	private static final long serialVersionUID = 1L;
+
+	public PointListDeserializer() {
+		super(List.class);
+	}
+
+	@Override
+	public List<LatLonGeo> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+		if (p.getCurrentToken() != JsonToken.START_ARRAY) {
+			@SuppressWarnings("unchecked")
+			List<LatLonGeo> handled = (List<LatLonGeo>) ctxt.handleUnexpectedToken(List.class, p);
+			return handled;
+		}
+		List<LatLonGeo> points = new ArrayList<>();
+		JsonToken token;
+		while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+			if (token == JsonToken.START_ARRAY) {
+				double[] pair = DoubleGridDeserializer.readRow(p, ctxt);
+				if (pair.length != 2) {
+					throw ctxt.mappingException("Expected a [lat, lon] pair but got " + pair.length + " values");
+				}
+				points.add(LatLonGeo.fromDeg(pair[0], pair[1]));
+			} else if (token == JsonToken.START_OBJECT) {
+				points.add(readObject(p, ctxt));
+			} else {
+				double lat = DoubleGridDeserializer.readDouble(p, token, ctxt);
+				double lon = DoubleGridDeserializer.readDouble(p, p.nextToken(), ctxt);
+				points.add(LatLonGeo.fromDeg(lat, lon));
+			}
+		}
+		return points;
+	}
+
+	private static LatLonGeo readObject(JsonParser p, DeserializationContext ctxt) throws IOException {
+		double lat = Double.NaN;
+		double lon = Double.NaN;
+		while (p.nextToken() == JsonToken.FIELD_NAME) {
+			String name = p.getCurrentName();
+			JsonToken value = p.nextToken();
+			if ("latDeg".equals(name)) {
+				lat = DoubleGridDeserializer.readDouble(p, value, ctxt);
+			} else if ("lonDeg".equals(name)) {
+				lon = DoubleGridDeserializer.readDouble(p, value, ctxt);
+			} else {
+				p.skipChildren();
+			}
+		}
+		if (Double.isNaN(lat) || Double.isNaN(lon)) {
+			throw ctxt.mappingException("Point is missing latDeg or lonDeg");
+		}
+		return LatLonGeo.fromDeg(lat, lon);
+	}
+}
@@ -0,0 +1,58 @@
+/*
+LandSAR Motion Model Software Development Kit
+Copyright (c) 2023 Raytheon Technologies
+
+This program is free software: you can redistribute it and/or modify
+it under the terms of the GNU General Public License as published by
+the Free Software Foundation, either version 3 of the License, or
+(at your option) any later version.
+
+This program is distributed in the hope that it will be useful,
+but WITHOUT ANY WARRANTY; without even the implied warranty of
+MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+GNU General Public License for more details.
+
+You should have received a copy of the GNU General Public License
+along with this program.  If not, see <https://www.gnu.org/licenses/>.
+https://github.com/atapas/add-copyright.git
+*/
+package com.bbn.landsar.utils.json;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Writes a List&lt;LatLonGeo&gt; as a flat JSON array of numbers in degrees: [lat0, lon0, lat1, lon1, ...].
+ * @see PointListDeserializer
+ */
+public class PointListSerializer extends StdSerializer<List<LatLonGeo>> {
+
+	private static final long serialVersionUID = 1L;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public PointListSerializer() {
+		super((Class<List<LatLonGeo>>) (Class) List.class);
+	}
+
+	@Override
+	public void serialize(List<LatLonGeo> points, JsonGenerator gen, SerializerProvider provider) throws IOException {
+		int size = points.size();
+		gen.writeStartArray(size * 2);
+		for (int i = 0; i < size; i++) {
+			LatLonGeo point = points.get(i);
+			gen.writeNumber(point.getLatDeg());
+			gen.writeNumber(point.getLonDeg());
+		}
+		gen.writeEndArray();
+	}
+
+	@Override
+	public boolean isEmpty(SerializerProvider provider, List<LatLonGeo> value) {
+		return value.isEmpty();
+	}
+}
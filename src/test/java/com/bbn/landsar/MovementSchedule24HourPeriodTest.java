@@ -0,0 +1,105 @@
+package com.bbn.landsar;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.bbn.landsar.MovementSchedule.TimeInterval;
+import com.bbn.landsar.MovementSchedule24HourPeriod.MovementStatus;
+import com.bbn.landsar.utils.DateTimeUtilities;
+import com.bbn.landsar.utils.UtcOffsetTable;
+
+/**
+ * Tests the table lookups of MovementSchedule24HourPeriod against summing the intersections with every moving interval
+ */
+public class MovementSchedule24HourPeriodTest {
+
+	// 2023-01-01T00:00Z
+	private static final long START_TIME = 1672531200000L;
+
+	private static final TimeZone[] TIME_ZONES = {
+			TimeZone.getTimeZone("UTC"),
+			TimeZone.getTimeZone("America/New_York"),
+			TimeZone.getTimeZone("Australia/Lord_Howe"),
+			TimeZone.getTimeZone("Asia/Kolkata"),
+			new SimpleTimeZone(-5 * 3600 * 1000, "Custom", 2, 8, -Calendar.SUNDAY, 7200000, 10, 1, -Calendar.SUNDAY, 7200000)
+	};
+
+	@Test
+	public void testTimeSpentMovingMatchesIntervals() {
+		Random random = new Random(43);
+		for (TimeZone timeZone : TIME_ZONES) {
+			// changes on whole hours, and at times that are not on a minute boundary
+			for (long[] changeTimes : new long[][] {
+					{hours(1), hours(7), hours(17), hours(23)},
+					{hours(5.0001), hours(11.5), hours(13.25), hours(19.99999)}}) {
+				MovementSchedule24HourPeriod schedule = new MovementSchedule24HourPeriod(changeTimes, MovementStatus.Resting, "Test", timeZone);
+				for (int i = 0; i < 20000; i++) {
+					long startTime = START_TIME + (long) (random.nextDouble() * 2 * 365 * DateTimeUtilities.millisecsInDay);
+					long duration = i % 2 == 0 ? random.nextInt(3 * DateTimeUtilities.millisecInMin) : (long) (random.nextDouble() * 3 * DateTimeUtilities.millisecsInDay);
+					assertEquals(timeZone.getID(), referenceTimeSpentMoving(schedule, startTime, startTime + duration),
+							schedule.timeSpentMoving(startTime, startTime + duration));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBatchMatchesSingleCalls() {
+		for (TimeZone timeZone : TIME_ZONES) {
+			MovementSchedule schedule = ScheduleManager.getOrCreateScheduleForTimeZone(ScheduleManager.StandardSchedule.Day, timeZone);
+			if (schedule == null) {
+				// no standard schedules for custom time zones
+				continue;
+			}
+			long timeDelta = 7 * DateTimeUtilities.millisecInMin;
+			long[] batch = new long[200 * 24 * 60 / 7];
+			schedule.timeSpentMoving(START_TIME + 12345, timeDelta, batch);
+			for (int k = 0; k < batch.length; k++) {
+				long stepStart = START_TIME + 12345 + k * timeDelta;
+				assertEquals(schedule.timeSpentMoving(stepStart, stepStart + timeDelta), batch[k]);
+			}
+		}
+	}
+
+	@Test
+	public void testUtcOffsetsMatchTimeZone() {
+		for (TimeZone timeZone : TIME_ZONES) {
+			UtcOffsetTable offsets = new UtcOffsetTable(timeZone);
+			for (long time = START_TIME - 3 * 366 * DateTimeUtilities.millisecsInDay; time < START_TIME + 6 * 366 * DateTimeUtilities.millisecsInDay;
+					time += 29 * DateTimeUtilities.millisecInMin) {
+				assertEquals(timeZone.getID(), timeZone.getOffset(time), offsets.getOffset(time));
+				long next = offsets.nextTransition(time);
+				if (next != Long.MAX_VALUE) {
+					assertEquals(timeZone.getOffset(time), timeZone.getOffset(next - 1));
+				}
+			}
+		}
+	}
+
+	private static long hours(double hours) {
+		return (long) (hours * DateTimeUtilities.millisecInHour);
+	}
+
+	/**
+	 * The original computation: the whole days, plus the intersection of the rest with each moving interval
+	 */
+	private static long referenceTimeSpentMoving(MovementSchedule24HourPeriod schedule, long startTime, long endTime) {
+		long day = DateTimeUtilities.millisecsInDay;
+		long numWholeDays = (endTime - startTime) / day;
+		long timeMovingPerDay = schedule.timeSpentMoving(START_TIME, START_TIME + day);
+		long remainingTime = (endTime - startTime) - numWholeDays * day;
+		long t0 = (day + startTime + schedule.getTimeZone().getOffset(startTime)) % day;
+		TimeInterval interval = new TimeInterval(t0, t0 + remainingTime);
+		long timeMoving = timeMovingPerDay * numWholeDays;
+		for (TimeInterval t : schedule.getMovingIntervals()) {
+			timeMoving += t.calcIntersectionDuration(interval);
+		}
+		return timeMoving;
+	}
+}
@@ -0,0 +1,61 @@
+package com.bbn.landsar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.bbn.landsar.ScheduleManager.StandardSchedule;
+
+/**
+ * Tests that concurrent lookups of schedules by name create each schedule once
+ */
+public class ScheduleManagerTest {
+
+	@Test
+	public void testConcurrentRecreateReturnsSameSchedules() throws Exception {
+		String[] timeZoneIds = TimeZone.getAvailableIDs();
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < timeZoneIds.length; i += 7) {
+			for (StandardSchedule type : StandardSchedule.values()) {
+				names.add(ScheduleManager.nameConvention(type, TimeZone.getTimeZone(timeZoneIds[i])));
+			}
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<List<MovementSchedule>>> results = new ArrayList<>();
+			for (int thread = 0; thread < 8; thread++) {
+				results.add(executor.submit((Callable<List<MovementSchedule>>) () -> {
+					List<MovementSchedule> schedules = new ArrayList<>();
+					for (String name : names) {
+						schedules.add(ScheduleManager.getOrRecreateScheduleForName(name));
+					}
+					return schedules;
+				}));
+			}
+			List<MovementSchedule> first = results.get(0).get();
+			for (Future<List<MovementSchedule>> result : results) {
+				List<MovementSchedule> schedules = result.get();
+				for (int i = 0; i < names.size(); i++) {
+					assertNotNull(names.get(i), schedules.get(i));
+					assertEquals(names.get(i), schedules.get(i).getName());
+					assertSame(first.get(i), schedules.get(i));
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+		List<String> scheduleNames = ScheduleManager.getScheduleNames();
+		assertEquals(scheduleNames.size(), new HashSet<>(scheduleNames).size());
+	}
+}
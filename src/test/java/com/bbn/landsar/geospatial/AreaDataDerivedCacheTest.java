@@ -0,0 +1,107 @@
+package com.bbn.landsar.geospatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests build-once, memory accounting and LRU eviction of the derived data cache
+ */
+public class AreaDataDerivedCacheTest {
+
+	private static final AreaDataDerivedCache.Key<double[]> GRID = AreaDataDerivedCache.Key.of("grid", double[].class, grid -> 8L * grid.length);
+
+	@Test
+	public void testConcurrentCallersBuildOnce() throws Exception {
+		AreaDataDerivedCache cache = new AreaDataDerivedCache(1 << 20);
+		TestAreaData areaData = TestAreaData.landOnly(0, 1, 0, 1, 10, 10);
+		AtomicInteger builds = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<double[]>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit((Callable<double[]>) () -> {
+					start.await();
+					return cache.computeIfAbsent(areaData, GRID, a -> {
+						builds.incrementAndGet();
+						return new double[100];
+					});
+				}));
+			}
+			start.countDown();
+			double[] first = results.get(0).get();
+			for (Future<double[]> result : results) {
+				assertSame(first, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(1, builds.get());
+		assertEquals(800, cache.getUsedBytes());
+	}
+
+	@Test
+	public void testKeysAndAreasAreSeparate() {
+		AreaDataDerivedCache cache = new AreaDataDerivedCache(1 << 20);
+		TestAreaData areaData = TestAreaData.landOnly(0, 1, 0, 1, 10, 10);
+		TestAreaData otherAreaData = TestAreaData.landOnly(0, 1, 0, 1, 10, 10);
+		double[] grid = cache.computeIfAbsent(areaData, GRID, a -> new double[1]);
+		assertNotSame(grid, cache.computeIfAbsent(otherAreaData, GRID, a -> new double[1]));
+		assertNotSame(grid, cache.computeIfAbsent(areaData, GRID.qualifiedBy("north"), a -> new double[1]));
+		assertSame(grid, cache.computeIfAbsent(areaData, GRID.qualifiedBy(), a -> new double[1]));
+		assertEquals(3, cache.size());
+		cache.invalidate(areaData.getId());
+		assertEquals(1, cache.size());
+		assertEquals(8, cache.getUsedBytes());
+	}
+
+	@Test
+	public void testFailedBuildIsNotCached() {
+		AreaDataDerivedCache cache = new AreaDataDerivedCache(1 << 20);
+		TestAreaData areaData = TestAreaData.landOnly(0, 1, 0, 1, 10, 10);
+		try {
+			cache.computeIfAbsent(areaData, GRID, a -> {
+				throw new IllegalStateException("no data");
+			});
+			fail("expected the build's exception");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		assertNull(cache.getIfPresent(areaData, GRID));
+		assertEquals(0, cache.size());
+		assertEquals(3, cache.computeIfAbsent(areaData, GRID, a -> new double[3]).length);
+	}
+
+	@Test
+	public void testEvictsLeastRecentlyUsed() {
+		AreaDataDerivedCache cache = new AreaDataDerivedCache(3 * 800);
+		List<TestAreaData> areas = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			areas.add(TestAreaData.landOnly(0, 1, 0, 1, 10, 10));
+			cache.computeIfAbsent(areas.get(i), GRID, a -> new double[100]);
+			if (i == 2) {
+				// touch the first, so the second is the least recently used
+				cache.getIfPresent(areas.get(0), GRID);
+			}
+		}
+		assertEquals(3 * 800, cache.getUsedBytes());
+		assertNull(cache.getIfPresent(areas.get(1), GRID));
+		for (int i : new int[] {0, 2, 3}) {
+			assertEquals(100, cache.getIfPresent(areas.get(i), GRID).length);
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.bbn.landsar.geospatial;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests BitGrid dilation against a direct square-neighborhood fill
+ */
+public class BitGridTest {
+
+	@Test
+	public void testDilateMatchesBruteForce() {
+		Random random = new Random(42);
+		int[][] shapes = {{1, 1}, {5, 63}, {17, 64}, {40, 65}, {70, 200}};
+		int[] radii = {0, 1, 2, 3, 7, 64, 100};
+		for (int[] shape : shapes) {
+			int[][] values = new int[shape[0]][shape[1]];
+			for (int i = 0; i < shape[0]; i++) {
+				for (int j = 0; j < shape[1]; j++) {
+					values[i][j] = random.nextInt(50) == 0 ? 1 : 0;
+				}
+			}
+			for (int radius : radii) {
+				BitGrid grid = BitGrid.fromPositive(values);
+				grid.dilate(radius);
+				for (int i = 0; i < shape[0]; i++) {
+					for (int j = 0; j < shape[1]; j++) {
+						assertEquals(shape[0] + "x" + shape[1] + " cell " + i + "," + j + " radius " + radius,
+								nearSetCell(values, i, j, radius), grid.get(i, j));
+					}
+				}
+			}
+		}
+	}
+
+	private static boolean nearSetCell(int[][] values, int i, int j, int radius) {
+		for (int i0 = Math.max(0, i - radius); i0 <= Math.min(values.length - 1, i + radius); i0++) {
+			for (int j0 = Math.max(0, j - radius); j0 <= Math.min(values[i0].length - 1, j + radius); j0++) {
+				if (values[i0][j0] > 0) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,58 @@
+package com.bbn.landsar.geospatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bbn.landsar.utils.GeometryUtils;
+import com.bbn.landsar.utils.GroundUtilities;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests that the exclusion zone index agrees with testing every zone
+ */
+public class ExclusionZoneIndexTest {
+
+	@Test
+	public void testIndexMatchesLinearScan() {
+		Random random = new Random(3);
+		List<ExclusionZone> circles = new ArrayList<>();
+		for (int n = 0; n < 15; n++) {
+			LatLonGeo center = LatLonGeo.fromDeg(42 + random.nextDouble() * 0.2, -71 + random.nextDouble() * 0.2);
+			circles.add(new ExclusionZone(center, 200 + random.nextDouble() * 2000, true));
+		}
+		List<PolygonalExclusionZone> polygons = new ArrayList<>();
+		polygons.add(new PolygonalExclusionZone(Arrays.asList(
+				LatLonGeo.fromDeg(42.05, -70.95), LatLonGeo.fromDeg(42.15, -70.93),
+				LatLonGeo.fromDeg(42.1, -70.85), LatLonGeo.fromDeg(42.12, -70.9))));
+		polygons.add(new PolygonalExclusionZone(Arrays.asList(
+				LatLonGeo.fromDeg(42.0, -71.0), LatLonGeo.fromDeg(42.0, -70.98), LatLonGeo.fromDeg(42.03, -70.99))));
+
+		ExclusionZoneIndex index = new ExclusionZoneIndex(circles, polygons);
+		assertTrue(index.getBoundaryCellFraction() < 0.5);
+
+		for (int n = 0; n < 20000; n++) {
+			LatLonGeo pt = LatLonGeo.fromDeg(41.98 + random.nextDouble() * 0.25, -71.02 + random.nextDouble() * 0.25);
+			boolean expected = GroundUtilities.exclusionZonesContainsPoint(circles, pt);
+			for (PolygonalExclusionZone polygon : polygons) {
+				expected |= GeometryUtils.polygonContainsPoint(pt, polygon.getVertices());
+			}
+			assertEquals(pt.toString(), expected, index.contains(pt));
+		}
+	}
+
+	@Test
+	public void testEmptyIndex() {
+		ExclusionZoneIndex index = new ExclusionZoneIndex(Collections.<ExclusionZone>emptyList(), null);
+		assertTrue(index.isEmpty());
+		assertFalse(index.contains(LatLonGeo.fromDeg(0, 0)));
+	}
+}
@@ -0,0 +1,34 @@
+package com.bbn.landsar.geospatial;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests that the planar screening in ExclusionZone.isInside agrees with the geodesic distance
+ */
+public class ExclusionZoneTest {
+
+	@Test
+	public void testIsInsideMatchesGeodesic() {
+		Random random = new Random(11);
+		double[] latitudes = {0, 35, 60, 75};
+		double[] radii = {50, 1000, 25000};
+		for (double lat : latitudes) {
+			for (double radius : radii) {
+				LatLonGeo center = LatLonGeo.fromDeg(lat, 20);
+				ExclusionZone zone = new ExclusionZone(center, radius, true);
+				for (int n = 0; n < 2000; n++) {
+					// concentrate points around the boundary
+					double distance = radius * (0.9 + 0.2 * random.nextDouble());
+					LatLonGeo pt = center.displacedBy(distance, random.nextDouble() * 2 * Math.PI);
+					assertEquals(lat + " " + radius + " " + pt, center.getDistanceTo(pt) < radius, zone.isInside(pt));
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.bbn.landsar.geospatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.bbn.landsar.geospatial.GoalCostField.CostModel;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests routes down the goal cost field around water and expensive land cover, and caching of the field
+ */
+public class GoalCostFieldTest {
+
+	private static final LatLonGeo GOAL = LatLonGeo.fromDeg(0.255, 0.455);
+
+	@Test
+	public void testRoutesGoAroundWater() {
+		TestAreaData areaData = TestAreaData.landOnly(0, 0.5, 0, 0.5, 50, 50);
+		TestLandCoverData landcover = (TestLandCoverData) areaData.getLandcoverData();
+		// a lake between the start and the goal, with a way around it to the north
+		for (int i = 0; i < 40; i++) {
+			landcover.setCode(i, 25, TestLandCoverData.WATER);
+		}
+		GoalCostField field = GoalCostField.compute(areaData, GOAL, CostModel.TRAVEL_TIME, TestAreaData.noZonesMask(areaData));
+		LatLonGeo start = LatLonGeo.fromDeg(0.255, 0.055);
+		List<LatLonGeo> route = field.routeFrom(start);
+		assertEquals(start, route.get(0));
+		assertEquals(GOAL, route.get(route.size() - 1));
+		boolean passedNorthOfLake = false;
+		for (LatLonGeo point : route) {
+			assertTrue(!landcover.isWater(point.getLatDeg(), point.getLonDeg()));
+			passedNorthOfLake |= point.getLatDeg() >= 0.4;
+		}
+		assertTrue(passedNorthOfLake);
+		// the cost only goes down along the route
+		double previous = Double.POSITIVE_INFINITY;
+		for (LatLonGeo point : route.subList(1, route.size())) {
+			double cost = field.getCostToGoal(point.getLatDeg(), point.getLonDeg());
+			assertTrue(cost <= previous);
+			previous = cost;
+		}
+		assertEquals(0, field.getCostToGoal(GOAL.getLatDeg(), GOAL.getLonDeg()), 0);
+	}
+
+	@Test
+	public void testCostModelChangesRoute() {
+		TestAreaData areaData = TestAreaData.landOnly(0, 0.5, 0, 0.5, 50, 50);
+		TestLandCoverData landcover = (TestLandCoverData) areaData.getLandcoverData();
+		// a band of brush across the direct route, except for a gap in the south
+		for (int i = 5; i < 50; i++) {
+			for (int j = 20; j < 30; j++) {
+				landcover.setCode(i, j, TestLandCoverData.BRUSH);
+			}
+		}
+		LatLonGeo start = LatLonGeo.fromDeg(0.255, 0.055);
+		// brush costs twice as much time, so the fastest route crosses it rather than going around
+		GoalCostField fastest = GoalCostField.compute(areaData, GOAL, CostModel.TRAVEL_TIME, TestAreaData.noZonesMask(areaData));
+		double direct = start.getDistanceTo(GOAL);
+		assertTrue(fastest.getCostToGoal(start.getLatDeg(), start.getLonDeg()) < 1.3 * 1.09 * direct);
+		// cost 1 on land, 2 on brush: same here
+		GoalCostField cheapest = GoalCostField.compute(areaData, GOAL, CostModel.LAND_COVER_COST, TestAreaData.noZonesMask(areaData));
+		assertEquals(fastest.getCostToGoal(start.getLatDeg(), start.getLonDeg()), cheapest.getCostToGoal(start.getLatDeg(), start.getLonDeg()), 1);
+		assertTrue(!Double.isNaN(cheapest.getAzimuthToGoal(start.getLatDeg(), start.getLonDeg())));
+	}
+
+	@Test
+	public void testUnreachableAndCaching() {
+		TestAreaData areaData = TestAreaData.landOnly(0, 0.5, 0, 0.5, 50, 50);
+		TestLandCoverData landcover = (TestLandCoverData) areaData.getLandcoverData();
+		for (int i = 0; i < 50; i++) {
+			landcover.setCode(i, 25, TestLandCoverData.WATER);
+		}
+		PointValidityMask mask = TestAreaData.noZonesMask(areaData);
+		AreaDataDerivedCache cache = new AreaDataDerivedCache(1 << 24);
+		GoalCostField field = GoalCostField.forGoal(areaData, GOAL, CostModel.TRAVEL_TIME, mask, cache);
+		assertSame(field, GoalCostField.forGoal(areaData, LatLonGeo.fromDeg(0.255, 0.455), CostModel.TRAVEL_TIME, mask, cache));
+		assertEquals(1, cache.size());
+		LatLonGeo start = LatLonGeo.fromDeg(0.255, 0.055);
+		assertTrue(field.routeFrom(start).isEmpty());
+		assertTrue(Double.isNaN(field.getAzimuthToGoal(start.getLatDeg(), start.getLonDeg())));
+	}
+}
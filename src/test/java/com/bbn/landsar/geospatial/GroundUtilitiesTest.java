@@ -0,0 +1,80 @@
+package com.bbn.landsar.geospatial;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bbn.landsar.utils.GroundUtilities;
+import com.metsci.glimpse.util.vector.Vector2d;
+
+/**
+ * Tests the minimal enclosing circle against an exhaustive search over pairs and triples
+ */
+public class GroundUtilitiesTest {
+
+	@Test
+	public void testMinimalCircleMatchesExhaustiveSearch() {
+		Random random = new Random(17);
+		for (int trial = 0; trial < 200; trial++) {
+			int n = 3 + random.nextInt(12);
+			List<Vector2d> pts = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				pts.add(new Vector2d(random.nextGaussian() * 1000, random.nextGaussian() * 300));
+			}
+			double[] circle = GroundUtilities.getMinimalCircle(pts);
+			for (Vector2d pt : pts) {
+				assertTrue(Math.hypot(pt.getX() - circle[0], pt.getY() - circle[1]) <= circle[2]);
+			}
+			assertEquals(exhaustiveRadius(pts) * 1.0001, circle[2], 1e-6);
+		}
+	}
+
+	@Test
+	public void testMinimalCircleSmallInputs() {
+		assertArrayEquals(new double[] {0, 0, 0}, GroundUtilities.getMinimalCircle(Collections.<Vector2d>emptyList()), 0);
+		assertArrayEquals(new double[] {3, 4, 0}, GroundUtilities.getMinimalCircle(Arrays.asList(new Vector2d(3, 4))), 0);
+		assertArrayEquals(new double[] {1, 0, 1}, GroundUtilities.getMinimalCircle(Arrays.asList(new Vector2d(0, 0), new Vector2d(2, 0))), 1e-12);
+		// collinear points
+		double[] circle = GroundUtilities.getMinimalCircle(Arrays.asList(new Vector2d(0, 0), new Vector2d(1, 0), new Vector2d(4, 0), new Vector2d(2, 0)));
+		assertArrayEquals(new double[] {2, 0, 2 * 1.0001}, circle, 1e-9);
+	}
+
+	private static double exhaustiveRadius(List<Vector2d> pts) {
+		double best = Double.POSITIVE_INFINITY;
+		int n = pts.size();
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				Vector2d c = pts.get(i).plus(pts.get(j)).scalarProduct(0.5);
+				best = Math.min(best, coveringRadius(c, c.distance(pts.get(i)), pts));
+				for (int k = j + 1; k < n; k++) {
+					Vector2d a = pts.get(i), b = pts.get(j), p = pts.get(k);
+					double d = 2 * (a.getX() * (b.getY() - p.getY()) + b.getX() * (p.getY() - a.getY()) + p.getX() * (a.getY() - b.getY()));
+					if (d == 0) continue;
+					double a2 = a.normSquared(), b2 = b.normSquared(), p2 = p.normSquared();
+					Vector2d center = new Vector2d(
+							(a2 * (b.getY() - p.getY()) + b2 * (p.getY() - a.getY()) + p2 * (a.getY() - b.getY())) / d,
+							(a2 * (p.getX() - b.getX()) + b2 * (a.getX() - p.getX()) + p2 * (b.getX() - a.getX())) / d);
+					best = Math.min(best, coveringRadius(center, center.distance(a), pts));
+				}
+			}
+		}
+		return best;
+	}
+
+	private static double coveringRadius(Vector2d c, double r, List<Vector2d> pts) {
+		for (Vector2d pt : pts) {
+			if (c.distance(pt) > r * (1 + 1e-9)) {
+				return Double.POSITIVE_INFINITY;
+			}
+		}
+		return r;
+	}
+}
@@ -0,0 +1,101 @@
+package com.bbn.landsar.geospatial;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bbn.landsar.utils.GeometryUtils;
+import com.bbn.landsar.utils.GroundUtilities;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests that the rasterized validity mask agrees with the exact exclusion zone, bounding box and water tests
+ */
+public class PointValidityMaskTest {
+
+	private static final double MIN_LAT = 42.0;
+	private static final double MAX_LAT = 42.2;
+	private static final double MIN_LON = -71.0;
+	private static final double MAX_LON = -70.8;
+	private static final int NUM_LAT = 40;
+	private static final int NUM_LON = 50;
+
+	private final List<ExclusionZone> circles = new ArrayList<>();
+	private final List<PolygonalExclusionZone> polygons = new ArrayList<>();
+	// smaller than the land cover grid, so that its edges cut through cells
+	private final BoundingBox boundingBox = new BoundingBox(42.1837, 42.0113, -70.8249, -70.9771);
+	private final TestLandCoverData landcover = new TestLandCoverData(MIN_LAT, MAX_LAT, MIN_LON, MAX_LON, NUM_LAT, NUM_LON);
+	private final AreaData areaData = new TestAreaData(boundingBox, landcover);
+
+	public PointValidityMaskTest() {
+		Random random = new Random(11);
+		for (int n = 0; n < 10; n++) {
+			LatLonGeo center = LatLonGeo.fromDeg(MIN_LAT + random.nextDouble() * 0.2, MIN_LON + random.nextDouble() * 0.2);
+			circles.add(new ExclusionZone(center, 200 + random.nextDouble() * 1500, true));
+		}
+		polygons.add(new PolygonalExclusionZone(Arrays.asList(
+				LatLonGeo.fromDeg(42.05, -70.95), LatLonGeo.fromDeg(42.15, -70.93),
+				LatLonGeo.fromDeg(42.1, -70.85), LatLonGeo.fromDeg(42.12, -70.9))));
+		for (int k = 0; k < 200; k++) {
+			landcover.setCode(random.nextInt(NUM_LAT), random.nextInt(NUM_LON), TestLandCoverData.WATER);
+		}
+	}
+
+	private boolean isValidExact(LatLonGeo pt, boolean stayOutOfWater) {
+		if (GroundUtilities.exclusionZonesContainsPoint(circles, pt)) {
+			return false;
+		}
+		for (PolygonalExclusionZone polygon : polygons) {
+			if (GeometryUtils.polygonContainsPoint(pt, polygon.getVertices())) {
+				return false;
+			}
+		}
+		if (!boundingBox.contains(pt)) {
+			return false;
+		}
+		return !(stayOutOfWater && landcover.isWater(pt.getLatDeg(), pt.getLonDeg()));
+	}
+
+	private void assertMatchesExact(boolean stayOutOfWater) {
+		PointValidityMask mask = new PointValidityMask(areaData, new ExclusionZoneIndex(circles, polygons), stayOutOfWater);
+		Random random = new Random(stayOutOfWater ? 5 : 6);
+		// random points, including some outside the land cover grid
+		for (int n = 0; n < 20000; n++) {
+			LatLonGeo pt = LatLonGeo.fromDeg(MIN_LAT - 0.02 + random.nextDouble() * 0.24, MIN_LON - 0.02 + random.nextDouble() * 0.24);
+			assertEquals(pt.toString(), isValidExact(pt, stayOutOfWater), mask.isValid(pt));
+		}
+		// points on cell edges and corners
+		double latCellDeg = (MAX_LAT - MIN_LAT) / NUM_LAT;
+		double lonCellDeg = (MAX_LON - MIN_LON) / NUM_LON;
+		for (int i = 0; i <= NUM_LAT; i++) {
+			for (int j = 0; j <= NUM_LON; j++) {
+				LatLonGeo pt = LatLonGeo.fromDeg(MIN_LAT + i * latCellDeg, MIN_LON + j * lonCellDeg);
+				assertEquals(pt.toString(), isValidExact(pt, stayOutOfWater), mask.isValid(pt));
+			}
+		}
+		// points just inside and outside the bounding box
+		for (int n = 0; n < 1000; n++) {
+			double lat = boundingBox.getSouthLatDeg() + random.nextDouble() * (boundingBox.getNorthLatDeg() - boundingBox.getSouthLatDeg());
+			for (double lon : new double[] {boundingBox.getWestLonDeg() - 1e-9, boundingBox.getWestLonDeg() + 1e-9,
+					boundingBox.getEastLonDeg() - 1e-9, boundingBox.getEastLonDeg() + 1e-9}) {
+				LatLonGeo pt = LatLonGeo.fromDeg(lat, lon);
+				assertEquals(pt.toString(), isValidExact(pt, stayOutOfWater), mask.isValid(pt));
+			}
+		}
+	}
+
+	@Test
+	public void testMatchesExactStayingOutOfWater() {
+		assertMatchesExact(true);
+	}
+
+	@Test
+	public void testMatchesExactAllowingWater() {
+		assertMatchesExact(false);
+	}
+}
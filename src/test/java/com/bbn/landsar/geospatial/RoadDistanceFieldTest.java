@@ -0,0 +1,83 @@
+package com.bbn.landsar.geospatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+import com.metsci.glimpse.util.vector.Vector2d;
+
+/**
+ * Tests the road distance transform against a brute force search
+ */
+public class RoadDistanceFieldTest {
+
+	private static final double MIN_LAT = 40.0;
+	private static final double MAX_LAT = 40.1;
+	private static final double MIN_LON = -70.0;
+	private static final double MAX_LON = -69.85;
+
+	@Test
+	public void testDistanceMatchesBruteForce() {
+		int numRows = 23;
+		int numCols = 31;
+		BitGrid roads = new BitGrid(numRows, numCols);
+		Random random = new Random(7);
+		for (int n = 0; n < 12; n++) {
+			roads.set(random.nextInt(numRows), random.nextInt(numCols));
+		}
+		RoadDistanceField field = new RoadDistanceField(roads, MIN_LAT, MAX_LAT, MIN_LON, MAX_LON, true);
+
+		double latCell = (MAX_LAT - MIN_LAT) / numRows;
+		double lonCell = (MAX_LON - MIN_LON) / numCols;
+		double rowMeters = latCell * AreaData.metersPerLatDeg;
+		double colMeters = lonCell * AreaData.metersPerLatDeg * Math.cos(Math.toRadians((MIN_LAT + MAX_LAT) / 2));
+		for (int i = 0; i < numRows; i++) {
+			for (int j = 0; j < numCols; j++) {
+				double best = Double.POSITIVE_INFINITY;
+				for (int i0 = 0; i0 < numRows; i0++) {
+					for (int j0 = 0; j0 < numCols; j0++) {
+						if (roads.get(i0, j0)) {
+							best = Math.min(best, Math.hypot((i - i0) * rowMeters, (j - j0) * colMeters));
+						}
+					}
+				}
+				double lat = MIN_LAT + (i + 0.5) * latCell;
+				double lon = MIN_LON + (j + 0.5) * lonCell;
+				assertEquals(best, field.getDistanceMeters(lat, lon), 0.01);
+
+				LatLonGeo nearest = field.getNearestRoad(lat, lon);
+				int ni = (int) ((nearest.getLatDeg() - MIN_LAT) / latCell);
+				int nj = (int) ((nearest.getLonDeg() - MIN_LON) / lonCell);
+				assertTrue(roads.get(ni, nj));
+				assertEquals(best, Math.hypot((i - ni) * rowMeters, (j - nj) * colMeters), 0.01);
+			}
+		}
+	}
+
+	@Test
+	public void testGradientPointsAtSingleRoad() {
+		BitGrid roads = new BitGrid(20, 20);
+		roads.set(10, 10);
+		RoadDistanceField field = new RoadDistanceField(roads, MIN_LAT, MAX_LAT, MIN_LON, MAX_LON, false);
+		double latCell = (MAX_LAT - MIN_LAT) / 20;
+		double lonCell = (MAX_LON - MIN_LON) / 20;
+
+		// due west of the road, the way to the road is east
+		Vector2d toRoad = field.getGradientTowardRoad(MIN_LAT + 10.5 * latCell, MIN_LON + 4.5 * lonCell);
+		assertEquals(1.0, toRoad.getX(), 1e-6);
+		assertEquals(0.0, toRoad.getY(), 1e-6);
+		assertNull(field.getNearestRoad(MIN_LAT, MIN_LON));
+	}
+
+	@Test
+	public void testNoRoads() {
+		RoadDistanceField field = new RoadDistanceField(new BitGrid(5, 5), MIN_LAT, MAX_LAT, MIN_LON, MAX_LON, true);
+		assertTrue(Double.isInfinite(field.getDistanceMeters(MIN_LAT, MIN_LON)));
+		assertNull(field.getNearestRoad(MIN_LAT, MIN_LON));
+	}
+}
@@ -0,0 +1,70 @@
+package com.bbn.landsar.geospatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+
+/**
+ * Tests slope and aspect derived from a synthetic elevation grid
+ */
+public class SlopeAspectDataTest {
+
+	/**
+	 * Elevation increases linearly to the east
+	 */
+	private static class EastRampElevationData extends AbstractElevationData {
+		private static final long serialVersionUID = 1L;
+
+		private final double metersPerDegLon;
+
+		EastRampElevationData(double metersPerDegLon) {
+			this.minLat = 0;
+			this.maxLat = 0.1;
+			this.minLon = 0;
+			this.maxLon = 0.1;
+			this.numLat = 20;
+			this.numLon = 20;
+			this.metersPerDegLon = metersPerDegLon;
+		}
+
+		@Override
+		public double getElevationMetersForLatLon(double latDeg, double lonDeg) {
+			return (lonDeg - minLon) * metersPerDegLon;
+		}
+
+		@Override
+		public void writeFiles(File outputDir) {
+		}
+	}
+
+	@Test
+	public void testRampSlopeAndAspect() {
+		// rise equal to the horizontal distance -> 45 degrees, near the equator
+		double metersPerDegLon = AreaData.metersPerLatDeg * Math.cos(Math.toRadians(0.05));
+		EastRampElevationData elevation = new EastRampElevationData(metersPerDegLon);
+
+		assertEquals(45.0, elevation.getSlopeDeg(0.05, 0.05), 0.1);
+		// edges use one-sided differences and should agree on a plane
+		assertEquals(45.0, elevation.getSlopeDeg(0.0, 0.0), 0.1);
+		// rising to the east means the slope faces west
+		assertEquals(270.0, elevation.getAspectDeg(0.05, 0.05), 0.1);
+
+		double[] lats = {0.01, 0.02, 0.09};
+		double[] lons = {0.01, 0.05, 0.09};
+		double[] out = new double[3];
+		elevation.getSlopeAspectData().getSlopeDeg(lats, lons, out);
+		for (double slope : out) {
+			assertEquals(45.0, slope, 0.1);
+		}
+	}
+
+	@Test
+	public void testFlatIsZeroSlopeAndNoAspect() {
+		EastRampElevationData elevation = new EastRampElevationData(0);
+		assertEquals(0.0, elevation.getSlopeDeg(0.03, 0.07), 1e-9);
+		assertTrue(Double.isNaN(elevation.getAspectDeg(0.03, 0.07)));
+	}
+}
@@ -0,0 +1,97 @@
+package com.bbn.landsar.geospatial;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import com.bbn.landsar.motionmodel.UserEnteredGeospatialData;
+
+/**
+ * AreaData for tests with only a bounding box and land cover.
+ */
+public class TestAreaData implements AreaData {
+
+	private static final long serialVersionUID = 1L;
+
+	private final UUID id = UUID.randomUUID();
+	private final BoundingBox boundingBox;
+	private final AbstractLandCoverData landcover;
+
+	public TestAreaData(BoundingBox boundingBox, AbstractLandCoverData landcover) {
+		this.boundingBox = boundingBox;
+		this.landcover = landcover;
+	}
+
+	/**
+	 * @return area data whose bounding box and land cover grid cover the same area
+	 */
+	public static TestAreaData landOnly(double southLat, double northLat, double westLon, double eastLon, int numLat, int numLon) {
+		return new TestAreaData(new BoundingBox(northLat, southLat, eastLon, westLon),
+				new TestLandCoverData(southLat, northLat, westLon, eastLon, numLat, numLon));
+	}
+
+	/**
+	 * @return user entered data with no exclusion zones, goal points or waypoints
+	 */
+	public static UserEnteredGeospatialData noZones() {
+		return new UserEnteredGeospatialData(Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+	}
+
+	/**
+	 * @return validity mask for the area with no exclusion zones, staying out of water
+	 */
+	public static PointValidityMask noZonesMask(AreaData areaData) {
+		return noZones().getPointValidityMask(areaData, true);
+	}
+
+	@Override
+	public void writeToFiles(File dir) {
+		// nothing to write
+	}
+
+	@Override
+	public AbstractElevationData getElevationData() {
+		return null;
+	}
+
+	@Override
+	public AbstractLandCoverData getLandcoverData() {
+		return landcover;
+	}
+
+	@Override
+	public WindData getWindData() {
+		return null;
+	}
+
+	@Override
+	public AbstractTimeBasedVectorData getCurrentData() {
+		return null;
+	}
+
+	@Override
+	public BoundingBox getBoundingBox() {
+		return boundingBox;
+	}
+
+	@Override
+	public String getAreaName() {
+		return "Test";
+	}
+
+	@Override
+	public UUID getId() {
+		return id;
+	}
+
+	@Override
+	public AdditionalData getAdditionalData(String dataType) {
+		return null;
+	}
+
+	@Override
+	public Map<String, AdditionalData> getAdditionalData() {
+		return Collections.emptyMap();
+	}
+}
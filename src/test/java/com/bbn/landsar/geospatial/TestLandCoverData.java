@@ -0,0 +1,92 @@
+package com.bbn.landsar.geospatial;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory land cover grid for tests: row 0 at minLat, every cell LAND unless set otherwise.
+ */
+public class TestLandCoverData extends AbstractLandCoverData {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final short LAND = 1;
+	public static final short WATER = 2;
+	public static final short BRUSH = 3;
+
+	private final short[] codes;
+	private LandCoverMetaData metaData;
+
+	public TestLandCoverData(double minLat, double maxLat, double minLon, double maxLon, int numLat, int numLon) {
+		super(minLat, maxLat, minLon, maxLon, numLat, numLon);
+		this.codes = new short[numLat * numLon];
+		Arrays.fill(codes, LAND);
+		this.metaData = new LandCoverMetaData();
+		metaData.setName("Test");
+		metaData.addMetaDataItem(new LandCoverMetaDataItem(LAND, "Land", 1.0f, 1, 1.0f, 0, 255, 0, "Open land"));
+		metaData.addMetaDataItem(new LandCoverMetaDataItem(WATER, "Water", 0.0f, 1000, 1.0f, 0, 0, 255, "Open water"));
+		metaData.addMetaDataItem(new LandCoverMetaDataItem(BRUSH, "Brush", 0.5f, 2, 1.0f, 0, 128, 0, "Brush"));
+	}
+
+	public void setCode(int latIndex, int lonIndex, short code) {
+		codes[latIndex * numLon + lonIndex] = code;
+	}
+
+	@Override
+	public void setMetaData(LandCoverMetaData metadata) {
+		this.metaData = metadata;
+	}
+
+	@Override
+	public LandCoverMetaData getMetaData() {
+		return metaData;
+	}
+
+	@Override
+	public int getLandcoverCodeForLatLon(double latDeg, double lonDeg) {
+		int i = Math.max(0, Math.min(numLat - 1, subscriptFor(latDeg, minLat, maxLat, numLat)));
+		int j = Math.max(0, Math.min(numLon - 1, subscriptFor(lonDeg, minLon, maxLon, numLon)));
+		return codes[i * numLon + j];
+	}
+
+	@Override
+	public boolean isWater(double latDeg, double lonDeg) {
+		return isWater(getLandcoverCodeForLatLon(latDeg, lonDeg));
+	}
+
+	@Override
+	public boolean isWater(int code) {
+		return code == WATER;
+	}
+
+	@Override
+	public boolean isDeveloped(double latDeg, double lonDeg) {
+		return false;
+	}
+
+	@Override
+	public boolean isDeveloped(int code) {
+		return false;
+	}
+
+	@Override
+	public void writeFiles(File dir) {
+		// nothing to write
+	}
+
+	@Override
+	public Set<Short> getDataCodes() {
+		Set<Short> dataCodes = new TreeSet<>();
+		for (short code : codes) {
+			dataCodes.add(code);
+		}
+		return dataCodes;
+	}
+
+	@Override
+	public String getLandCoverType() {
+		return "Test";
+	}
+}
@@ -0,0 +1,97 @@
+package com.bbn.landsar.geospatial;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.bbn.landsar.MovementSchedule;
+import com.bbn.landsar.ScheduleManager;
+import com.bbn.landsar.ScheduleManager.StandardSchedule;
+import com.bbn.landsar.motionmodel.UserEnteredGeospatialData;
+import com.bbn.landsar.utils.DateTimeUtilities;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests travel times over land, around water and exclusion zones, and their conversion to wall clock times
+ */
+public class TravelTimeFieldTest {
+
+	private static final List<LatLonGeo> START = Collections.singletonList(LatLonGeo.fromDeg(0.005, 0.005));
+
+	@Test
+	public void testOpenLandIsCloseToStraightLine() {
+		TestAreaData areaData = TestAreaData.landOnly(0, 0.5, 0, 0.5, 50, 50);
+		TravelTimeField field = TravelTimeField.compute(areaData, TestAreaData.noZonesMask(areaData), START, 4, Double.POSITIVE_INFINITY);
+		assertEquals(0, field.getTravelTimeHours(0.005, 0.005), 0);
+		for (LatLonGeo target : new LatLonGeo[] {LatLonGeo.fromDeg(0.405, 0.005), LatLonGeo.fromDeg(0.305, 0.305), LatLonGeo.fromDeg(0.205, 0.405)}) {
+			double straightLineHours = START.get(0).getDistanceTo(target) / 4000;
+			double hours = field.getTravelTimeHours(target);
+			assertTrue(hours >= straightLineHours * 0.99);
+			assertTrue(hours <= straightLineHours * 1.09);
+		}
+	}
+
+	@Test
+	public void testWaterAndExclusionZonesBlock() {
+		TestAreaData areaData = TestAreaData.landOnly(0, 0.5, 0, 0.5, 50, 50);
+		TestLandCoverData landcover = (TestLandCoverData) areaData.getLandcoverData();
+		// a river across the whole area, and a slow band before it
+		for (int i = 0; i < 50; i++) {
+			landcover.setCode(i, 20, TestLandCoverData.WATER);
+			landcover.setCode(i, 10, TestLandCoverData.BRUSH);
+		}
+		UserEnteredGeospatialData zones = TestAreaData.noZones();
+		TravelTimeField field = TravelTimeField.compute(areaData, zones.getPointValidityMask(areaData, true), START, 4, Double.POSITIVE_INFINITY);
+		assertEquals(Double.POSITIVE_INFINITY, field.getTravelTimeHours(0.005, 0.305), 0);
+		// the brush column costs extra time to cross
+		double acrossBrush = field.getTravelTimeHours(0.005, 0.155);
+		double straightLineHours = START.get(0).getDistanceTo(LatLonGeo.fromDeg(0.005, 0.155)) / 4000;
+		assertTrue(acrossBrush > straightLineHours * 1.05);
+
+		// without staying out of water the river is crossed at its (zero) speed of advance - i.e. not at all
+		TravelTimeField wading = TravelTimeField.compute(areaData, zones.getPointValidityMask(areaData, false), START, 4, Double.POSITIVE_INFINITY);
+		assertEquals(Double.POSITIVE_INFINITY, wading.getTravelTimeHours(0.005, 0.305), 0);
+
+		TestAreaData open = TestAreaData.landOnly(0, 0.5, 0, 0.5, 50, 50);
+		UserEnteredGeospatialData walled = TestAreaData.noZones();
+		walled.setExclusionZones(Collections.singletonList(new ExclusionZone(LatLonGeo.fromDeg(0.005, 0.105), 5000, true)));
+		TravelTimeField around = TravelTimeField.compute(open, walled.getPointValidityMask(open, true), START, 4, Double.POSITIVE_INFINITY);
+		TravelTimeField direct = TravelTimeField.compute(open, TestAreaData.noZonesMask(open), START, 4, Double.POSITIVE_INFINITY);
+		assertTrue(around.getTravelTimeHours(0.005, 0.205) > direct.getTravelTimeHours(0.005, 0.205));
+		assertEquals(Double.POSITIVE_INFINITY, around.getTravelTimeHours(0.005, 0.105), 0);
+	}
+
+	@Test
+	public void testHorizonAndBoundingBox() {
+		TestAreaData areaData = TestAreaData.landOnly(0, 0.5, 0, 0.5, 50, 50);
+		TravelTimeField field = TravelTimeField.compute(areaData, TestAreaData.noZonesMask(areaData), START, 4, 3);
+		assertEquals(Double.POSITIVE_INFINITY, field.getTravelTimeHours(0.405, 0.405), 0);
+		assertTrue(field.getMaxReachableHours() <= 3);
+		BoundingBox reachable = field.getReachableBoundingBox(3);
+		assertNotNull(reachable);
+		assertEquals(0, reachable.getSouthLatDeg(), 1e-9);
+		// 12 km is about 0.108 degrees
+		assertEquals(0.11, reachable.getNorthLatDeg(), 0.011);
+	}
+
+	@Test
+	public void testEarliestArrivalFollowsSchedule() {
+		TestAreaData areaData = TestAreaData.landOnly(0, 0.5, 0, 0.5, 50, 50);
+		TravelTimeField field = TravelTimeField.compute(areaData, TestAreaData.noZonesMask(areaData), START, 4, Double.POSITIVE_INFINITY);
+		// 2023-03-10T00:00Z
+		long startTime = 1678406400000L;
+		double hours = field.getTravelTimeHours(0.305, 0.005);
+		MovementSchedule continuous = ScheduleManager.getOrCreateScheduleForTimeZone(StandardSchedule.Continuous, TimeZone.getTimeZone("UTC"));
+		assertEquals(startTime + Math.round(hours * DateTimeUtilities.millisecInHour), field.getEarliestArrivalTime(0.305, 0.005, startTime, continuous));
+		MovementSchedule night = ScheduleManager.getOrCreateScheduleForTimeZone(StandardSchedule.Night, TimeZone.getTimeZone("UTC"));
+		long arrival = field.getEarliestArrivalTime(0.305, 0.005, startTime, night);
+		assertEquals(Math.round(hours * DateTimeUtilities.millisecInHour), night.timeSpentMoving(startTime, arrival));
+		assertTrue(night.timeSpentMoving(startTime, arrival - 1) < Math.round(hours * DateTimeUtilities.millisecInHour));
+	}
+}
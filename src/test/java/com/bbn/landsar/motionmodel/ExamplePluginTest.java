@@ -23,14 +23,17 @@ https://github.com/atapas/add-copyright.git
 package com.bbn.landsar.motionmodel;
 
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 import org.junit.Test;
 
+import com.bbn.landsar.motionmodel.example.ExampleMaritimeMotionModelPlugin;
 import com.bbn.landsar.motionmodel.example.ExampleMotionModelPluginWithSearchEval;
 import com.bbn.landsar.utils.StatusUpdateMessage;
 
@@ -64,4 +67,18 @@ public class ExamplePluginTest {
     			new StatusUpdateMessage());
 		assertTrue(validParams);
     }
+
+    @Test
+    public void testMaritimeWithoutStartPoints() {
+    	MotionModelPlugin plugin = new ExampleMaritimeMotionModelPlugin();
+    	plugin.setMotionModelManager(new TestMotionModelManager());
+    	Map<String, Object> parameters = new HashMap<>();
+    	parameters.put(ExampleMaritimeMotionModelPlugin.DRIFT_HOURS, 2d);
+    	StatusUpdateMessage status = new StatusUpdateMessage();
+    	// used to loop forever repeating an empty list of start points
+    	MotionModelResult result = plugin.generateInitialDistribution(new MotionModelInput(UUID.randomUUID(), null, null, parameters, 0L,
+    			Collections.emptyList(), status));
+    	assertNull(result);
+    	assertTrue(status.isError());
+    }
 }
@@ -0,0 +1,52 @@
+package com.bbn.landsar.motionmodel;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/**
+ * Tests that per-sample random streams do not depend on thread or order
+ */
+public class RandomSeederTest {
+
+	private static double[] draw(RandomSeeder seeder, int sampleIndex) {
+		SplittableRandom random = seeder.forSample(sampleIndex);
+		return random.doubles(20).toArray();
+	}
+
+	@Test
+	public void testParallelMatchesSequential() {
+		RandomSeeder seeder = new RandomSeeder(42);
+		int numSamples = 2000;
+		double[][] sequential = new double[numSamples][];
+		for (int i = 0; i < numSamples; i++) {
+			sequential[i] = draw(seeder, i);
+		}
+		double[][] parallel = new double[numSamples][];
+		// reverse order, on several threads
+		IntStream.range(0, numSamples).parallel().map(i -> numSamples - 1 - i).forEach(i -> parallel[i] = draw(new RandomSeeder(42), i));
+		for (int i = 0; i < numSamples; i++) {
+			assertArrayEquals(sequential[i], parallel[i], 0);
+		}
+		assertNotEquals(sequential[0][0], sequential[1][0], 0);
+		assertNotEquals(draw(new RandomSeeder(43), 0)[0], sequential[0][0], 0);
+	}
+
+	@Test
+	public void testFromParameters() {
+		UUID lpiId = UUID.randomUUID();
+		assertEquals(7L, RandomSeeder.fromParameters(Collections.singletonMap(MotionModelConstants.RANDOM_SEED_PARAMETER, 7), lpiId).getSeed());
+		assertEquals(8L, RandomSeeder.fromParameters(Collections.singletonMap(MotionModelConstants.RANDOM_SEED_PARAMETER, " 8"), lpiId).getSeed());
+		// without a seed parameter the same LPI gets the same seed
+		assertEquals(RandomSeeder.fromParameters(Collections.emptyMap(), lpiId).getSeed(),
+				RandomSeeder.fromParameters(null, lpiId).getSeed());
+		assertEquals(new RandomSeeder(3).randomForSample(5).nextLong(), new RandomSeeder(3).randomForSample(5).nextLong());
+	}
+}
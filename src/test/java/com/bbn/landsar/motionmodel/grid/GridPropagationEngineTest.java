@@ -0,0 +1,145 @@
+package com.bbn.landsar.motionmodel.grid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+import com.bbn.landsar.MovementSchedule;
+import com.bbn.landsar.ScheduleManager;
+import com.bbn.landsar.ScheduleManager.StandardSchedule;
+import com.bbn.landsar.geospatial.AreaData;
+import com.bbn.landsar.geospatial.TestAreaData;
+import com.bbn.landsar.geospatial.TestLandCoverData;
+import com.bbn.landsar.motionmodel.ProbabilityDistribution;
+import com.bbn.landsar.motionmodel.grid.GridPropagationEngine.Propagation;
+import com.bbn.landsar.motionmodel.grid.GridPropagationEngine.SearchMask;
+import com.bbn.landsar.utils.DateTimeUtilities;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests mass bookkeeping, absorbing water, drift, schedules and search masks of the grid propagation
+ */
+public class GridPropagationEngineTest {
+
+	// noon UTC
+	private static final long START_TIME = 1_600_000_000_000L - 1_600_000_000_000L % DateTimeUtilities.millisecsInDay + 12 * DateTimeUtilities.millisecInHour;
+	private static final List<LatLonGeo> START = Collections.singletonList(LatLonGeo.fromDeg(0.1, 0.1));
+	// wanders about 3 km an hour
+	private static final double DIFFUSIVITY = 625;
+
+	private static final MovementSchedule CONTINUOUS = ScheduleManager.getOrCreateScheduleForTimeZone(StandardSchedule.Continuous, TimeZone.getTimeZone("UTC"));
+
+	private static double total(ProbabilityDistribution distribution) {
+		double total = 0;
+		for (double[] row : distribution.getCellProbs()) {
+			for (double p : row) {
+				total += p;
+			}
+		}
+		return total;
+	}
+
+	private static Propagation run(GridPropagationEngine engine, MovementSchedule schedule, int hours, List<SearchMask> searches) {
+		return engine.propagate(null, engine.rasterize(START), START_TIME, engine.movingFractions(schedule, START_TIME, hours), searches);
+	}
+
+	@Test
+	public void testMassIsConservedOnOpenLand() {
+		AreaData areaData = TestAreaData.landOnly(0, 0.2, 0, 0.2, 40, 40);
+		GridPropagationEngine engine = GridPropagationEngine.forAreaData(areaData, TestAreaData.noZonesMask(areaData), 0, 0, DIFFUSIVITY);
+		Propagation propagation = run(engine, CONTINUOUS, 6, Collections.emptyList());
+		Map<Long, ProbabilityDistribution> distributions = propagation.getDistributions();
+		assertEquals(7, distributions.size());
+		assertEquals(1, total(distributions.get(START_TIME)), 1e-12);
+		ProbabilityDistribution last = distributions.get(START_TIME + 6 * DateTimeUtilities.millisecInHour);
+		assertTrue(last.validate().isValid());
+		assertEquals(0, propagation.getAbsorbedProbability(), 0);
+		assertEquals(1, total(last) + propagation.getExitedProbability(), 1e-9);
+		// the mass spreads out over time
+		int center = engine.cellIndex(START.get(0));
+		double[][] early = distributions.get(START_TIME + DateTimeUtilities.millisecInHour).getCellProbs();
+		double[][] late = last.getCellProbs();
+		int i = center / engine.getNumLon();
+		int j = center % engine.getNumLon();
+		assertTrue(late[i][j] < early[i][j]);
+		assertTrue(late[i][j] > 0);
+	}
+
+	@Test
+	public void testWaterAbsorbs() {
+		TestAreaData areaData = TestAreaData.landOnly(0, 0.2, 0, 0.2, 40, 40);
+		TestLandCoverData landcover = (TestLandCoverData) areaData.getLandcoverData();
+		for (int i = 0; i < 40; i++) {
+			landcover.setCode(i, 24, TestLandCoverData.WATER);
+		}
+		GridPropagationEngine engine = GridPropagationEngine.forAreaData(areaData, TestAreaData.noZonesMask(areaData), 0, 0, DIFFUSIVITY);
+		Propagation propagation = run(engine, CONTINUOUS, 6, Collections.emptyList());
+		ProbabilityDistribution last = propagation.getDistributions().get(START_TIME + 6 * DateTimeUtilities.millisecInHour);
+		assertTrue(propagation.getAbsorbedProbability() > 0.01);
+		assertEquals(1, total(last) + propagation.getAbsorbedProbability() + propagation.getExitedProbability(), 1e-9);
+		int water = engine.cellIndex(LatLonGeo.fromDeg(0.1, 0.1225));
+		assertEquals(0, last.getCellProbs()[water / engine.getNumLon()][water % engine.getNumLon()], 0);
+	}
+
+	@Test
+	public void testDriftMovesMeanAtDriftSpeed() {
+		AreaData areaData = TestAreaData.landOnly(0, 0.2, 0, 0.2, 40, 40);
+		GridPropagationEngine engine = GridPropagationEngine.forAreaData(areaData, null, 0.5, 0, 10);
+		Propagation propagation = run(engine, CONTINUOUS, 3, Collections.emptyList());
+		double[][] probs = propagation.getDistributions().get(START_TIME + 3 * DateTimeUtilities.millisecInHour).getCellProbs();
+		double lonCellDeg = 0.2 / engine.getNumLon();
+		double mass = 0;
+		double meanLon = 0;
+		for (double[] row : probs) {
+			for (int j = 0; j < row.length; j++) {
+				mass += row[j];
+				meanLon += row[j] * (j + 0.5) * lonCellDeg;
+			}
+		}
+		meanLon /= mass;
+		double startCellLon = (engine.cellIndex(START.get(0)) % engine.getNumLon() + 0.5) * lonCellDeg;
+		double movedMeters = (meanLon - startCellLon) * AreaData.metersPerLatDeg * Math.cos(Math.toRadians(0.1));
+		assertEquals(0.5 * 3 * 3600, movedMeters, 0.5 * 3 * 3600 * 0.05);
+	}
+
+	@Test
+	public void testNoMovementWhileResting() {
+		AreaData areaData = TestAreaData.landOnly(0, 0.2, 0, 0.2, 40, 40);
+		GridPropagationEngine engine = GridPropagationEngine.forAreaData(areaData, null, 0, 0, DIFFUSIVITY);
+		MovementSchedule night = ScheduleManager.getOrCreateScheduleForTimeZone(StandardSchedule.Night, TimeZone.getTimeZone("UTC"));
+		Propagation propagation = run(engine, night, 3, Collections.emptyList());
+		double[][] start = propagation.getDistributions().get(START_TIME).getCellProbs();
+		double[][] later = propagation.getDistributions().get(START_TIME + 3 * DateTimeUtilities.millisecInHour).getCellProbs();
+		for (int i = 0; i < start.length; i++) {
+			for (int j = 0; j < start[i].length; j++) {
+				assertEquals(start[i][j], later[i][j], 0);
+			}
+		}
+	}
+
+	@Test
+	public void testSearchMaskRemovesMass() {
+		AreaData areaData = TestAreaData.landOnly(0, 0.2, 0, 0.2, 40, 40);
+		GridPropagationEngine engine = GridPropagationEngine.forAreaData(areaData, null, 0, 0, DIFFUSIVITY);
+		long searchTime = START_TIME + 2 * DateTimeUtilities.millisecInHour;
+		Propagation without = run(engine, CONTINUOUS, 4, Collections.emptyList());
+		Propagation with = run(engine, CONTINUOUS, 4, Collections.singletonList(engine.searchMask(searchTime, pt -> 0.5)));
+		// the distribution at the time of the search is the one the search is planned against
+		assertEquals(total(without.getDistributions().get(searchTime)), total(with.getDistributions().get(searchTime)), 1e-12);
+		assertEquals(total(without.getDistributions().get(searchTime)) / 2, with.getDetectedProbability(), 1e-12);
+		long after = START_TIME + 4 * DateTimeUtilities.millisecInHour;
+		double[][] withProbs = with.getDistributions().get(after).getCellProbs();
+		double[][] withoutProbs = without.getDistributions().get(after).getCellProbs();
+		for (int i = 0; i < withProbs.length; i++) {
+			for (int j = 0; j < withProbs[i].length; j++) {
+				assertEquals(withoutProbs[i][j] / 2, withProbs[i][j], 1e-12);
+			}
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package com.bbn.landsar.motionmodel.maritime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.bbn.landsar.geospatial.AbstractTimeBasedVectorData;
+import com.bbn.landsar.geospatial.AreaData;
+import com.bbn.landsar.geospatial.BoundingBox;
+import com.bbn.landsar.geospatial.VectorDataSlices;
+import com.bbn.landsar.geospatial.Velocity2d;
+import com.bbn.landsar.geospatial.WindData;
+import com.bbn.landsar.motionmodel.AreaDataType;
+import com.bbn.landsar.motionmodel.RandomSeeder;
+import com.bbn.landsar.motionmodel.maritime.MaritimeDriftEngine.Integrator;
+import com.bbn.landsar.utils.DateTimeUtilities;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests the drift engine against currents with known trajectories, and the slice interpolation against getData
+ */
+public class MaritimeDriftEngineTest {
+
+	private static final long START_TIME = 1_600_000_000_000L;
+	private static final BoundingBox BOX = new BoundingBox(0.5, -0.5, 0.5, -0.5);
+	private static final LatLonGeo CENTER = LatLonGeo.fromDeg(0, 0);
+
+	interface Field {
+		Velocity2d at(double lat, double lon, long time);
+	}
+
+	private static AbstractTimeBasedVectorData currents(double[] lats, double[] lons, long[] times, Field field) {
+		NavigableMap<Long, Velocity2d[][]> data = new TreeMap<>();
+		for (long time : times) {
+			Velocity2d[][] slice = new Velocity2d[lats.length][lons.length];
+			for (int i = 0; i < lats.length; i++) {
+				for (int j = 0; j < lons.length; j++) {
+					slice[i][j] = field.at(lats[i], lons[j], time);
+				}
+			}
+			data.put(time, slice);
+		}
+		return new AbstractTimeBasedVectorData(lats, lons, data, null) {
+			@Override
+			public Velocity2d[][] getData(long time) {
+				return interpolateTime(time);
+			}
+
+			@Override
+			public String getDataType() {
+				return AreaDataType.CURRENTS;
+			}
+
+			@Override
+			public void writeFiles(File directory) {
+				// not needed for tests
+			}
+		};
+	}
+
+	private static double[] grid(double from, double to, int n) {
+		double[] values = new double[n];
+		for (int k = 0; k < n; k++) {
+			values[k] = from + (to - from) * k / (n - 1);
+		}
+		return values;
+	}
+
+	@Test
+	public void testUniformCurrent() {
+		AbstractTimeBasedVectorData current = currents(grid(-1, 1, 5), grid(-1, 1, 5), new long[] {START_TIME}, (lat, lon, t) -> new Velocity2d(0.5, 0));
+		for (Integrator integrator : Integrator.values()) {
+			MaritimeDriftEngine engine = new MaritimeDriftEngine(current, null, 0, 0, integrator, MaritimeDriftEngine.DEFAULT_STEP_MILLIS);
+			DriftResult result = engine.run(Collections.singletonList(CENTER), START_TIME, 2, BOX, null);
+			assertEquals(1, result.getPositions(2).size());
+			double movedMeters = result.getLonDeg(2, 0) * AreaData.metersPerLatDeg;
+			assertEquals(0.5 * 2 * 3600, movedMeters, 1e-6);
+			assertEquals(0, result.getLatDeg(2, 0), 1e-12);
+		}
+	}
+
+	@Test
+	public void testLeewayAddsToCurrent() throws IOException {
+		File windFile = File.createTempFile("wind", ".txt");
+		windFile.deleteOnExit();
+		StringBuilder lines = new StringBuilder("lat\tlon\talt\ttime\teast\tnorth\teastError\tnorthError\n\n");
+		for (double lat : new double[] {-1, 1}) {
+			for (double lon : new double[] {-1, 1}) {
+				lines.append(lat).append('\t').append(lon).append("\t20\t0\t10\t0\t0\t0\n");
+			}
+		}
+		Files.write(windFile.toPath(), lines.toString().getBytes(StandardCharsets.UTF_8));
+		AbstractTimeBasedVectorData current = currents(grid(-1, 1, 5), grid(-1, 1, 5), new long[] {START_TIME}, (lat, lon, t) -> new Velocity2d(0, 0.2));
+		MaritimeDriftEngine engine = new MaritimeDriftEngine(current, new WindData(windFile), 0.03, 0, Integrator.RK4, MaritimeDriftEngine.DEFAULT_STEP_MILLIS);
+		DriftResult result = engine.run(Collections.singletonList(CENTER), START_TIME, 1, BOX, null);
+		assertEquals(0.03 * 10 * 3600, result.getLonDeg(1, 0) * AreaData.metersPerLatDeg, 1e-3);
+		assertEquals(0.2 * 3600, result.getLatDeg(1, 0) * AreaData.metersPerLatDeg, 1e-3);
+	}
+
+	@Test
+	public void testCurrentChangingInTime() {
+		// 0 m/s at the start, 1 m/s north two hours later: moves an average of 0.5 m/s
+		AbstractTimeBasedVectorData current = currents(grid(-1, 1, 5), grid(-1, 1, 5), new long[] {START_TIME, START_TIME + 2 * DateTimeUtilities.millisecInHour},
+				(lat, lon, t) -> new Velocity2d(0, t == START_TIME ? 0 : 1));
+		MaritimeDriftEngine engine = new MaritimeDriftEngine(current, null, 0, 0, Integrator.RK2, MaritimeDriftEngine.DEFAULT_STEP_MILLIS);
+		DriftResult result = engine.run(Collections.singletonList(CENTER), START_TIME, 2, BOX, null);
+		assertEquals(0.5 * 2 * 3600, result.getLatDeg(2, 0) * AreaData.metersPerLatDeg, 1e-6);
+	}
+
+	@Test
+	public void testRk4FollowsRotationMoreClosely() {
+		// solid body rotation around the center, one turn in 6 hours; linear in position, so the grid interpolates it exactly
+		double omega = 2 * Math.PI / (6 * 3600);
+		AbstractTimeBasedVectorData current = currents(grid(-1, 1, 21), grid(-1, 1, 21), new long[] {START_TIME}, (lat, lon, t) -> {
+			double x = lon * AreaData.metersPerLatDeg;
+			double y = lat * AreaData.metersPerLatDeg;
+			return new Velocity2d(-omega * y, omega * x);
+		});
+		LatLonGeo start = LatLonGeo.fromDeg(0, 0.1);
+		double[] radiusError = new double[2];
+		for (Integrator integrator : Integrator.values()) {
+			MaritimeDriftEngine engine = new MaritimeDriftEngine(current, null, 0, 0, integrator, 30 * DateTimeUtilities.millisecInMin);
+			DriftResult result = engine.run(Collections.singletonList(start), START_TIME, 6, BOX, null);
+			assertFalse(result.isStopped(6, 0));
+			// back where it started after a whole turn
+			radiusError[integrator.ordinal()] = Math.hypot(result.getLatDeg(6, 0) - 0, result.getLonDeg(6, 0) - 0.1);
+		}
+		assertTrue(radiusError[Integrator.RK4.ordinal()] < radiusError[Integrator.RK2.ordinal()] / 10);
+		assertTrue(radiusError[Integrator.RK4.ordinal()] < 0.001);
+	}
+
+	@Test
+	public void testParticlesStopAtTheEdgeAndRandomWalkIsReproducible() {
+		AbstractTimeBasedVectorData current = currents(grid(-1, 1, 5), grid(-1, 1, 5), new long[] {START_TIME}, (lat, lon, t) -> new Velocity2d(2, 0));
+		MaritimeDriftEngine engine = new MaritimeDriftEngine(current, null, 0, 10, Integrator.RK4, MaritimeDriftEngine.DEFAULT_STEP_MILLIS);
+		List<LatLonGeo> starts = new ArrayList<>();
+		for (int p = 0; p < 600; p++) {
+			starts.add(LatLonGeo.fromDeg(0, 0.4));
+		}
+		DriftResult first = engine.run(starts, START_TIME, 3, BOX, new RandomSeeder(7));
+		DriftResult second = engine.run(starts, START_TIME, 3, BOX, new RandomSeeder(7));
+		for (int p = 0; p < starts.size(); p++) {
+			// 2 m/s east for 3 hours leaves the box, about 11 km east of the start
+			assertTrue(first.isStopped(3, p));
+			assertTrue(first.getLonDeg(3, p) <= 0.5);
+			assertEquals(first.getLatDeg(3, p), second.getLatDeg(3, p), 0);
+			assertEquals(first.getLonDeg(3, p), second.getLonDeg(3, p), 0);
+		}
+		assertTrue(first.getLatDeg(1, 0) != first.getLatDeg(1, 1));
+		assertEquals(4, first.toSamples().get(0).getNumPoints());
+	}
+
+	@Test
+	public void testSlicesMatchGetData() {
+		double[] lats = {-1, -0.7, -0.1, 0.2, 1};
+		double[] lons = {-1, -0.4, 0, 0.9, 1};
+		long[] times = {START_TIME, START_TIME + 3 * DateTimeUtilities.millisecInHour, START_TIME + 5 * DateTimeUtilities.millisecInHour};
+		AbstractTimeBasedVectorData current = currents(lats, lons, times,
+				(lat, lon, t) -> new Velocity2d(Math.sin(3 * lat + t / 1e7), Math.cos(2 * lon - t / 1e7)));
+		VectorDataSlices slices = new VectorDataSlices(current);
+		Random random = new Random(3);
+		double[] out = new double[2];
+		for (long time = START_TIME - DateTimeUtilities.millisecInHour; time < START_TIME + 7 * DateTimeUtilities.millisecInHour; time += 20 * DateTimeUtilities.millisecInMin) {
+			VectorDataSlices.Bracket bracket = slices.bracket(time);
+			for (int k = 0; k < 20; k++) {
+				LatLonGeo point = LatLonGeo.fromDeg(-1.2 + 2.4 * random.nextDouble(), -1.2 + 2.4 * random.nextDouble());
+				bracket.interpolate(point.getLatDeg(), point.getLonDeg(), out);
+				Velocity2d expected = current.getData(point, time);
+				assertArrayEquals(new double[] {expected.getEast(), expected.getNorth()}, out, 1e-12);
+			}
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.bbn.landsar.motionmodel.path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests that the incrementally maintained path length matches a full re-sum
+ */
+public class PathBuilderTest {
+
+	@Test
+	public void testIncrementalLength() {
+		Random random = new Random(23);
+		List<LatLonGeo> expected = new ArrayList<>();
+		LatLonGeo start = LatLonGeo.fromDeg(38, -77);
+		expected.add(start);
+		PathBuilder builder = new PathBuilder(start);
+		TimeAwarePathBuilder timeBuilder = new TimeAwarePathBuilder(start, 0);
+		for (int step = 1; step < 500; step++) {
+			LatLonGeo pt = LatLonGeo.fromDeg(38 + random.nextDouble() * 0.1, -77 + random.nextDouble() * 0.1);
+			int op = random.nextInt(10);
+			if (op == 0 && expected.size() > 1) {
+				int index = random.nextInt(expected.size());
+				expected.remove(index);
+				builder.removePointAtIndex(index);
+				timeBuilder.removePointAtIndex(index);
+			} else if (op == 1) {
+				expected.add(0, pt);
+				builder.prependPoint(pt);
+				timeBuilder.prependPoint(pt, -step);
+			} else {
+				expected.add(pt);
+				builder.appendPoint(pt);
+				timeBuilder.appendPoint(pt, step);
+			}
+			double length = 0;
+			for (int i = 0; i < expected.size() - 1; i++) {
+				length += expected.get(i).getDistanceTo(expected.get(i + 1));
+			}
+			assertEquals(length, builder.getPathLength(), 1e-6);
+			assertEquals(length, timeBuilder.getPathLength(), 1e-6);
+		}
+		assertEquals(expected, builder.build().getPoints());
+		assertEquals(expected, builder.anchorPoints);
+		assertEquals(builder.getPathLength(), builder.getLengthInMeters(), 0);
+		assertEquals(expected.size(), timeBuilder.build().getPoints().size());
+	}
+
+	@Test
+	public void testSubclassViewKeepsLength() {
+		Random random = new Random(29);
+		List<LatLonGeo> expected = new ArrayList<>();
+		PathBuilder builder = new PathBuilder();
+		// the view that subclasses use in place of the former anchorPoints list
+		List<LatLonGeo> view = builder.anchorPoints;
+		for (int step = 0; step < 500; step++) {
+			LatLonGeo pt = LatLonGeo.fromDeg(38 + random.nextDouble() * 0.1, -77 + random.nextDouble() * 0.1);
+			int op = random.nextInt(4);
+			if (op == 0 && !expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.remove(index), view.remove(index));
+			} else if (op == 1 && !expected.isEmpty()) {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.set(index, pt), view.set(index, pt));
+			} else {
+				int index = random.nextInt(expected.size() + 1);
+				expected.add(index, pt);
+				view.add(index, pt);
+			}
+			double length = 0;
+			for (int i = 0; i < expected.size() - 1; i++) {
+				length += expected.get(i).getDistanceTo(expected.get(i + 1));
+			}
+			assertEquals(length, builder.getLengthInMeters(), 1e-6);
+		}
+		assertEquals(expected, builder.build().getPoints());
+	}
+
+	@Test
+	public void testTimeAwareRemoveOutOfRange() {
+		TimeAwarePathBuilder builder = new TimeAwarePathBuilder(LatLonGeo.fromDeg(0, 0), 0);
+		builder.appendPoint(LatLonGeo.fromDeg(0, 1), 60);
+		for (int index : new int[] {-1, 2}) {
+			try {
+				builder.removePointAtIndex(index);
+				fail("Removed index " + index);
+			} catch (IndexOutOfBoundsException expected) {
+				// expected
+			}
+		}
+		// nothing was removed, so points and times are still in step
+		assertEquals(2, builder.getNumPoints());
+		assertEquals(2, builder.build().getPoints().size());
+	}
+
+	@Test
+	public void testAppendPath() {
+		PathBuilder first = new PathBuilder(new LatLonGeo[] {LatLonGeo.fromDeg(0, 0), LatLonGeo.fromDeg(0, 1)});
+		PathBuilder second = new PathBuilder(new LatLonGeo[] {LatLonGeo.fromDeg(0, 2), LatLonGeo.fromDeg(0, 3)});
+		first.appendPath(second);
+		double expected = LatLonGeo.fromDeg(0, 0).getDistanceTo(LatLonGeo.fromDeg(0, 3));
+		assertEquals(expected, first.getPathLength(), 1e-6);
+		assertEquals(4, first.getNumPoints());
+	}
+}
@@ -0,0 +1,75 @@
+package com.bbn.landsar.motionmodel.path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.bbn.landsar.MovementSchedule;
+import com.bbn.landsar.ScheduleManager;
+import com.bbn.landsar.ScheduleManager.StandardSchedule;
+import com.bbn.landsar.geospatial.TestAreaData;
+import com.bbn.landsar.geospatial.TestLandCoverData;
+import com.bbn.landsar.motionmodel.UserEnteredGeospatialData;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests that skipping resting intervals gives the same samples as stepping through them
+ */
+public class SampleBuilderTest {
+
+	// 2023-03-10T00:00Z, two days before the US daylight savings change
+	private static final long START_TIME = 1678406400000L;
+	private static final long TIME_DELTA = 5 * 60 * 1000L;
+
+	private final UserEnteredGeospatialData geospatialInputs = new UserEnteredGeospatialData(
+			Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+
+	@Test
+	public void testSkippingRestMatchesSteppingUtc() {
+		assertSkippingRestMatches(ScheduleManager.getOrCreateScheduleForTimeZone(StandardSchedule.Night, TimeZone.getTimeZone("UTC")),
+				TestAreaData.landOnly(0, 1, 0, 1, 20, 20));
+	}
+
+	@Test
+	public void testSkippingRestMatchesSteppingAcrossDaylightSavings() {
+		assertSkippingRestMatches(ScheduleManager.getOrCreateScheduleForTimeZone(StandardSchedule.Day, TimeZone.getTimeZone("America/New_York")),
+				TestAreaData.landOnly(0, 1, 0, 1, 20, 20));
+	}
+
+	@Test
+	public void testSkippingRestMatchesSteppingIntoWater() {
+		TestAreaData areaData = TestAreaData.landOnly(0, 1, 0, 1, 20, 20);
+		TestLandCoverData landcover = (TestLandCoverData) areaData.getLandcoverData();
+		for (int i = 0; i < 20; i++) {
+			landcover.setCode(i, 5, TestLandCoverData.WATER);
+		}
+		assertSkippingRestMatches(ScheduleManager.getOrCreateScheduleForTimeZone(StandardSchedule.Night, TimeZone.getTimeZone("UTC")), areaData);
+	}
+
+	private void assertSkippingRestMatches(MovementSchedule schedule, TestAreaData areaData) {
+		List<SampleBuilder> stepped = new ArrayList<>();
+		List<SampleBuilder> skipping = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			// start times spread over a day so that samples start both resting and moving
+			long startTime = START_TIME + i * 7 * 37 * TIME_DELTA;
+			LatLonGeo start = LatLonGeo.fromDeg(0.1 + 0.01 * i, 0.1);
+			stepped.add(new SampleBuilder(startTime, TIME_DELTA, start, Math.PI / 2 - 0.1 * i, 30, 3));
+			skipping.add(new SampleBuilder(startTime, TIME_DELTA, start, Math.PI / 2 - 0.1 * i, 30, 3));
+		}
+		SampleSimulationEngine engine = new SampleSimulationEngine(new ForkJoinPool(2), 4);
+		List<Sample> expected = engine.run(stepped, schedule, areaData, geospatialInputs, true);
+		List<Sample> actual = engine.runSkippingRest(skipping, schedule, areaData, geospatialInputs, true);
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(expected.get(i).getNumPoints() > 1);
+			assertEquals(expected.get(i).getEndTime(), actual.get(i).getEndTime());
+			assertEquals(expected.get(i).getPointsView(), actual.get(i).getPointsView());
+		}
+	}
+}
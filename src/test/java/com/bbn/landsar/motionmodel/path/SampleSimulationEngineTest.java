@@ -0,0 +1,74 @@
+package com.bbn.landsar.motionmodel.path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests that the parallel engine finishes every builder and keeps their order
+ */
+public class SampleSimulationEngineTest {
+
+	@Test
+	public void testParallelMatchesInputOrder() {
+		List<SampleBuilder> builders = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			builders.add(new SampleBuilder(i * 1000L, 300, LatLonGeo.fromDeg(0, i * 0.001), 0, 10, 3));
+		}
+		// each builder ends after a number of steps that depends on its index
+		int[] stepsTaken = new int[builders.size()];
+		SampleSimulationEngine.Stepper stepper = (builder, time) -> {
+			int index = (int) (builder.getStartTime() / 1000);
+			stepsTaken[index]++;
+			if (stepsTaken[index] == 1 + index % 17) {
+				builder.setEndTime(time);
+			}
+		};
+		List<Sample> samples = new SampleSimulationEngine(new ForkJoinPool(4), 8).run(builders, stepper);
+		assertEquals(builders.size(), samples.size());
+		for (int i = 0; i < samples.size(); i++) {
+			assertEquals(i * 1000L, samples.get(i).getStartTime());
+			assertEquals(LatLonGeo.fromDeg(0, i * 0.001), samples.get(i).getLocation(i * 1000L));
+			// the step after the end time is set is the last one
+			assertEquals(2 + i % 17, stepsTaken[i]);
+		}
+	}
+
+	@Test
+	public void testBatchesDoubleAndCoverEveryBuilder() {
+		List<SampleBuilder> builders = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			builders.add(new SampleBuilder(i * 1000L, 300, LatLonGeo.fromDeg(0, i * 0.001), 0, 10, 3));
+		}
+		SampleSimulationEngine.Stepper stepper = (builder, time) -> builder.setEndTime(builder.getStartTime() + 300);
+		List<Integer> batchSizes = new ArrayList<>();
+		List<Sample> batched = new ArrayList<>();
+		List<Sample> samples = new SampleSimulationEngine(new ForkJoinPool(4), 8).runInBatches(builders, stepper, 100,
+				(batch, numFinished, numTotal) -> {
+					batchSizes.add(batch.size());
+					batched.addAll(batch);
+					assertEquals(batched.size(), numFinished);
+					assertEquals(builders.size(), numTotal);
+				});
+		assertEquals(Arrays.asList(100, 200, 400, 300), batchSizes);
+		// the first batch is spread over all of the builders, not just the first hundred
+		for (int k = 0; k < 100; k++) {
+			assertEquals(k * 10 * 1000L, batched.get(k).getStartTime());
+		}
+		assertEquals(builders.size(), samples.size());
+		for (int i = 0; i < samples.size(); i++) {
+			assertEquals(i * 1000L, samples.get(i).getStartTime());
+			assertTrue(batched.contains(samples.get(i)));
+		}
+		assertSame(samples.get(10), batched.get(1));
+	}
+}
@@ -0,0 +1,147 @@
+package com.bbn.landsar.motionmodel.path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.bbn.landsar.utils.LandsarUtils;
+import com.bbn.landsar.utils.json.LandsarJsonModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests that the primitive location lookups match {@link Sample#getLocation(long)}
+ */
+public class SampleTest {
+
+	@Test
+	public void testPrimitiveLocations() {
+		List<LatLonGeo> pts = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			pts.add(LatLonGeo.fromDeg(38 + i * 0.001, -77 - (i % 3) * 0.001));
+		}
+		Sample sample = new Sample(1000, 300, pts, new ArrayList<Double>());
+		sample.setQuittingTimeRelativeToStart(2000);
+
+		long[] times = {0, 1000, 1150, 1300, 2222, 2999, 3000, 3001, 10000};
+		double[] lat = new double[times.length];
+		double[] lon = new double[times.length];
+		sample.getLocations(times, lat, lon);
+		double[] out = new double[2];
+		for (int i = 0; i < times.length; i++) {
+			LatLonGeo expected = sample.getLocation(times[i]);
+			assertEquals(expected.getLatDeg(), lat[i], 1e-12);
+			assertEquals(expected.getLonDeg(), lon[i], 1e-12);
+			sample.getLocation(times[i], out);
+			assertEquals(expected.getLatDeg(), out[0], 1e-12);
+			assertEquals(expected.getLonDeg(), out[1], 1e-12);
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testPointsViewIsReadOnly() {
+		Sample sample = new Sample(0, 300, new ArrayList<>(Arrays.asList(LatLonGeo.fromDeg(0, 0))), new ArrayList<Double>());
+		assertEquals(1, sample.getPointsView().size());
+		sample.getPointsView().clear();
+	}
+
+	@Test
+	public void testRunLengthEncoding() throws Exception {
+		List<LatLonGeo> pts = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			LatLonGeo pt = LatLonGeo.fromDeg(38 + i * 0.001, -77);
+			// moving, then resting at each point
+			pts.addAll(Collections.nCopies(1 + i * 10, pt));
+		}
+		Sample plain = new Sample(0, 300, new ArrayList<>(pts), new ArrayList<Double>());
+		Sample compact = new Sample(0, 300, new ArrayList<>(pts), new ArrayList<Double>());
+		assertTrue(compact.compactStationaryRuns());
+		assertTrue(compact.isRunLengthEncoded());
+		assertEquals(plain, compact);
+		assertEquals(plain.hashCode(), compact.hashCode());
+		for (long time = -300; time <= plain.getEndTime() + 300; time += 70) {
+			assertEquals(plain.getLocation(time), compact.getLocation(time));
+			assertEquals(plain.isMoving(time), compact.isMoving(time));
+		}
+
+		ObjectMapper mapper = new ObjectMapper();
+		String json = mapper.writeValueAsString(compact);
+		Sample restored = mapper.readValue(json, Sample.class);
+		assertTrue(restored.isRunLengthEncoded());
+		assertSameLocations(compact, restored);
+		// the encoding is in memory only: the JSON holds every point, as for a sample that is not encoded
+		assertEquals(mapper.writeValueAsString(plain), json);
+		assertFalse(json.contains("runLengths"));
+	}
+
+	@Test
+	public void testReadsLegacyPtsString() throws Exception {
+		String json = "{\"startTime\":0,\"endTime\":300,\"timeDelta\":300,\"ptsString\":\"38.5,-77.25,38.501,-77.251\",\"resourceLevelChange\":[]}";
+		Sample sample = new ObjectMapper().readValue(json, Sample.class);
+		assertEquals(LatLonGeo.fromDeg(38.501, -77.251), sample.getLocation(300));
+		assertFalse(LandsarJsonModule.newObjectMapper().writeValueAsString(sample).contains("ptsString"));
+	}
+
+	@Test
+	public void testWritesReadableFormByDefault() throws Exception {
+		List<LatLonGeo> pts = new ArrayList<>(Arrays.asList(LatLonGeo.fromDeg(38.123456789, -77.987654321), LatLonGeo.fromDeg(38.2, -77.9)));
+		Sample sample = new Sample(0, 300, pts, new ArrayList<Double>());
+		// resting at the last point, as SampleBuilder.build() leaves it
+		List<LatLonGeo> resting = new ArrayList<>(pts);
+		resting.addAll(Collections.nCopies(10, pts.get(1)));
+		Sample compacted = new Sample(0, 300, resting, new ArrayList<Double>());
+		assertTrue(compacted.compactStationaryRuns());
+		Path path = new Path(pts);
+		ObjectMapper mapper = new ObjectMapper();
+		for (Sample written : Arrays.asList(sample, compacted)) {
+			String json = mapper.writeValueAsString(written);
+			assertFalse(json.contains("ptsEncoded"));
+			assertFalse(json.contains("runLengths"));
+			// every point, not rounded, as readers from before the compact forms expect
+			assertEquals(LandsarUtils.getStringForPts(written.getPoints()), mapper.readTree(json).get("ptsString").asText());
+			assertEquals(written, mapper.readValue(json, Sample.class));
+		}
+		String pathJson = mapper.writeValueAsString(path);
+		assertTrue(pathJson.contains("pathString"));
+		assertFalse(pathJson.contains("pathEncoded"));
+		assertEquals(path, mapper.readValue(pathJson, Path.class));
+
+		// the compact form only from mappers that ask for it
+		ObjectMapper compactMapper = LandsarJsonModule.newObjectMapper();
+		String json = compactMapper.writeValueAsString(compacted);
+		assertTrue(json.contains("ptsEncoded"));
+		assertFalse(json.contains("ptsString"));
+		assertSameLocations(compacted, mapper.readValue(json, Sample.class));
+		pathJson = compactMapper.writeValueAsString(path);
+		assertTrue(pathJson.contains("pathEncoded"));
+		assertFalse(pathJson.contains("pathString"));
+		assertEquals(pts.size(), mapper.readValue(pathJson, Path.class).getPoints().size());
+	}
+
+	private static void assertSameLocations(Sample expected, Sample actual) {
+		assertEquals(expected.getNumPoints(), actual.getNumPoints());
+		assertEquals(expected.getEndTime(), actual.getEndTime());
+		for (int i = 0; i < expected.getNumPoints(); i++) {
+			assertEquals(expected.getPointsView().get(i).getLatDeg(), actual.getPointsView().get(i).getLatDeg(), 1e-7);
+			assertEquals(expected.getPointsView().get(i).getLonDeg(), actual.getPointsView().get(i).getLonDeg(), 1e-7);
+		}
+	}
+
+	@Test
+	public void testStationaryPathIsOneRun() {
+		StationaryPath path = new StationaryPath(LatLonGeo.fromDeg(1, 2));
+		path.setTotalTime(3000);
+		Sample sample = path.toSample(0, 300);
+		assertTrue(sample.isRunLengthEncoded());
+		assertEquals(11, sample.getNumPoints());
+		assertEquals(3000, sample.getEndTime());
+		assertEquals(LatLonGeo.fromDeg(1, 2), sample.getLocation(1234));
+	}
+}
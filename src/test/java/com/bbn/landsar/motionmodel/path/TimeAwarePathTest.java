@@ -0,0 +1,64 @@
+package com.bbn.landsar.motionmodel.path;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests time lookups on a TimeAwarePath
+ */
+public class TimeAwarePathTest {
+
+	private static final LatLonGeo A = LatLonGeo.fromDeg(38, -77);
+	private static final LatLonGeo B = LatLonGeo.fromDeg(39, -77);
+	private static final LatLonGeo C = LatLonGeo.fromDeg(39, -76);
+
+	@Test
+	public void testNextPointAfter() {
+		TimeAwarePath path = new TimeAwarePath(Arrays.asList(A, B, C), new long[] {0, 100, 200});
+		assertEquals(A, path.nextPointAfter(-1));
+		assertEquals(B, path.nextPointAfter(0));
+		assertEquals(B, path.nextPointAfter(99));
+		assertEquals(C, path.nextPointAfter(100));
+		// past the end gives the last point
+		assertEquals(C, path.nextPointAfter(500));
+	}
+
+	@Test
+	public void testUnsortedTimes() {
+		// as built by prepending points with earlier times
+		TimeAwarePath path = new TimeAwarePath(Arrays.asList(B, C, A), Arrays.asList(100L, 200L, 0L));
+		assertEquals(B, path.pointAtTime(50));
+		assertEquals(0L, path.getTimes()[0]);
+		// the points the path reports are in the same order as its times
+		assertEquals(Arrays.asList(A, B, C), path.getPoints());
+		assertEquals(C, path.getEndPoint());
+	}
+
+	@Test
+	public void testInterpolation() {
+		TimeAwarePath path = new TimeAwarePath(Arrays.asList(A, B, C), new long[] {0, 100, 200});
+		LatLonGeo mid = path.interpolatedPointAtTime(150);
+		assertEquals(39, mid.getLatDeg(), 1e-9);
+		assertEquals(-76.5, mid.getLonDeg(), 1e-9);
+		assertEquals(A.getLatDeg(), path.interpolatedPointAtTime(-10).getLatDeg(), 1e-9);
+		assertEquals(C.getLonDeg(), path.interpolatedPointAtTime(1000).getLonDeg(), 1e-9);
+
+		long[] queries = {-10, 25, 100, 150, 1000};
+		double[] lat = new double[queries.length];
+		double[] lon = new double[queries.length];
+		path.pointsAtTimes(queries, true, lat, lon);
+		for (int i = 0; i < queries.length; i++) {
+			LatLonGeo expected = path.interpolatedPointAtTime(queries[i]);
+			assertEquals(expected.getLatDeg(), lat[i], 1e-9);
+			assertEquals(expected.getLonDeg(), lon[i], 1e-9);
+		}
+		LatLonGeo[] next = path.pointsAtTimes(queries, false);
+		assertEquals(B, next[1]);
+		assertEquals(C, next[2]);
+	}
+}
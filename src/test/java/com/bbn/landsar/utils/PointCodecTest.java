@@ -0,0 +1,83 @@
+package com.bbn.landsar.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bbn.landsar.motionmodel.path.Path;
+import com.bbn.landsar.utils.json.LandsarJsonModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests the binary point codec against the CSV form
+ */
+public class PointCodecTest {
+
+	@Test
+	public void testRoundTrip() {
+		Random random = new Random(5);
+		List<LatLonGeo> pts = new ArrayList<>();
+		double lat = -89.5;
+		double lon = 179.9;
+		for (int i = 0; i < 1000; i++) {
+			lat = Math.max(-90, Math.min(90, lat + random.nextGaussian() * 0.01));
+			lon = i == 500 ? -179.9 : lon + random.nextGaussian() * 0.01;
+			pts.add(LatLonGeo.fromDeg(lat, lon));
+		}
+		byte[] bytes = PointCodec.encode(pts);
+		LatLonGeo[] decoded = PointCodec.decodeBase64(PointCodec.encodeToBase64(pts));
+		assertEquals(pts.size(), decoded.length);
+		for (int i = 0; i < decoded.length; i++) {
+			assertEquals(pts.get(i).getLatDeg(), decoded[i].getLatDeg(), PointCodec.DEGREES_PER_UNIT);
+			assertEquals(pts.get(i).getLonDeg(), decoded[i].getLonDeg(), PointCodec.DEGREES_PER_UNIT);
+		}
+		assertTrue(bytes.length * 5 < LandsarUtils.getStringForPts(pts).length());
+	}
+
+	@Test
+	public void testDecimalValuesAreExact() {
+		LatLonGeo[] pts = {LatLonGeo.fromDeg(38.1234567, -77.7654321), LatLonGeo.fromDeg(0, 0), LatLonGeo.fromDeg(-12.5, 45.25)};
+		LatLonGeo[] decoded = PointCodec.decode(PointCodec.encode(pts));
+		for (int i = 0; i < pts.length; i++) {
+			assertEquals(pts[i].getLatDeg(), decoded[i].getLatDeg(), 0);
+			assertEquals(pts[i].getLonDeg(), decoded[i].getLonDeg(), 0);
+		}
+		assertEquals(0, PointCodec.decode(PointCodec.encode(new LatLonGeo[0])).length);
+	}
+
+	@Test
+	public void testRejectsPointsItCannotEncode() {
+		for (double bad : new double[] {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}) {
+			try {
+				PointCodec.encode(new LatLonGeo[] {LatLonGeo.fromDeg(38.5, -77.25), LatLonGeo.fromDeg(38.5, bad)});
+				fail("Encoded " + bad);
+			} catch (IllegalArgumentException expected) {
+				// expected
+			}
+		}
+		// the largest jumps between valid coordinates still fit the buffer
+		LatLonGeo[] extremes = {LatLonGeo.fromDeg(-90, -180), LatLonGeo.fromDeg(90, 180), LatLonGeo.fromDeg(-90, -180)};
+		LatLonGeo[] decoded = PointCodec.decode(PointCodec.encode(extremes));
+		assertEquals(180, decoded[1].getLonDeg(), 0);
+		assertEquals(-180, decoded[2].getLonDeg(), 0);
+	}
+
+	@Test
+	public void testPathJson() throws Exception {
+		ObjectMapper mapper = LandsarJsonModule.newObjectMapper();
+		Path path = new Path(new LatLonGeo[] {LatLonGeo.fromDeg(38.5, -77.25), LatLonGeo.fromDeg(38.75, -77.5)});
+		String json = mapper.writeValueAsString(path);
+		assertTrue(json.contains("pathEncoded"));
+		assertEquals(path, mapper.readValue(json, Path.class));
+		// saved before the binary form existed
+		String legacy = "{\"@class\":\"com.bbn.landsar.motionmodel.path.Path\",\"pathString\":\"38.5,-77.25,38.75,-77.5\"}";
+		assertEquals(path, mapper.readValue(legacy, Path.class));
+	}
+}
@@ -0,0 +1,59 @@
+package com.bbn.landsar.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.bbn.landsar.geospatial.PolygonalExclusionZone;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests that PreparedPolygon answers exactly like GeometryUtils
+ */
+public class PreparedPolygonTest {
+
+	@Test
+	public void testMatchesGeometryUtils() {
+		Random random = new Random(5);
+		for (int trial = 0; trial < 20; trial++) {
+			// star-shaped polygon with vertices on a coarse grid, so that points often land on edges and vertices
+			int n = 3 + random.nextInt(30);
+			List<LatLonGeo> polygon = new ArrayList<>();
+			for (int v = 0; v < n; v++) {
+				double angle = 2 * Math.PI * v / n;
+				double r = 2 + random.nextInt(8);
+				polygon.add(new LatLonGeo(Math.round(r * Math.sin(angle)), Math.round(r * Math.cos(angle))));
+			}
+			PreparedPolygon prepared = new PreparedPolygon(polygon);
+
+			double[] lat = new double[2000];
+			double[] lon = new double[2000];
+			for (int i = 0; i < lat.length; i++) {
+				lat[i] = (i % 2 == 0) ? random.nextInt(25) - 12 : random.nextDouble() * 24 - 12;
+				lon[i] = (i % 3 == 0) ? random.nextInt(25) - 12 : random.nextDouble() * 24 - 12;
+			}
+			BitSet inside = new BitSet();
+			prepared.containsAll(lat, lon, inside);
+			for (int i = 0; i < lat.length; i++) {
+				boolean expected = GeometryUtils.polygonContainsPoint(new LatLonGeo(lat[i], lon[i]), polygon);
+				assertEquals(lat[i] + "," + lon[i], expected, prepared.contains(lat[i], lon[i]));
+				assertEquals(expected, inside.get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testPolygonalExclusionZoneAfterSetVertices() {
+		// zones created through the JSON constructor never had their bounds computed
+		PolygonalExclusionZone zone = new PolygonalExclusionZone();
+		zone.setVertices(Arrays.asList(new LatLonGeo(40, -70), new LatLonGeo(40, -69), new LatLonGeo(41, -69), new LatLonGeo(41, -70)));
+		assertEquals(true, zone.pointInside(new LatLonGeo(40.5, -69.5)));
+		assertEquals(false, zone.pointInside(new LatLonGeo(41.5, -69.5)));
+	}
+}
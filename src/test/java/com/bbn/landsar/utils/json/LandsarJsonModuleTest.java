@@ -0,0 +1,96 @@
+package com.bbn.landsar.utils.json;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.bbn.landsar.geospatial.BoundingBox;
+import com.bbn.landsar.motionmodel.PdValuesWithUUID;
+import com.bbn.landsar.motionmodel.ProbabilityDistribution;
+import com.bbn.landsar.motionmodel.path.Path;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.metsci.glimpse.util.geo.LatLonGeo;
+
+/**
+ * Tests that the streaming serializers round trip and stay compatible with default databind
+ */
+public class LandsarJsonModuleTest {
+
+	private static ProbabilityDistribution distribution() {
+		double[][] probs = new double[3][4];
+		for (int i = 0; i < probs.length; i++) {
+			for (int j = 0; j < probs[i].length; j++) {
+				probs[i][j] = (i * 4 + j) / 66.0;
+			}
+		}
+		return new ProbabilityDistribution(UUID.randomUUID(), 1234L, probs, new BoundingBox(38.1, 38.0, -77.0, -77.1));
+	}
+
+	@Test
+	public void testGridMatchesDefaultDatabind() throws Exception {
+		ProbabilityDistribution dist = distribution();
+		ObjectMapper plain = new ObjectMapper();
+		ObjectMapper streaming = LandsarJsonModule.newObjectMapper();
+		String json = streaming.writeValueAsString(dist);
+		assertEquals(plain.writeValueAsString(dist), json);
+		ProbabilityDistribution restored = streaming.readValue(plain.writeValueAsString(dist), ProbabilityDistribution.class);
+		for (int i = 0; i < dist.getCellProbs().length; i++) {
+			assertArrayEquals(dist.getCellProbs()[i], restored.getCellProbs()[i], 0);
+		}
+	}
+
+	@Test
+	public void testDoubleLists() throws Exception {
+		PdValuesWithUUID pds = new PdValuesWithUUID(3);
+		UUID searchId = UUID.randomUUID();
+		pds.addProbDetect(searchId, new ArrayList<>(Arrays.asList(0.25, 0.5, 1.0)));
+		ObjectMapper streaming = LandsarJsonModule.newObjectMapper();
+		String json = streaming.writeValueAsString(pds);
+		assertEquals(new ObjectMapper().writeValueAsString(pds), json);
+		PdValuesWithUUID restored = streaming.readValue(json, PdValuesWithUUID.class);
+		assertEquals(pds.getPdValues(), restored.getPdValues());
+	}
+
+	@Test
+	public void testPointLists() throws Exception {
+		Map<Long, List<LatLonGeo>> pointsAtTimes = Collections.singletonMap(5L,
+				Arrays.asList(LatLonGeo.fromDeg(38.5, -77.25), LatLonGeo.fromDeg(-1, 2)));
+		TypeReference<Map<Long, List<LatLonGeo>>> type = new TypeReference<Map<Long, List<LatLonGeo>>>() {};
+		ObjectMapper streaming = LandsarJsonModule.newObjectMapper();
+		String json = streaming.writerFor(type).writeValueAsString(pointsAtTimes);
+		assertEquals("{\"5\":[38.5,-77.25,-1.0,2.0]}", json);
+		assertEquals(pointsAtTimes, streaming.readValue(json, type));
+		assertEquals(pointsAtTimes, streaming.readValue("{\"5\":[[38.5,-77.25],{\"latDeg\":-1,\"lonDeg\":2,\"latRad\":0}]}", type));
+	}
+
+	@Test
+	public void testSmileAndServiceRegistration() throws Exception {
+		ProbabilityDistribution dist = distribution();
+		ObjectMapper smile = LandsarJsonModule.newSmileObjectMapper();
+		byte[] bytes = smile.writeValueAsBytes(dist);
+		ProbabilityDistribution restored = smile.readValue(bytes, ProbabilityDistribution.class);
+		assertArrayEquals(dist.getCellProbs()[2], restored.getCellProbs()[2], 0);
+
+		// discovered mappers keep the default point format, but can still read flat point lists
+		ObjectMapper discovered = new ObjectMapper().findAndRegisterModules();
+		List<LatLonGeo> points = Arrays.asList(LatLonGeo.fromDeg(1, 2));
+		TypeReference<List<LatLonGeo>> pointListType = new TypeReference<List<LatLonGeo>>() {};
+		String json = discovered.writerFor(pointListType).writeValueAsString(points);
+		assertEquals(new ObjectMapper().writerFor(pointListType).writeValueAsString(points), json);
+		assertTrue(json.startsWith("[{"));
+		assertEquals(points, discovered.readValue("[1.0,2.0]", pointListType));
+		assertEquals("[1.0,2.0]", LandsarJsonModule.newObjectMapper().writerFor(pointListType).writeValueAsString(points));
+		// and the readable path points
+		assertTrue(discovered.writeValueAsString(new Path(points)).contains("pathString"));
+	}
+}